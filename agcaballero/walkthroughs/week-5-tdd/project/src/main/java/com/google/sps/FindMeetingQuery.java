@@ -15,38 +15,20 @@
 package com.google.sps;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.EnumSet;
 import java.util.List;
-import java.util.Set;
 
 public final class FindMeetingQuery {
-
-  /** An enum to represent the different options for availability at every meeting time */
-  private enum Availability { 
-    ALL_AVAILABLE,
-    MANDATORY_AVAILABLE,
-    UNAVAILABLE;
-  
-    boolean isReplaceableBy(Availability availability) {
-      switch (this) {
-        case ALL_AVAILABLE:
-          return true;
-        case UNAVAILABLE:
-          return false;
-        case MANDATORY_AVAILABLE:
-          return availability == ALL_AVAILABLE;
-        default:
-          throw new IllegalStateException("This statement should not be reachable." +
-              "This switch should have conditions for all possible values of enum.");
-      }
-    }
-  }
    
   /** the number of minutes in a day */
   private static final int MINUTES_IN_DAY = 24 * 60;
+
+  /** the number of bits in each word of a minute bitmap */
+  private static final int BITS_PER_WORD = Long.SIZE;
+
+  /** the number of words needed for a bitmap with one bit per minute of the day */
+  private static final int WORDS_IN_DAY = (MINUTES_IN_DAY + BITS_PER_WORD - 1) / BITS_PER_WORD;
   
   /**
    * Takes the events of the day and information about a potential meeting 
@@ -60,43 +42,31 @@ public final class FindMeetingQuery {
     Collection<String> attendees = request.getAttendees();
     Collection<String> optionalAttendees = request.getOptionalAttendees();
 
-    // minutes of day is + 1 to account for first and last minute of day
-    Availability[] minutes = new Availability[MINUTES_IN_DAY + 1];
-    // set all spots to default value of all available
-    Arrays.fill(minutes, Availability.ALL_AVAILABLE);
+    // one bit per minute of the day, set if that minute is busy for a mandatory attendee
+    long[] mandatoryBusy = new long[WORDS_IN_DAY];
+    // one bit per minute of the day, set if that minute is busy for an optional attendee
+    long[] optionalBusy = new long[WORDS_IN_DAY];
 
     for (Event event: events) {
-      Availability availability = Availability.ALL_AVAILABLE;
-      
+      TimeRange range = event.getWhen();
+
       if (!Collections.disjoint(event.getAttendees(), attendees)) {
         // if there's overlap in mandatory attendees, time is unavailable
-        availability = Availability.UNAVAILABLE;
+        setRange(mandatoryBusy, range.start(), range.end());
       } else if (!Collections.disjoint(event.getAttendees(), optionalAttendees)) {
         // if there's an overlap in only the optional attendees, time is available for only the mandatory employees
-        availability = Availability.MANDATORY_AVAILABLE;
+        setRange(optionalBusy, range.start(), range.end());
       }
-      
-      TimeRange range = event.getWhen();
+    }
 
-      switch (availability) {
-        case ALL_AVAILABLE:
-          continue;
-        case UNAVAILABLE:
-          Arrays.fill(minutes, range.start(), range.end(), Availability.UNAVAILABLE);
-          break;
-        case MANDATORY_AVAILABLE:
-          for (int i = range.start(); i < range.end(); i++) {
-            // make sure unavailable times are not overwritten
-            if (minutes[i].isReplaceableBy(availability)) {
-              minutes[i] = availability;
-            }
-          }
-          break;
-      }
+    // minutes where anyone (including optional attendees) is busy
+    long[] anyoneBusy = new long[WORDS_IN_DAY];
+    for (int word = 0; word < WORDS_IN_DAY; word++) {
+      anyoneBusy[word] = mandatoryBusy[word] | optionalBusy[word];
     }
     
     // get times where all attendees (including optional) can go
-    List<TimeRange> availableTimesWithOptionalAttendees = availableTimeRanges(minutes, EnumSet.of( Availability.ALL_AVAILABLE ), request.getDuration());
+    List<TimeRange> availableTimesWithOptionalAttendees = availableTimeRanges(anyoneBusy, request.getDuration());
     
     // if there's at least one time where all optional attendees can go, 
     // return the times with optional attendees
@@ -104,59 +74,90 @@ public final class FindMeetingQuery {
       return availableTimesWithOptionalAttendees;
     } else { 
       // else return the times where mandatory attendees can go
-      return availableTimeRanges(minutes, EnumSet.of ( Availability.ALL_AVAILABLE, Availability.MANDATORY_AVAILABLE ), request.getDuration());
+      return availableTimeRanges(mandatoryBusy, request.getDuration());
+    }
+  }
+
+  /**
+   * Private helper method that sets the bits for the minutes from start (inclusive)
+   * to end (exclusive) in the busy bitmap, a whole word at a time where possible.
+   * Minutes outside of the day are ignored.
+   */
+  private static void setRange(long[] busy, int start, int end) {
+    start = Math.max(start, 0);
+    end = Math.min(end, MINUTES_IN_DAY);
+    if (start >= end) {
+      return;
     }
+
+    int startWord = start / BITS_PER_WORD;
+    int endWord = (end - 1) / BITS_PER_WORD;
+    // masks of the bits at or after start, and at or before end - 1, within their words
+    long startMask = -1L << start;
+    long endMask = -1L >>> -end;
+
+    if (startWord == endWord) {
+      busy[startWord] |= startMask & endMask;
+      return;
+    }
+
+    busy[startWord] |= startMask;
+    for (int word = startWord + 1; word < endWord; word++) {
+      busy[word] = -1L;
+    }
+    busy[endWord] |= endMask;
   }
   
   /** 
-   * Private helper method that generates a list of available time ranges by taking in
-   * in the minuteAvailabilities array and finding the "minutes" that match availabilities
-   * in the set minuteAvailabilities.
+   * Private helper method that generates a list of available time ranges by finding
+   * the runs of clear bits (free minutes) in the busy bitmap, skipping a whole word
+   * at a time with Long.numberOfTrailingZeros.
    *
-   * @return {List<TimeRange>} a list of the available time ranges for the given availabilities
+   * @return {List<TimeRange>} a list of the available time ranges at least requestDuration long
    */
-  private List<TimeRange> availableTimeRanges (Availability[] minuteAvailabilities, 
-      Set<Availability> matchingAvailabilities, long requestDuration) {
-    // declare all variables to keep track of time ranges
-    int start = 0; 
+  private List<TimeRange> availableTimeRanges(long[] busy, long requestDuration) {
     ArrayList<TimeRange> times = new ArrayList<TimeRange>();
-    boolean thisMinuteAvailable = matchingAvailabilities.contains(minuteAvailabilities[start]);
-    // for first minute, this will have same value as thisMinuteAvailable but shouldn't affect result
-    boolean wasLastMinuteAvailable = thisMinuteAvailable; 
-
-    // go through minute availabilities array and create time ranges for all
-    // spots that match one of the availabilities in the matching availabilities set
-    for (int i = 0; i < minuteAvailabilities.length; i++) {
-      // gets availability of current minute (considered available if status matches one within set)
-      thisMinuteAvailable = matchingAvailabilities.contains(minuteAvailabilities[i]);
-
-      if (wasLastMinuteAvailable) {
-        // If the previous minute was available, but the current minute is unavailable or if it's
-        // the end of the day, this is the end of an available time range. If the time range is longer 
-        // than the required duration, it's recorded as an available time range.
-        if (!thisMinuteAvailable  || i == minuteAvailabilities.length - 1) {
-          int end = i;
-          int duration = end - start;
-
-          if (duration >= requestDuration) {
-            times.add(TimeRange.fromStartEnd(start, end - 1, true)); // add time range (inclusive of start & end) 
-          }
-          
-          // avoid an inconsistency b/c in case availableMinutes[availableMinutes.length - 1] is true,
-          // you shouldn't set this to false (& that would happen without this if)
-          if (!thisMinuteAvailable) {
-            wasLastMinuteAvailable = false;
-          }
-        }
-      } else if (thisMinuteAvailable) {
-        // If the last minute was unavailable, but this minute is available, then this is the beginning
-        // of a new available time range, so start will be set to this minute and wasLastMinuteAvailable to true.
-
-        start = i;
-        wasLastMinuteAvailable = true;
+
+    int start = nextMinute(busy, 0, false);
+    while (start < MINUTES_IN_DAY) {
+      // the available time range lasts until the next busy minute (or the end of the day)
+      int end = nextMinute(busy, start, true);
+
+      if (end - start >= requestDuration) {
+        times.add(TimeRange.fromStartEnd(start, end, false));
       }
+      
+      start = nextMinute(busy, end, false);
     }
 
     return times;
   }
+
+  /**
+   * Private helper method that finds the first minute at or after from whose busy bit
+   * equals isBusy.
+   *
+   * @return the first matching minute, or MINUTES_IN_DAY if there is none
+   */
+  private static int nextMinute(long[] busy, int from, boolean isBusy) {
+    if (from >= MINUTES_IN_DAY) {
+      return MINUTES_IN_DAY;
+    }
+
+    int word = from / BITS_PER_WORD;
+    // flip the bits when looking for a free minute so that we always search for a set bit,
+    // and ignore the bits before from
+    long bits = (isBusy ? busy[word] : ~busy[word]) & (-1L << from);
+
+    while (bits == 0) {
+      word++;
+      if (word == WORDS_IN_DAY) {
+        return MINUTES_IN_DAY;
+      }
+      bits = isBusy ? busy[word] : ~busy[word];
+    }
+
+    // the padding bits past the end of the day are never set, so clamp to the end of the day
+    return Math.min(word * BITS_PER_WORD + Long.numberOfTrailingZeros(bits), MINUTES_IN_DAY);
+  }
 }
@@ -0,0 +1,86 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.benchmarks;
+
+import com.google.sps.Event;
+import com.google.sps.MeetingRequest;
+import com.google.sps.TimeRange;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates synthetic calendars for the benchmarks. The same seed always produces the same
+ * calendar, so every implementation is measured against identical inputs.
+ */
+final class CalendarGenerator {
+  /** the longest event generated, in minutes */
+  private static final int MAX_EVENT_DURATION = 120;
+
+  private final Random random;
+  private final int attendeePoolSize;
+
+  /**
+   * @param seed the seed of the random number generator
+   * @param attendeePoolSize the number of distinct attendees that events and requests draw from
+   */
+  CalendarGenerator(long seed, int attendeePoolSize) {
+    this.random = new Random(seed);
+    this.attendeePoolSize = attendeePoolSize;
+  }
+
+  /** Returns {@code count} events of {@code attendeesPerEvent} attendees each within one day. */
+  Collection<Event> events(int count, int attendeesPerEvent) {
+    return events(count, attendeesPerEvent, 1);
+  }
+
+  /**
+   * Returns {@code count} events of {@code attendeesPerEvent} attendees each within the first
+   * {@code days} days.
+   */
+  Collection<Event> events(int count, int attendeesPerEvent, int days) {
+    List<Event> events = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      int duration = 1 + random.nextInt(MAX_EVENT_DURATION);
+      int start = random.nextInt(days * TimeRange.MINUTES_IN_DAY - duration);
+      events.add(new Event("Event " + i, TimeRange.fromStartDuration(start, duration),
+          attendees(attendeesPerEvent)));
+    }
+    return events;
+  }
+
+  /** Returns a request for a meeting of {@code duration} minutes. */
+  MeetingRequest request(int requiredAttendees, int optionalAttendees, long duration) {
+    Set<String> required = attendees(requiredAttendees);
+    MeetingRequest request = new MeetingRequest(required, duration);
+    for (String attendee : attendees(optionalAttendees)) {
+      if (!required.contains(attendee)) {
+        request.addOptionalAttendee(attendee);
+      }
+    }
+    return request;
+  }
+
+  private Set<String> attendees(int count) {
+    Set<String> attendees = new HashSet<>();
+    while (attendees.size() < Math.min(count, attendeePoolSize)) {
+      attendees.add("Person " + random.nextInt(attendeePoolSize));
+    }
+    return attendees;
+  }
+}
@@ -0,0 +1,101 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.benchmarks;
+
+import com.google.sps.Event;
+import com.google.sps.EventStore;
+import com.google.sps.FindMeetingQuery;
+import com.google.sps.InMemoryEventStore;
+import com.google.sps.MeetingRequest;
+import com.google.sps.SnapshotEventStore;
+import com.google.sps.TimeRange;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the throughput of meeting queries while another thread keeps adding events, comparing
+ * the locking {@link InMemoryEventStore} with the lock-free {@link SnapshotEventStore}.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventIngestionBenchmark {
+  /** the number of distinct attendees in the generated calendar */
+  private static final int ATTENDEE_POOL_SIZE = 1000;
+
+  /** the work the writer does between events, so that it writes at a steady rate */
+  private static final long WRITE_INTERVAL_TOKENS = 10000;
+
+  @Param({"in-memory", "snapshot"})
+  public String implementation;
+
+  @Param({"1000", "10000"})
+  public int eventCount;
+
+  private EventStore store;
+  private MeetingRequest request;
+  private List<Event> newEvents;
+  private int next;
+
+  // The events are recreated for every iteration so that the calendar does not keep growing.
+  @Setup(Level.Iteration)
+  public void setUp() {
+    CalendarGenerator generator = new CalendarGenerator(0x5eed, ATTENDEE_POOL_SIZE);
+    Collection<Event> events = generator.events(eventCount, 3);
+    store = "snapshot".equals(implementation)
+        ? new SnapshotEventStore(events)
+        : new InMemoryEventStore(events);
+    request = generator.request(5, 0, TimeRange.getTimeInMinutes(0, 30));
+    newEvents = new ArrayList<>(generator.events(eventCount, 3));
+    next = 0;
+  }
+
+  @Benchmark
+  @Group("ingestion")
+  @GroupThreads(3)
+  public Collection<TimeRange> query() {
+    return new FindMeetingQuery().query(
+        store.getEvents(request.getAttendees(), request.getWindow()), request);
+  }
+
+  @Benchmark
+  @Group("ingestion")
+  @GroupThreads(1)
+  public void add() {
+    Blackhole.consumeCPU(WRITE_INTERVAL_TOKENS);
+    store.add(newEvents.get(next));
+    next = (next + 1) % newEvents.size();
+  }
+}
@@ -0,0 +1,90 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.benchmarks;
+
+import com.google.sps.Event;
+import com.google.sps.MeetingQuery;
+import com.google.sps.MeetingRequest;
+import com.google.sps.MinuteBitmapMeetingQuery;
+import com.google.sps.ParallelMeetingQuery;
+import com.google.sps.SweepLineMeetingQuery;
+import com.google.sps.TimeRange;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures all-hands style requests, with many required attendees over a large calendar,
+ * to compare {@link ParallelMeetingQuery} with the sequential implementations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LargeRequestBenchmark {
+  /** the number of distinct attendees in the generated calendar */
+  private static final int ATTENDEE_POOL_SIZE = 20000;
+
+  @Param({"sweep-line", "minute-bitmap", "parallel"})
+  public String implementation;
+
+  @Param({"10000", "100000"})
+  public int eventCount;
+
+  @Param({"100", "1000"})
+  public int requestAttendees;
+
+  private MeetingQuery query;
+  private Collection<Event> events;
+  private MeetingRequest request;
+
+  @Setup
+  public void setUp() {
+    CalendarGenerator generator = new CalendarGenerator(0x5eed, ATTENDEE_POOL_SIZE);
+    events = generator.events(eventCount, 3);
+    request = generator.request(requestAttendees, 0, TimeRange.getTimeInMinutes(0, 30));
+    query = createQuery(implementation);
+  }
+
+  @Benchmark
+  public Collection<TimeRange> query() {
+    return query.query(events, request);
+  }
+
+  private static MeetingQuery createQuery(String implementation) {
+    switch (implementation) {
+      case "sweep-line":
+        return new SweepLineMeetingQuery();
+      case "minute-bitmap":
+        return new MinuteBitmapMeetingQuery();
+      case "parallel":
+        return new ParallelMeetingQuery();
+      default:
+        throw new IllegalArgumentException("Unknown implementation: " + implementation);
+    }
+  }
+}
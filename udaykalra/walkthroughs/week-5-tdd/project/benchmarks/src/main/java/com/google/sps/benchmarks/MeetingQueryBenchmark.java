@@ -0,0 +1,120 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.benchmarks;
+
+import com.google.sps.CompactEventStore;
+import com.google.sps.CompiledTimelines;
+import com.google.sps.CondensedRangesMeetingQuery;
+import com.google.sps.Event;
+import com.google.sps.FindMeetingQuery;
+import com.google.sps.MeetingQuery;
+import com.google.sps.MeetingRequest;
+import com.google.sps.MinuteBitmapMeetingQuery;
+import com.google.sps.PackedRangesMeetingQuery;
+import com.google.sps.SweepLineMeetingQuery;
+import com.google.sps.TimeRange;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures each {@link MeetingQuery} implementation against the same synthetic calendars. Run
+ * with {@code -prof gc} to also report the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MeetingQueryBenchmark {
+  /** the seed of every generated calendar */
+  private static final long SEED = 0x5eed;
+
+  /** the number of distinct attendees in a generated calendar */
+  private static final int ATTENDEE_POOL_SIZE = 50;
+
+  @Param({"find-meeting-query", "sweep-line", "minute-bitmap", "condensed-ranges",
+      "packed-ranges", "compact-store", "compiled-timelines"})
+  public String implementation;
+
+  @Param({"10", "100", "1000"})
+  public int eventsPerDay;
+
+  @Param({"1", "5"})
+  public int attendeesPerEvent;
+
+  @Param({"2", "10"})
+  public int requestAttendees;
+
+  @Param({"0", "5"})
+  public int optionalAttendees;
+
+  private MeetingQuery query;
+  private Collection<Event> events;
+  private MeetingRequest request;
+
+  @Setup
+  public void setUp() {
+    CalendarGenerator generator = new CalendarGenerator(SEED, ATTENDEE_POOL_SIZE);
+    events = generator.events(eventsPerDay, attendeesPerEvent);
+    query = createQuery(implementation, events);
+    request = generator.request(
+        requestAttendees, optionalAttendees, TimeRange.getTimeInMinutes(0, 30));
+  }
+
+  @Benchmark
+  public Collection<TimeRange> query() {
+    return query.query(events, request);
+  }
+
+  /**
+   * Returns the implementation to measure. The compact store and compiled timelines are built
+   * here, once, before measuring starts, so only their queries are measured.
+   */
+  private static MeetingQuery createQuery(String implementation, Collection<Event> events) {
+    switch (implementation) {
+      case "find-meeting-query":
+        return new FindMeetingQuery();
+      case "sweep-line":
+        return new SweepLineMeetingQuery();
+      case "minute-bitmap":
+        return new MinuteBitmapMeetingQuery();
+      case "condensed-ranges":
+        return new CondensedRangesMeetingQuery();
+      case "packed-ranges":
+        return new PackedRangesMeetingQuery();
+      case "compact-store":
+        CompactEventStore store = new CompactEventStore(events);
+        FindMeetingQuery findMeetingQuery = new FindMeetingQuery();
+        return (ignored, request) -> findMeetingQuery.query(store, request);
+      case "compiled-timelines":
+        CompiledTimelines timelines = CompiledTimelines.of(events);
+        return (ignored, request) -> timelines.query(request);
+      default:
+        throw new IllegalArgumentException("Unknown implementation: " + implementation);
+    }
+  }
+}
@@ -0,0 +1,101 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.benchmarks;
+
+import com.google.sps.Event;
+import com.google.sps.TimeRange;
+import com.google.sps.TimeRangeIndex;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares finding the events that overlap a window with a {@link TimeRangeIndex} against
+ * checking every event with {@link TimeRange#overlaps}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimeRangeIndexBenchmark {
+  /** the number of windows queried in turn, so that no single window is measured */
+  private static final int WINDOWS = 1024;
+
+  @Param({"1000", "100000"})
+  public int eventCount;
+
+  @Param({"1", "7", "30"})
+  public int days;
+
+  @Param({"60"})
+  public int windowMinutes;
+
+  private Collection<Event> events;
+  private TimeRangeIndex<Event> index;
+  private TimeRange[] windows;
+  private int next = 0;
+
+  @Setup
+  public void setUp() {
+    CalendarGenerator generator = new CalendarGenerator(0x5eed, 1000);
+    events = generator.events(eventCount, 2, days);
+    index = TimeRangeIndex.ofEvents(events);
+
+    Random random = new Random(0x5eed);
+    windows = new TimeRange[WINDOWS];
+    for (int i = 0; i < WINDOWS; i++) {
+      int start = random.nextInt(days * TimeRange.MINUTES_IN_DAY - windowMinutes);
+      windows[i] = TimeRange.fromStartDuration(start, windowMinutes);
+    }
+  }
+
+  @Benchmark
+  public List<Event> index() {
+    return index.overlapping(nextWindow());
+  }
+
+  @Benchmark
+  public List<Event> linearScan() {
+    TimeRange window = nextWindow();
+    List<Event> matches = new ArrayList<>();
+    for (Event event : events) {
+      if (window.overlaps(event.getWhen())) {
+        matches.add(event);
+      }
+    }
+    return matches;
+  }
+
+  private TimeRange nextWindow() {
+    TimeRange window = windows[next];
+    next = (next + 1) % WINDOWS;
+    return window;
+  }
+}
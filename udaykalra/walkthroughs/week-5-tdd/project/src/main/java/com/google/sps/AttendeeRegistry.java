@@ -0,0 +1,77 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interns attendee names as dense int ids, starting at 0 and assigned in the order the names are
+ * first seen, so that sets of attendees can be stored as int arrays or {@link BitSet}s and compared
+ * without hashing strings.
+ */
+public final class AttendeeRegistry {
+  private final Map<String, Integer> idsByName = new HashMap<>();
+  private final List<String> namesById = new ArrayList<>();
+
+  /** Returns the id of {@code name}, assigning it the next free id if it has none yet. */
+  public synchronized int intern(String name) {
+    Integer id = idsByName.get(name);
+    if (id == null) {
+      id = namesById.size();
+      idsByName.put(name, id);
+      namesById.add(name);
+    }
+    return id;
+  }
+
+  /** Returns the id of {@code name}, or -1 if it has never been interned. */
+  public synchronized int idOf(String name) {
+    Integer id = idsByName.get(name);
+    return id == null ? -1 : id;
+  }
+
+  /** Returns the name that was interned as {@code id}. */
+  public synchronized String nameOf(int id) {
+    if (id < 0 || id >= namesById.size()) {
+      throw new IllegalArgumentException("unknown attendee id: " + id);
+    }
+    return namesById.get(id);
+  }
+
+  /** Returns the number of names interned so far. */
+  public synchronized int size() {
+    return namesById.size();
+  }
+
+  /**
+   * Returns the set of ids of {@code names}. Names that have never been interned are left out, as
+   * no interned event can involve them.
+   */
+  public synchronized BitSet toBitSet(Collection<String> names) {
+    BitSet ids = new BitSet(namesById.size());
+    for (String name : names) {
+      Integer id = idsByName.get(name);
+      if (id != null) {
+        ids.set(id);
+      }
+    }
+    return ids;
+  }
+}
@@ -0,0 +1,296 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the merged busy time of every attendee up to date as events are added and removed, so that
+ * availability can be answered without going back over every event. Each attendee's busy time is
+ * a balanced search tree of disjoint busy blocks, keyed by start time, next to a tree of the
+ * events that make up those blocks. Adding an event takes O(log n) plus the blocks it swallows,
+ * and removing one re-merges only the events of the block it belonged to.
+ *
+ * <p>Standing queries can subscribe to a meeting request. Their subscribers are told the request's
+ * available times when they subscribe, and again whenever an event of one of the request's
+ * attendees changes those times. Subscribers are called on the thread that changed the events,
+ * after the tracker has been updated and outside its lock. Each answer is numbered when it is
+ * computed, and a subscriber is called with one answer at a time and never with an answer older
+ * than one it has already been given, so it always ends up with the latest times even when
+ * several threads change the events at once.
+ */
+public final class AvailabilityTracker {
+  /** Orders time ranges by start, then by end, so that equal ranges are counted together. */
+  private static final Comparator<TimeRange> ORDER_BY_START_THEN_END =
+      TimeRange.ORDER_BY_START.thenComparing(TimeRange.ORDER_BY_END);
+
+  private final Map<String, Timeline> timelines = new HashMap<>();
+  private final Map<String, Set<Subscription>> subscriptionsByAttendee = new HashMap<>();
+
+  /** Creates a tracker with no events. */
+  public AvailabilityTracker() {}
+
+  /** Creates a tracker containing all of {@code events}. */
+  public AvailabilityTracker(Collection<Event> events) {
+    for (Event event : events) {
+      addEvent(event);
+    }
+  }
+
+  /** Adds the time of {@code event} to the busy time of each of its attendees. */
+  public void addEvent(Event event) {
+    List<Runnable> notifications;
+    synchronized (this) {
+      for (String attendee : event.getAttendees()) {
+        timelines.computeIfAbsent(attendee, key -> new Timeline()).add(event.getWhen());
+      }
+      notifications = refresh(event.getAttendees());
+    }
+    notifications.forEach(Runnable::run);
+  }
+
+  /**
+   * Removes the time of {@code event} from the busy time of each of its attendees. If another
+   * event for the same attendee has the same time, that time stays busy.
+   */
+  public void removeEvent(Event event) {
+    List<Runnable> notifications;
+    synchronized (this) {
+      for (String attendee : event.getAttendees()) {
+        Timeline timeline = timelines.get(attendee);
+        if (timeline != null) {
+          timeline.remove(event.getWhen());
+          if (timeline.isEmpty()) {
+            timelines.remove(attendee);
+          }
+        }
+      }
+      notifications = refresh(event.getAttendees());
+    }
+    notifications.forEach(Runnable::run);
+  }
+
+  /**
+   * Returns the time ranges in which {@code attendee} is busy, sorted by start time, with
+   * overlapping and touching ranges merged into one.
+   */
+  public synchronized List<TimeRange> getMergedBusyRanges(String attendee) {
+    Timeline timeline = timelines.get(attendee);
+    if (timeline == null) {
+      return Collections.emptyList();
+    }
+    return Collections.unmodifiableList(timeline.blocksOverlapping(null));
+  }
+
+  /** Returns the available meeting times for the request, like {@link FindMeetingQuery}. */
+  public synchronized Collection<TimeRange> query(MeetingRequest request) {
+    TimeRange window = request.getWindow();
+    return SweepLineMeetingQuery.query(attendee -> {
+      Timeline timeline = timelines.get(attendee);
+      return timeline == null ? Collections.emptyList() : timeline.blocksOverlapping(window);
+    }, request);
+  }
+
+  /**
+   * Subscribes {@code subscriber} to the available meeting times for the request. It is called
+   * with the current times straight away, and again every time they change.
+   */
+  public Subscription subscribe(
+      MeetingRequest request, Consumer<Collection<TimeRange>> subscriber) {
+    Subscription subscription = new Subscription(request, subscriber);
+    Collection<TimeRange> answer;
+    long sequence;
+    synchronized (this) {
+      for (String attendee : subscription.attendees) {
+        subscriptionsByAttendee.computeIfAbsent(attendee, key -> new LinkedHashSet<>())
+            .add(subscription);
+      }
+      answer = query(request);
+      subscription.lastAnswer = answer;
+      sequence = ++subscription.answerCount;
+    }
+    subscription.deliver(sequence, answer);
+    return subscription;
+  }
+
+  /**
+   * Re-answers the subscriptions of any of {@code attendees}, returning the calls to make to the
+   * subscribers whose answers changed.
+   */
+  private List<Runnable> refresh(Collection<String> attendees) {
+    Set<Subscription> affected = new LinkedHashSet<>();
+    for (String attendee : attendees) {
+      affected.addAll(subscriptionsByAttendee.getOrDefault(attendee, Collections.emptySet()));
+    }
+
+    List<Runnable> notifications = new ArrayList<>();
+    for (Subscription subscription : affected) {
+      Collection<TimeRange> answer = query(subscription.request);
+      if (!answer.equals(subscription.lastAnswer)) {
+        subscription.lastAnswer = answer;
+        long sequence = ++subscription.answerCount;
+        notifications.add(() -> subscription.deliver(sequence, answer));
+      }
+    }
+    return notifications;
+  }
+
+  /** A standing query, re-answered whenever the busy time of one of its attendees changes. */
+  public final class Subscription {
+    private final MeetingRequest request;
+    private final Consumer<Collection<TimeRange>> subscriber;
+    private final Set<String> attendees = new HashSet<>();
+    // The latest answer and how many answers there have been. Guarded by the tracker.
+    private Collection<TimeRange> lastAnswer;
+    private long answerCount;
+    // The number of the latest answer given to the subscriber. Guarded by this subscription.
+    private long delivered;
+
+    private Subscription(MeetingRequest request, Consumer<Collection<TimeRange>> subscriber) {
+      this.request = Objects.requireNonNull(request);
+      this.subscriber = Objects.requireNonNull(subscriber);
+      attendees.addAll(request.getAttendees());
+      attendees.addAll(request.getOptionalAttendees());
+    }
+
+    /**
+     * Gives the subscriber the answer numbered {@code sequence}, unless it has already been given
+     * a later one. The subscriber is called under this subscription's lock, so that an older
+     * answer cannot overtake a newer one on the way to it.
+     */
+    private synchronized void deliver(long sequence, Collection<TimeRange> answer) {
+      if (sequence > delivered) {
+        delivered = sequence;
+        subscriber.accept(answer);
+      }
+    }
+
+    /** Stops the subscriber from being told about any further changes. */
+    public void cancel() {
+      synchronized (AvailabilityTracker.this) {
+        for (String attendee : attendees) {
+          Set<Subscription> subscriptions = subscriptionsByAttendee.get(attendee);
+          if (subscriptions != null) {
+            subscriptions.remove(this);
+            if (subscriptions.isEmpty()) {
+              subscriptionsByAttendee.remove(attendee);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /** The busy time of one attendee. */
+  private static final class Timeline {
+    // the attendee's event times, with how many events there are at each
+    private final NavigableMap<TimeRange, Integer> events = new TreeMap<>(ORDER_BY_START_THEN_END);
+    // the end of each disjoint busy block, keyed by its start; zero-duration events that fall
+    // outside every other block are blocks of their own
+    private final NavigableMap<Integer, Integer> blocks = new TreeMap<>();
+
+    boolean isEmpty() {
+      return events.isEmpty();
+    }
+
+    void add(TimeRange when) {
+      events.merge(when, 1, Integer::sum);
+
+      int start = when.start();
+      int end = when.end();
+      // Join the block that starts before this range if it reaches it.
+      Map.Entry<Integer, Integer> before = blocks.floorEntry(start);
+      if (before != null && before.getValue() >= start) {
+        start = before.getKey();
+        end = Math.max(end, before.getValue());
+      }
+      // Swallow the blocks that start within the range.
+      Map.Entry<Integer, Integer> after = blocks.ceilingEntry(start);
+      while (after != null && after.getKey() <= end) {
+        end = Math.max(end, after.getValue());
+        blocks.remove(after.getKey());
+        after = blocks.higherEntry(after.getKey());
+      }
+      blocks.put(start, end);
+    }
+
+    void remove(TimeRange when) {
+      Integer count = events.get(when);
+      if (count == null) {
+        return;
+      }
+      if (count > 1) {
+        events.put(when, count - 1);
+        return;
+      }
+      events.remove(when);
+
+      // Rebuild the block the range was in from the events left in it.
+      Map.Entry<Integer, Integer> block = blocks.floorEntry(when.start());
+      blocks.remove(block.getKey());
+      TimeRange first = TimeRange.fromStartDuration(block.getKey(), 0);
+      int start = 0;
+      int end = 0;
+      boolean open = false;
+      for (TimeRange range : events.tailMap(first, true).keySet()) {
+        if (range.start() > block.getValue()) {
+          break;
+        }
+        if (open && range.start() <= end) {
+          end = Math.max(end, range.end());
+        } else {
+          if (open) {
+            blocks.put(start, end);
+          }
+          start = range.start();
+          end = range.end();
+          open = true;
+        }
+      }
+      if (open) {
+        blocks.put(start, end);
+      }
+    }
+
+    /** Returns the blocks that overlap {@code window}, or every block if it is null. */
+    List<TimeRange> blocksOverlapping(TimeRange window) {
+      NavigableMap<Integer, Integer> candidates = blocks;
+      if (window != null) {
+        Integer first = blocks.floorKey(window.start());
+        candidates = blocks.subMap(
+            first == null ? window.start() : first, true, window.end(), true);
+      }
+
+      List<TimeRange> ranges = new ArrayList<>(candidates.size());
+      for (Map.Entry<Integer, Integer> block : candidates.entrySet()) {
+        ranges.add(TimeRange.fromStartEnd(block.getKey(), block.getValue(), false));
+      }
+      return ranges;
+    }
+  }
+}
@@ -0,0 +1,113 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the merged busy time ranges of each attendee so that repeated queries for the same people
+ * do no per-event work. Events must be added and removed through the cache so that the entries of
+ * their attendees are invalidated.
+ */
+public final class BusyTimeCache {
+  private final EventIndex index;
+  private final ConcurrentMap<String, List<TimeRange>> mergedBusyRanges = new ConcurrentHashMap<>();
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+
+  /** Creates a cache of the busy time in {@code index}. */
+  public BusyTimeCache(EventIndex index) {
+    this.index = index;
+  }
+
+  /** Adds {@code event} to the underlying index and invalidates its attendees. */
+  public void add(Event event) {
+    index.add(event);
+    invalidate(event.getAttendees());
+  }
+
+  /** Removes {@code event} from the underlying index and invalidates its attendees. */
+  public void remove(Event event) {
+    index.remove(event);
+    invalidate(event.getAttendees());
+  }
+
+  /**
+   * Returns the time ranges in which {@code attendee} is busy, sorted by start time, with
+   * overlapping and touching ranges merged into one.
+   */
+  public List<TimeRange> getMergedBusyRanges(String attendee) {
+    List<TimeRange> cached = mergedBusyRanges.get(attendee);
+    if (cached != null) {
+      hitCount.incrementAndGet();
+      return cached;
+    }
+
+    missCount.incrementAndGet();
+    return mergedBusyRanges.computeIfAbsent(attendee, key -> merge(index.getBusyRanges(key)));
+  }
+
+  /** Returns the number of lookups that were answered from the cache. */
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  /** Returns the number of lookups that had to merge the attendee's busy ranges. */
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  /** Returns the number of attendees whose merged busy ranges are cached. */
+  public int size() {
+    return mergedBusyRanges.size();
+  }
+
+  private void invalidate(Collection<String> attendees) {
+    // The index has already been updated, so any entry computed after this removal is fresh.
+    for (String attendee : attendees) {
+      mergedBusyRanges.remove(attendee);
+    }
+  }
+
+  /** Merges ranges sorted by start time into the smallest list of ranges that cover them. */
+  private static List<TimeRange> merge(List<TimeRange> sortedRanges) {
+    List<TimeRange> merged = new ArrayList<>();
+    TimeRange current = null;
+
+    for (TimeRange range : sortedRanges) {
+      if (current == null) {
+        current = range;
+      } else if (range.start() <= current.end()) {
+        if (range.end() > current.end()) {
+          current = TimeRange.fromStartEnd(current.start(), range.end(), false);
+        }
+      } else {
+        merged.add(current);
+        current = range;
+      }
+    }
+
+    if (current != null) {
+      merged.add(current);
+    }
+    return Collections.unmodifiableList(merged);
+  }
+}
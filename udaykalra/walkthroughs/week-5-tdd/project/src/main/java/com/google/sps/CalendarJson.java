@@ -0,0 +1,510 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes the calendar's classes as JSON a token at a time with Gson's streaming API, so
+ * that servlets can work directly against their request and response streams instead of building
+ * the whole document in memory. The JSON has the same shape as Gson's reflective serialization of
+ * these classes, which the front end already understands.
+ */
+public final class CalendarJson {
+  /**
+   * The longest search window a meeting request may ask for, in days. It is no longer than the
+   * {@link MinuteBitmapMeetingQuery#MAX_WINDOW_DAYS} that the bitmap queries accept.
+   */
+  public static final int MAX_WINDOW_DAYS = 366;
+
+  private CalendarJson() {}
+
+  /** Reads a value of some type from a JSON stream, like the {@code read} methods of this class. */
+  public interface ValueReader<T> {
+    T read(JsonReader in) throws IOException;
+  }
+
+  /**
+   * Reads the single JSON value making up {@code in} with {@code reader}, such as
+   * {@code CalendarJson::readEvent}. JSON that is malformed, cut short, shaped differently from
+   * what {@code reader} expects or followed by more content is reported as an
+   * {@link IllegalArgumentException}, like the other invalid input the readers reject, so that
+   * servlets can answer all of it with a bad request.
+   *
+   * @throws IOException if {@code in} cannot be read
+   */
+  public static <T> T read(Reader in, ValueReader<T> reader) throws IOException {
+    JsonReader json = new JsonReader(in);
+    try {
+      T value = reader.read(json);
+      if (json.peek() != JsonToken.END_DOCUMENT) {
+        throw new IllegalArgumentException("unexpected content after the JSON value");
+      }
+      return value;
+    } catch (MalformedJsonException | EOFException e) {
+      throw new IllegalArgumentException("malformed JSON: " + e.getMessage(), e);
+    } catch (IllegalStateException e) {
+      // Thrown by JsonReader when a token is not of the type asked for.
+      throw new IllegalArgumentException("unexpected JSON: " + e.getMessage(), e);
+    }
+  }
+
+  /** Writes {@code range} as {@code {"start": ..., "duration": ...}}. */
+  public static void writeTimeRange(JsonWriter out, TimeRange range) throws IOException {
+    out.beginObject();
+    out.name("start").value(range.start());
+    out.name("duration").value(range.duration());
+    out.endObject();
+  }
+
+  /** Writes {@code ranges} as a JSON array of time ranges. */
+  public static void writeTimeRanges(JsonWriter out, Collection<TimeRange> ranges)
+      throws IOException {
+    out.beginArray();
+    for (TimeRange range : ranges) {
+      writeTimeRange(out, range);
+    }
+    out.endArray();
+  }
+
+  /** Writes {@code event} as {@code {"title": ..., "when": ..., "attendees": [...]}}. */
+  public static void writeEvent(JsonWriter out, Event event) throws IOException {
+    out.beginObject();
+    out.name("title").value(event.getTitle());
+    out.name("when");
+    writeTimeRange(out, event.getWhen());
+    out.name("attendees");
+    writeStrings(out, event.getAttendees());
+    out.endObject();
+  }
+
+  /** Writes {@code slots} as a JSON array of their times and optional attendee counts. */
+  public static void writeMeetingSlots(JsonWriter out, Collection<MeetingSlot> slots)
+      throws IOException {
+    out.beginArray();
+    for (MeetingSlot slot : slots) {
+      out.beginObject();
+      out.name("when");
+      writeTimeRange(out, slot.getWhen());
+      out.name("optionalAttendeeCount").value(slot.getOptionalAttendeeCount());
+      out.endObject();
+    }
+    out.endArray();
+  }
+
+  /** Writes ranked meeting slots as an array, best first, with the score of each. */
+  public static void writeRankedSlots(JsonWriter out, Collection<RankedSlot> slots)
+      throws IOException {
+    out.beginArray();
+    for (RankedSlot slot : slots) {
+      out.beginObject();
+      out.name("when");
+      writeTimeRange(out, slot.getWhen());
+      out.name("optionalAttendeeCount").value(slot.getOptionalAttendeeCount());
+      out.name("score").value(slot.getScore());
+      out.endObject();
+    }
+    out.endArray();
+  }
+
+  /** Writes the working hours of attendees in the shape read by {@link #readWorkingHours}. */
+  public static void writeWorkingHours(JsonWriter out, Map<String, WorkingHours> workingHours)
+      throws IOException {
+    out.beginObject();
+    for (Map.Entry<String, WorkingHours> entry : workingHours.entrySet()) {
+      WorkingHours hours = entry.getValue();
+      out.name(entry.getKey()).beginObject();
+      out.name("zone").value(hours.getZone().getId());
+      out.name("start").value(hours.getStart().toString());
+      out.name("end").value(hours.getEnd().toString());
+      out.name("days").beginArray();
+      for (DayOfWeek day : hours.getDays()) {
+        out.value(day.name());
+      }
+      out.endArray();
+      out.endObject();
+    }
+    out.endObject();
+  }
+
+  /** Writes room slots as an array of {@code {"when": ..., "room": ...}} objects. */
+  public static void writeRoomSlots(JsonWriter out, Collection<RoomSlot> slots)
+      throws IOException {
+    out.beginArray();
+    for (RoomSlot slot : slots) {
+      out.beginObject();
+      out.name("when");
+      writeTimeRange(out, slot.getWhen());
+      out.name("room").value(slot.getRoom().getName());
+      out.endObject();
+    }
+    out.endArray();
+  }
+
+  /** Writes rooms as an array of {@code {"name": ..., "capacity": ..., "equipment": [...]}}. */
+  public static void writeRooms(JsonWriter out, Collection<Room> rooms) throws IOException {
+    out.beginArray();
+    for (Room room : rooms) {
+      out.beginObject();
+      out.name("name").value(room.getName());
+      out.name("capacity").value(room.getCapacity());
+      out.name("equipment");
+      writeStrings(out, room.getEquipment());
+      out.endObject();
+    }
+    out.endArray();
+  }
+
+  /**
+   * Writes busy time as {@code {"window": ..., "busy": {"attendee": [free, busy, ...], ...}}}, with
+   * the run lengths of each attendee described by {@link FreeBusy}.
+   */
+  public static void writeFreeBusy(JsonWriter out, FreeBusy freeBusy) throws IOException {
+    out.beginObject();
+    out.name("window");
+    writeTimeRange(out, freeBusy.getWindow());
+    out.name("busy").beginObject();
+    for (String attendee : freeBusy.getAttendees()) {
+      out.name(attendee).beginArray();
+      for (int run : freeBusy.getRuns(attendee)) {
+        out.value(run);
+      }
+      out.endArray();
+    }
+    out.endObject();
+    out.endObject();
+  }
+
+  /** Reads a time range written as {@code {"start": ..., "duration": ...}}. */
+  public static TimeRange readTimeRange(JsonReader in) throws IOException {
+    int start = 0;
+    int duration = 0;
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case "start":
+          start = in.nextInt();
+          break;
+        case "duration":
+          duration = in.nextInt();
+          break;
+        default:
+          in.skipValue();
+          break;
+      }
+    }
+    in.endObject();
+    return TimeRange.fromStartDuration(start, duration);
+  }
+
+  /**
+   * Reads an event in the shape written by {@link #writeEvent}. The attendees may be missing or
+   * null.
+   *
+   * @throws IllegalArgumentException if the title or time is missing or the time is negative
+   */
+  public static Event readEvent(JsonReader in) throws IOException {
+    String title = null;
+    TimeRange when = null;
+    List<String> attendees = new ArrayList<>();
+
+    in.beginObject();
+    while (in.hasNext()) {
+      String name = in.nextName();
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        continue;
+      }
+      switch (name) {
+        case "title":
+          title = in.nextString();
+          break;
+        case "when":
+          when = readTimeRange(in);
+          break;
+        case "attendees":
+          readStrings(in, attendees);
+          break;
+        default:
+          in.skipValue();
+          break;
+      }
+    }
+    in.endObject();
+
+    if (when != null && when.duration() < 0) {
+      throw new IllegalArgumentException("an event cannot have a negative duration");
+    }
+    return new Event(title, when, attendees);
+  }
+
+  /**
+   * Reads a meeting request with the fields {@code attendees}, {@code optional_attendees},
+   * {@code duration} and {@code window}, any of which may be missing or null. Unknown fields are
+   * ignored.
+   *
+   * @throws IllegalArgumentException if the window is negative, ends too late or is longer than
+   *     {@link #MAX_WINDOW_DAYS} days
+   */
+  public static MeetingRequest readMeetingRequest(JsonReader in) throws IOException {
+    List<String> attendees = new ArrayList<>();
+    List<String> optionalAttendees = new ArrayList<>();
+    long duration = 0;
+    TimeRange window = null;
+
+    in.beginObject();
+    while (in.hasNext()) {
+      String name = in.nextName();
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        continue;
+      }
+      switch (name) {
+        case "attendees":
+          readStrings(in, attendees);
+          break;
+        case "optional_attendees":
+          readStrings(in, optionalAttendees);
+          break;
+        case "duration":
+          duration = in.nextLong();
+          break;
+        case "window":
+          window = readTimeRange(in);
+          if (window.duration() > MAX_WINDOW_DAYS * TimeRange.MINUTES_IN_DAY) {
+            throw new IllegalArgumentException(
+                "window cannot be longer than " + MAX_WINDOW_DAYS + " days");
+          }
+          break;
+        default:
+          in.skipValue();
+          break;
+      }
+    }
+    in.endObject();
+
+    MeetingRequest request = new MeetingRequest(attendees, duration, window);
+    for (String attendee : optionalAttendees) {
+      request.addOptionalAttendee(attendee);
+    }
+    return request;
+  }
+
+  /** Reads a JSON array of meeting requests. */
+  public static List<MeetingRequest> readMeetingRequests(JsonReader in) throws IOException {
+    List<MeetingRequest> requests = new ArrayList<>();
+    in.beginArray();
+    while (in.hasNext()) {
+      requests.add(readMeetingRequest(in));
+    }
+    in.endArray();
+    return requests;
+  }
+
+  /**
+   * Reads an itinerary written as an array with an object per meeting, of the form
+   * {@code {"request": ..., "minGap": ..., "maxGap": ...}}, where each request is read by
+   * {@link #readMeetingRequest}. The gaps of the first meeting are ignored and those of the others
+   * default to 0.
+   *
+   * @throws IllegalArgumentException if the array is empty, a request is missing or the gaps are
+   *     not valid
+   */
+  public static ItineraryRequest readItineraryRequest(JsonReader in) throws IOException {
+    ItineraryRequest itinerary = null;
+    in.beginArray();
+    while (in.hasNext()) {
+      MeetingRequest request = null;
+      int minGap = 0;
+      int maxGap = 0;
+      in.beginObject();
+      while (in.hasNext()) {
+        switch (in.nextName()) {
+          case "request":
+            request = readMeetingRequest(in);
+            break;
+          case "minGap":
+            minGap = in.nextInt();
+            break;
+          case "maxGap":
+            maxGap = in.nextInt();
+            break;
+          default:
+            in.skipValue();
+            break;
+        }
+      }
+      in.endObject();
+
+      if (request == null) {
+        throw new IllegalArgumentException("each meeting of an itinerary needs a request");
+      }
+      if (itinerary == null) {
+        itinerary = new ItineraryRequest(request);
+      } else {
+        itinerary.then(request, minGap, maxGap);
+      }
+    }
+    in.endArray();
+
+    if (itinerary == null) {
+      throw new IllegalArgumentException("an itinerary needs at least one meeting");
+    }
+    return itinerary;
+  }
+
+  /** Writes itineraries as an array of arrays of time ranges. */
+  public static void writeItineraries(JsonWriter out, List<List<TimeRange>> itineraries)
+      throws IOException {
+    out.beginArray();
+    for (List<TimeRange> itinerary : itineraries) {
+      writeTimeRanges(out, itinerary);
+    }
+    out.endArray();
+  }
+
+  /**
+   * Reads an array of rooms in the shape written by {@link #writeRooms}. The equipment may be
+   * missing.
+   *
+   * @throws IllegalArgumentException if a room has no name or a negative capacity
+   */
+  public static List<Room> readRooms(JsonReader in) throws IOException {
+    List<Room> rooms = new ArrayList<>();
+    in.beginArray();
+    while (in.hasNext()) {
+      String name = null;
+      int capacity = 0;
+      List<String> equipment = new ArrayList<>();
+      in.beginObject();
+      while (in.hasNext()) {
+        switch (in.nextName()) {
+          case "name":
+            name = in.nextString();
+            break;
+          case "capacity":
+            capacity = in.nextInt();
+            break;
+          case "equipment":
+            readStrings(in, equipment);
+            break;
+          default:
+            in.skipValue();
+            break;
+        }
+      }
+      in.endObject();
+      rooms.add(new Room(name, capacity, equipment));
+    }
+    in.endArray();
+    return rooms;
+  }
+
+  /**
+   * Reads the working hours of attendees, written as an object mapping each attendee to
+   * {@code {"zone": "Europe/London", "start": "09:00", "end": "17:00", "days": ["MONDAY", ...]}}.
+   * The days default to {@link WorkingHours#WEEKDAYS}.
+   *
+   * @throws IllegalArgumentException if a zone, time or day is not valid
+   */
+  public static Map<String, WorkingHours> readWorkingHours(JsonReader in) throws IOException {
+    Map<String, WorkingHours> workingHours = new LinkedHashMap<>();
+    in.beginObject();
+    while (in.hasNext()) {
+      String attendee = in.nextName();
+      workingHours.put(attendee, readWorkingHoursProfile(in));
+    }
+    in.endObject();
+    return workingHours;
+  }
+
+  private static WorkingHours readWorkingHoursProfile(JsonReader in) throws IOException {
+    String zone = null;
+    String start = null;
+    String end = null;
+    List<String> days = null;
+
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case "zone":
+          zone = in.nextString();
+          break;
+        case "start":
+          start = in.nextString();
+          break;
+        case "end":
+          end = in.nextString();
+          break;
+        case "days":
+          days = new ArrayList<>();
+          readStrings(in, days);
+          break;
+        default:
+          in.skipValue();
+          break;
+      }
+    }
+    in.endObject();
+
+    if (zone == null || start == null || end == null) {
+      throw new IllegalArgumentException("working hours need a zone, start and end");
+    }
+    try {
+      Collection<DayOfWeek> workdays = WorkingHours.WEEKDAYS;
+      if (days != null) {
+        workdays = new ArrayList<>();
+        for (String day : days) {
+          workdays.add(DayOfWeek.valueOf(day));
+        }
+      }
+      return new WorkingHours(ZoneId.of(zone), LocalTime.parse(start), LocalTime.parse(end),
+          workdays);
+    } catch (DateTimeException e) {
+      throw new IllegalArgumentException(e.getMessage(), e);
+    }
+  }
+
+  private static void writeStrings(JsonWriter out, Collection<String> strings) throws IOException {
+    out.beginArray();
+    for (String string : strings) {
+      out.value(string);
+    }
+    out.endArray();
+  }
+
+  private static void readStrings(JsonReader in, Collection<String> strings) throws IOException {
+    in.beginArray();
+    while (in.hasNext()) {
+      strings.add(in.nextString());
+    }
+    in.endArray();
+  }
+}
@@ -0,0 +1,99 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * A read-only, compact copy of a collection of events for queries that only need to know when each
+ * event is and who attends it. The times are kept in parallel {@code int} arrays and the attendees
+ * as interned ids, with the ids of event {@code i} stored in {@code attendeeIds} between
+ * {@code attendeeOffsets[i]} and {@code attendeeOffsets[i + 1]}. This avoids an object per event
+ * and per attendee set, and checking whether an event involves any of a set of attendees becomes a
+ * few {@link BitSet} lookups instead of string hashing.
+ *
+ * <p>The copy never changes after it is built, so it suits a fixed set of events, as in the
+ * benchmarks and tests. The server's events change, so it does not use one.
+ */
+public final class CompactEventStore {
+  private final AttendeeRegistry registry;
+  private final int[] starts;
+  private final int[] ends;
+  private final int[] attendeeOffsets;
+  private final int[] attendeeIds;
+
+  /** Creates a store of {@code events}, interning their attendees in a new registry. */
+  public CompactEventStore(Collection<Event> events) {
+    this(events, new AttendeeRegistry());
+  }
+
+  /** Creates a store of {@code events}, interning their attendees in {@code registry}. */
+  public CompactEventStore(Collection<Event> events, AttendeeRegistry registry) {
+    this.registry = registry;
+    starts = new int[events.size()];
+    ends = new int[events.size()];
+    attendeeOffsets = new int[events.size() + 1];
+
+    int attendeeCount = 0;
+    for (Event event : events) {
+      attendeeCount += event.getAttendees().size();
+    }
+    attendeeIds = new int[attendeeCount];
+
+    int i = 0;
+    int offset = 0;
+    for (Event event : events) {
+      starts[i] = event.getWhen().start();
+      ends[i] = event.getWhen().end();
+      attendeeOffsets[i] = offset;
+      for (String attendee : event.getAttendees()) {
+        attendeeIds[offset++] = registry.intern(attendee);
+      }
+      i++;
+    }
+    attendeeOffsets[i] = offset;
+  }
+
+  /** Returns the registry that the attendees of the events were interned in. */
+  public AttendeeRegistry getRegistry() {
+    return registry;
+  }
+
+  /** Returns the number of events in the store. */
+  public int size() {
+    return starts.length;
+  }
+
+  /** Returns the start of event {@code i}, in minutes. */
+  public int start(int i) {
+    return starts[i];
+  }
+
+  /** Returns the end of event {@code i}, in minutes (exclusive). */
+  public int end(int i) {
+    return ends[i];
+  }
+
+  /** Returns whether any attendee of event {@code i} is in the set of attendee ids. */
+  public boolean involvesAny(int i, BitSet attendees) {
+    for (int offset = attendeeOffsets[i]; offset < attendeeOffsets[i + 1]; offset++) {
+      if (attendees.get(attendeeIds[offset])) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
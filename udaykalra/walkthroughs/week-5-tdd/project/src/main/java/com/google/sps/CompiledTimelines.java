@@ -0,0 +1,352 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The busy time of every attendee, compiled ahead of queries into one sorted {@code int[]} per
+ * attendee and day. Each array holds the start and end of the attendee's merged busy intervals on
+ * that day, in turn, so answering a query is a k-way merge of the arrays of the requested
+ * attendees and days, with no per-event work and no allocation per interval.
+ *
+ * <p>The timelines of an attendee are replaced as a whole when they change, so queries can run
+ * concurrently with {@link #add} and always see a consistent day for each attendee.
+ */
+public final class CompiledTimelines {
+  // The compiled days of each attendee.
+  private final ConcurrentMap<String, AttendeeTimeline> timelines = new ConcurrentHashMap<>();
+
+  /** Compiles the timelines of the attendees of {@code events}. */
+  public static CompiledTimelines of(Collection<Event> events) {
+    // Gather each attendee's busy pieces per day first, so that each day is compiled once.
+    Map<String, Map<Integer, List<int[]>>> pieces = new HashMap<>();
+    for (Event event : events) {
+      for (String attendee : event.getAttendees()) {
+        Map<Integer, List<int[]>> days = pieces.computeIfAbsent(attendee, key -> new HashMap<>());
+        forEachDay(event.getWhen(), (day, start, end) ->
+            days.computeIfAbsent(day, key -> new ArrayList<>()).add(new int[] {start, end}));
+      }
+    }
+
+    CompiledTimelines compiled = new CompiledTimelines();
+    for (Map.Entry<String, Map<Integer, List<int[]>>> attendee : pieces.entrySet()) {
+      Map<Integer, List<int[]>> dayPieces = attendee.getValue();
+      int[] days = new int[dayPieces.size()];
+      int i = 0;
+      for (int day : dayPieces.keySet()) {
+        days[i++] = day;
+      }
+      Arrays.sort(days);
+
+      int[][] boundaries = new int[days.length][];
+      for (i = 0; i < days.length; i++) {
+        boundaries[i] = compile(dayPieces.get(days[i]));
+      }
+      compiled.timelines.put(attendee.getKey(), new AttendeeTimeline(days, boundaries));
+    }
+    return compiled;
+  }
+
+  /** Adds {@code event} to the timelines of its attendees, recompiling only the days it covers. */
+  public void add(Event event) {
+    for (String attendee : event.getAttendees()) {
+      timelines.compute(attendee, (key, timeline) -> {
+        AttendeeTimeline[] updated = {timeline == null ? AttendeeTimeline.EMPTY : timeline};
+        forEachDay(event.getWhen(), (day, start, end) -> {
+          int[] boundaries = updated[0].get(day);
+          List<int[]> pieces = new ArrayList<>();
+          for (int i = 0; i < boundaries.length; i += 2) {
+            pieces.add(new int[] {boundaries[i], boundaries[i + 1]});
+          }
+          pieces.add(new int[] {start, end});
+          updated[0] = updated[0].with(day, compile(pieces));
+        });
+        return updated[0];
+      });
+    }
+  }
+
+  /**
+   * Updates the timelines after {@code event} has been removed from {@code store}, recompiling the
+   * days it covered from the events that remain there. Each attendee's days are recompiled from
+   * events read while no other change to that attendee is being made, so a concurrent
+   * {@link #add} is never lost.
+   */
+  public void remove(Event event, EventStore store) {
+    for (String attendee : event.getAttendees()) {
+      timelines.compute(attendee, (key, timeline) -> {
+        AttendeeTimeline[] updated = {timeline == null ? AttendeeTimeline.EMPTY : timeline};
+        forEachDay(event.getWhen(), (day, start, end) -> {
+          TimeRange dayRange = TimeRange.fromDays(day, 1);
+          List<int[]> pieces = new ArrayList<>();
+          for (Event remaining : store.getEvents(Collections.singleton(attendee), dayRange)) {
+            forEachDay(remaining.getWhen(), (pieceDay, pieceStart, pieceEnd) -> {
+              if (pieceDay == day) {
+                pieces.add(new int[] {pieceStart, pieceEnd});
+              }
+            });
+          }
+          updated[0] = updated[0].with(day, compile(pieces));
+        });
+        return updated[0];
+      });
+    }
+  }
+
+  /**
+   * Returns the compiled busy boundaries of {@code attendee} on {@code day}: the start and end of
+   * each merged busy interval, in turn, sorted by time. The array must not be modified.
+   */
+  public int[] getBoundaries(String attendee, int day) {
+    AttendeeTimeline timeline = timelines.get(attendee);
+    return timeline == null ? AttendeeTimeline.NO_BOUNDARIES : timeline.get(day);
+  }
+
+  /** Returns the number of attendees with compiled timelines. */
+  public int size() {
+    return timelines.size();
+  }
+
+  /**
+   * Returns the available meeting times for the request. Optional attendees are included if there
+   * is at least one time that works for them, otherwise only the required attendees are
+   * considered.
+   */
+  public Collection<TimeRange> query(MeetingRequest request) {
+    TimeRange window = request.getWindow();
+    List<int[]> required = boundariesOf(request.getAttendees(), window);
+    List<int[]> everyone = new ArrayList<>(required);
+    everyone.addAll(boundariesOf(request.getOptionalAttendees(), window));
+
+    List<TimeRange> withOptionalAttendees = freeRanges(everyone, window, request.getDuration());
+    if (!withOptionalAttendees.isEmpty() || request.getAttendees().isEmpty()) {
+      return withOptionalAttendees;
+    }
+    return freeRanges(required, window, request.getDuration());
+  }
+
+  /** Returns the non-empty boundary arrays of the attendees on the days the window touches. */
+  private List<int[]> boundariesOf(Collection<String> attendees, TimeRange window) {
+    int firstDay = TimeRange.getDay(window.start());
+    int lastDay = TimeRange.getDay(window.end());
+    List<int[]> arrays = new ArrayList<>();
+    for (String attendee : attendees) {
+      AttendeeTimeline timeline = timelines.get(attendee);
+      if (timeline == null) {
+        continue;
+      }
+      for (int day = firstDay; day <= lastDay; day++) {
+        int[] boundaries = timeline.get(day);
+        if (boundaries.length > 0) {
+          arrays.add(boundaries);
+        }
+      }
+    }
+    return arrays;
+  }
+
+  /**
+   * Returns the gaps of at least {@code duration} minutes in {@code window} between the busy
+   * intervals of all of {@code arrays}, merging the arrays by start time with a heap of cursors.
+   */
+  private static List<TimeRange> freeRanges(List<int[]> arrays, TimeRange window, long duration) {
+    CursorHeap cursors = new CursorHeap(arrays);
+    List<TimeRange> free = new ArrayList<>();
+    int freeStart = window.start();
+    while (!cursors.isEmpty()) {
+      int start = cursors.start();
+      if (start >= window.end()) {
+        break;
+      }
+      // Starts win ties with ends, so intervals that touch leave no gap between them.
+      addIfLongEnough(free, freeStart, start, duration);
+      freeStart = Math.max(freeStart, cursors.end());
+      cursors.advance();
+    }
+    addIfLongEnough(free, freeStart, window.end(), duration);
+    return free;
+  }
+
+  /**
+   * A binary min-heap of positions in boundary arrays, ordered by the start at each position, kept
+   * in primitive arrays so that merging allocates nothing per interval.
+   */
+  private static final class CursorHeap {
+    private final List<int[]> arrays;
+    // The arrays in heap order, and the position of the next interval in each array.
+    private final int[] heap;
+    private final int[] positions;
+    private int size;
+
+    CursorHeap(List<int[]> arrays) {
+      this.arrays = arrays;
+      this.heap = new int[arrays.size()];
+      this.positions = new int[arrays.size()];
+      for (int i = 0; i < arrays.size(); i++) {
+        heap[i] = i;
+      }
+      size = arrays.size();
+      for (int i = size / 2 - 1; i >= 0; i--) {
+        siftDown(i);
+      }
+    }
+
+    boolean isEmpty() {
+      return size == 0;
+    }
+
+    /** Returns the start of the earliest interval. */
+    int start() {
+      return startOf(heap[0]);
+    }
+
+    /** Returns the end of the earliest interval. */
+    int end() {
+      return arrays.get(heap[0])[positions[heap[0]] + 1];
+    }
+
+    /** Moves past the earliest interval. */
+    void advance() {
+      int array = heap[0];
+      positions[array] += 2;
+      if (positions[array] == arrays.get(array).length) {
+        heap[0] = heap[--size];
+      }
+      siftDown(0);
+    }
+
+    private int startOf(int array) {
+      return arrays.get(array)[positions[array]];
+    }
+
+    private void siftDown(int index) {
+      while (true) {
+        int smallest = index;
+        int left = 2 * index + 1;
+        int right = left + 1;
+        if (left < size && startOf(heap[left]) < startOf(heap[smallest])) {
+          smallest = left;
+        }
+        if (right < size && startOf(heap[right]) < startOf(heap[smallest])) {
+          smallest = right;
+        }
+        if (smallest == index) {
+          return;
+        }
+        int swap = heap[index];
+        heap[index] = heap[smallest];
+        heap[smallest] = swap;
+        index = smallest;
+      }
+    }
+  }
+
+  private static void addIfLongEnough(List<TimeRange> free, int start, int end, long duration) {
+    if (end > start && end - start >= duration) {
+      free.add(TimeRange.fromStartEnd(start, end, false));
+    }
+  }
+
+  /**
+   * Merges busy pieces of a day into sorted boundaries. Overlapping and touching pieces become one
+   * interval; a zero-duration piece is kept on its own unless another interval covers it, so that
+   * it still splits the free time around it.
+   */
+  private static int[] compile(List<int[]> pieces) {
+    Collections.sort(pieces, (a, b) -> Integer.compare(a[0], b[0]));
+    int[] boundaries = new int[pieces.size() * 2];
+    int size = 0;
+    for (int[] piece : pieces) {
+      if (size > 0 && piece[0] <= boundaries[size - 1]) {
+        boundaries[size - 1] = Math.max(boundaries[size - 1], piece[1]);
+      } else {
+        boundaries[size++] = piece[0];
+        boundaries[size++] = piece[1];
+      }
+    }
+    return Arrays.copyOf(boundaries, size);
+  }
+
+  /** Receives the part of a range that falls on one day. */
+  private interface DayPieceConsumer {
+    void accept(int day, int start, int end);
+  }
+
+  /**
+   * Splits {@code range} at midnight and passes each day's part to {@code consumer}. A
+   * zero-duration range belongs to the day it is on.
+   */
+  private static void forEachDay(TimeRange range, DayPieceConsumer consumer) {
+    if (range.duration() <= 0) {
+      consumer.accept(TimeRange.getDay(range.start()), range.start(), range.start());
+      return;
+    }
+    for (int day = TimeRange.getDay(range.start()); day <= TimeRange.getDay(range.end() - 1);
+        day++) {
+      int dayStart = day * TimeRange.MINUTES_IN_DAY;
+      consumer.accept(day, Math.max(range.start(), dayStart),
+          Math.min(range.end(), dayStart + TimeRange.MINUTES_IN_DAY));
+    }
+  }
+
+  /** The compiled days of one attendee, as sorted days and their boundaries. */
+  private static final class AttendeeTimeline {
+    static final int[] NO_BOUNDARIES = new int[0];
+    static final AttendeeTimeline EMPTY = new AttendeeTimeline(new int[0], new int[0][]);
+
+    private final int[] days;
+    private final int[][] boundaries;
+
+    AttendeeTimeline(int[] days, int[][] boundaries) {
+      this.days = days;
+      this.boundaries = boundaries;
+    }
+
+    int[] get(int day) {
+      int index = Arrays.binarySearch(days, day);
+      return index < 0 ? NO_BOUNDARIES : boundaries[index];
+    }
+
+    /** Returns a copy of this timeline with {@code day} set to {@code dayBoundaries}. */
+    AttendeeTimeline with(int day, int[] dayBoundaries) {
+      int index = Arrays.binarySearch(days, day);
+      if (index >= 0) {
+        int[][] newBoundaries = boundaries.clone();
+        newBoundaries[index] = dayBoundaries;
+        return new AttendeeTimeline(days, newBoundaries);
+      }
+
+      int insertAt = -index - 1;
+      int[] newDays = new int[days.length + 1];
+      int[][] newBoundaries = new int[days.length + 1][];
+      System.arraycopy(days, 0, newDays, 0, insertAt);
+      System.arraycopy(boundaries, 0, newBoundaries, 0, insertAt);
+      newDays[insertAt] = day;
+      newBoundaries[insertAt] = dayBoundaries;
+      System.arraycopy(days, insertAt, newDays, insertAt + 1, days.length - insertAt);
+      System.arraycopy(boundaries, insertAt, newBoundaries, insertAt + 1, days.length - insertAt);
+      return new AttendeeTimeline(newDays, newBoundaries);
+    }
+  }
+}
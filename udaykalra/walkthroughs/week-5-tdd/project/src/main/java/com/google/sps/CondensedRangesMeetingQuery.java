@@ -0,0 +1,193 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Finds available meeting times by condensing the busy time ranges of the relevant events into
+ * non-overlapping ranges and inverting them. Ported from jelares' calendar project so that it can
+ * be compared with the other implementations; unlike the original it searches the request's window
+ * rather than a single day.
+ */
+public final class CondensedRangesMeetingQuery implements MeetingQuery {
+  @Override
+  public Collection<TimeRange> query(Collection<Event> events, MeetingRequest request) {
+    Collection<String> requiredAttendees = request.getAttendees();
+    Collection<String> allAttendees = new ArrayList<>();
+
+    // Combine the two collections to try and include optional attendees
+    allAttendees.addAll(requiredAttendees);
+    allAttendees.addAll(request.getOptionalAttendees());
+
+    Collection<TimeRange> validTimeRangesWithOptionalAttendees =
+        queryOnAttendeeCollection(events, allAttendees, request);
+
+    // If it is possible to return any time ranges including optional attendees, they will be
+    // returned, otherwise the query will be tried with only the required attendees.
+    if (validTimeRangesWithOptionalAttendees.isEmpty() && !requiredAttendees.isEmpty()) {
+      return queryOnAttendeeCollection(events, requiredAttendees, request);
+    } else {
+      return validTimeRangesWithOptionalAttendees;
+    }
+  }
+
+  /** Run the query on a specific collection of attendees */
+  private Collection<TimeRange> queryOnAttendeeCollection(
+      Collection<Event> events, Collection<String> attendees, MeetingRequest request) {
+    TimeRange window = request.getWindow();
+
+    // Get the relevant events (events with at least one of the attendees).
+    Collection<Event> relevantEvents = findEventsIncludingAnyAttendee(events, attendees);
+
+    // Get the TimeRanges of the relevant events in the window, ordered by start time.
+    List<TimeRange> timeRanges = getEventTimeRanges(relevantEvents, window);
+
+    // Get a condensed TimeRanges list for the relevant events (condensed means overlapping events
+    // are turned into a single event).
+    List<TimeRange> condensedTimeRanges = condenseTimeRanges(timeRanges);
+
+    // Get the inverse time ranges in the window, given a collection of non-overlapping time
+    // ranges sorted by their start time.
+    List<TimeRange> openTimeRanges = computeInverseTimeRanges(condensedTimeRanges, window);
+
+    // Filter the open time ranges such that only open time ranges with a duration greater than
+    // the duration of the meeting remain
+    return findValidTimeRanges(openTimeRanges, request.getDuration());
+  }
+
+  /** Adds all relevant events (events with at least one of the attendees) to a new collection. */
+  private Collection<Event> findEventsIncludingAnyAttendee(
+      Collection<Event> events, Collection<String> attendees) {
+    Collection<Event> relevantEvents = new HashSet<>();
+
+    for (Event event : events) {
+      Set<String> eventAttendees = event.getAttendees();
+
+      if (!Collections.disjoint(attendees, eventAttendees)) {
+        relevantEvents.add(event);
+      }
+    }
+
+    return relevantEvents;
+  }
+
+  /**
+   * Adds the time ranges of all events in the collection to a list, clipped to the window and
+   * sorted by start time. Events outside of the window are left out.
+   */
+  static List<TimeRange> getEventTimeRanges(Collection<Event> events, TimeRange window) {
+    List<TimeRange> timeRanges = new ArrayList<>();
+
+    for (Event event : events) {
+      TimeRange when = event.getWhen();
+      int start = Math.max(when.start(), window.start());
+      int end = Math.min(when.end(), window.end());
+      if (start < end || (start == end && window.contains(start))) {
+        timeRanges.add(start == when.start() && end == when.end()
+            ? when : TimeRange.fromStartEnd(start, end, false));
+      }
+    }
+
+    // Sort the timeRanges by start time.
+    Collections.sort(timeRanges, TimeRange.ORDER_BY_START);
+    return timeRanges;
+  }
+
+  /**
+   * Condenses an ordered list of time ranges (ordered by start time). Adjacent timeRanges (such as
+   * 8:30-9:00 and 9:00-9:30) are not condensed into one, as they are not considered to be
+   * overlapping according to the definition in TimeRange.
+   *
+   * @param timeRanges list of timeRanges sorted by start time
+   * @return list of condensed timeRanges
+   */
+  static List<TimeRange> condenseTimeRanges(List<TimeRange> timeRanges) {
+    List<TimeRange> condensedTimeRanges = new ArrayList<>();
+
+    for (TimeRange timeRange : timeRanges) {
+      if (condensedTimeRanges.isEmpty()) {
+        condensedTimeRanges.add(timeRange);
+        continue;
+      }
+
+      int last = condensedTimeRanges.size() - 1;
+      TimeRange currentCondensedRange = condensedTimeRanges.get(last);
+
+      if (!currentCondensedRange.overlaps(timeRange)) {
+        // The time range starts a new condensed range.
+        condensedTimeRanges.add(timeRange);
+      } else if (!currentCondensedRange.contains(timeRange)) {
+        // The time range extends the current condensed range.
+        condensedTimeRanges.set(last,
+            TimeRange.fromStartEnd(currentCondensedRange.start(), timeRange.end(), false));
+      }
+      // Otherwise the time range is contained within the current condensed range.
+    }
+
+    return condensedTimeRanges;
+  }
+
+  /**
+   * Finds the time ranges in the window which are not covered by any events. Time ranges of
+   * duration 0 will be added as the inverse between adjacent time ranges.
+   *
+   * @param coveredRanges List of timeRanges which we are finding the inverse of
+   * @return List of timeRanges between the timeRanges in coveredRanges
+   */
+  private List<TimeRange> computeInverseTimeRanges(
+      List<TimeRange> coveredRanges, TimeRange window) {
+    List<TimeRange> inverseRanges = new ArrayList<>();
+
+    if (coveredRanges.isEmpty()) {
+      inverseRanges.add(window);
+      return inverseRanges;
+    }
+
+    inverseRanges.add(
+        TimeRange.fromStartEnd(window.start(), coveredRanges.get(0).start(), false));
+
+    int lastEnd = coveredRanges.get(0).end();
+    for (int i = 1; i < coveredRanges.size(); i++) {
+      int nextStart = coveredRanges.get(i).start();
+      inverseRanges.add(TimeRange.fromStartEnd(lastEnd, nextStart, false));
+      lastEnd = coveredRanges.get(i).end();
+    }
+
+    inverseRanges.add(TimeRange.fromStartEnd(lastEnd, window.end(), false));
+    return inverseRanges;
+  }
+
+  /**
+   * Filters out all timeRanges with a duration less than the duration of the meeting, and the
+   * empty timeRanges between adjacent events, which cannot hold even a zero-minute meeting.
+   */
+  private List<TimeRange> findValidTimeRanges(List<TimeRange> timeRanges, long duration) {
+    List<TimeRange> validTimeRanges = new ArrayList<>();
+
+    for (TimeRange timeRange : timeRanges) {
+      if (timeRange.duration() > 0 && timeRange.duration() >= duration) {
+        validTimeRanges.add(timeRange);
+      }
+    }
+
+    return validTimeRanges;
+  }
+}
@@ -26,7 +26,9 @@ import java.util.Set;
 public final class Event {
   private final String title;
   private final TimeRange when;
-  private final Set<String> attendees = new HashSet<>();
+  // Wrapped once, in the constructor, rather than on every call to getAttendees(). There is no
+  // separate read-only view field, since deserializing with Gson would leave it null.
+  private final Set<String> attendees;
 
   /**
    * Creates a new event.
@@ -50,7 +52,7 @@ public final class Event {
 
     this.title = title;
     this.when = when;
-    this.attendees.addAll(attendees);
+    this.attendees = Collections.unmodifiableSet(new HashSet<>(attendees));
   }
 
   /**
@@ -71,9 +73,9 @@ public final class Event {
    * Returns a read-only set of required attendees for this event.
    */
   public Set<String> getAttendees() {
-    // Return the attendees as an unmodifiable set so that the caller can't change our
+    // The attendees are kept as an unmodifiable set so that the caller can't change our
     // internal data.
-    return Collections.unmodifiableSet(attendees);
+    return attendees;
   }
 
   @Override
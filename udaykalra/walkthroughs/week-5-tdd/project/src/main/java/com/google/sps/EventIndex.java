@@ -0,0 +1,108 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An inverted index from each attendee to the time ranges of the events they attend, sorted by
+ * start time. Lets a query look at only the events of the people it is interested in rather than
+ * every event. Events can be added and removed incrementally, so the index can be kept for as long
+ * as the events it was built from.
+ */
+public final class EventIndex {
+  private final Map<String, List<TimeRange>> busyRangesByAttendee = new HashMap<>();
+
+  /** Creates an empty index. */
+  public EventIndex() {}
+
+  /** Creates an index containing all of {@code events}. */
+  public EventIndex(Collection<Event> events) {
+    for (Event event : events) {
+      add(event);
+    }
+  }
+
+  /** Adds the time of {@code event} to the busy ranges of each of its attendees. */
+  public synchronized void add(Event event) {
+    TimeRange when = event.getWhen();
+    for (String attendee : event.getAttendees()) {
+      List<TimeRange> busyRanges =
+          busyRangesByAttendee.computeIfAbsent(attendee, key -> new ArrayList<>());
+      int index = Collections.binarySearch(busyRanges, when, TimeRange.ORDER_BY_START);
+      busyRanges.add(index < 0 ? -(index + 1) : index, when);
+    }
+  }
+
+  /**
+   * Removes the time of {@code event} from the busy ranges of each of its attendees. If another
+   * event for the same attendee has the same time, that time stays busy.
+   */
+  public synchronized void remove(Event event) {
+    TimeRange when = event.getWhen();
+    for (String attendee : event.getAttendees()) {
+      List<TimeRange> busyRanges = busyRangesByAttendee.get(attendee);
+      if (busyRanges == null) {
+        continue;
+      }
+
+      int index = indexOf(busyRanges, when);
+      if (index >= 0) {
+        busyRanges.remove(index);
+      }
+      if (busyRanges.isEmpty()) {
+        busyRangesByAttendee.remove(attendee);
+      }
+    }
+  }
+
+  /**
+   * Returns a read-only copy of the time ranges in which {@code attendee} is busy, sorted by start
+   * time. Overlapping ranges are not merged.
+   */
+  public synchronized List<TimeRange> getBusyRanges(String attendee) {
+    List<TimeRange> busyRanges = busyRangesByAttendee.get(attendee);
+    if (busyRanges == null) {
+      return Collections.emptyList();
+    }
+    return Collections.unmodifiableList(new ArrayList<>(busyRanges));
+  }
+
+  /** Returns the position of {@code range} in the sorted {@code ranges}, or -1 if it is absent. */
+  private static int indexOf(List<TimeRange> ranges, TimeRange range) {
+    int index = Collections.binarySearch(ranges, range, TimeRange.ORDER_BY_START);
+    if (index < 0) {
+      return -1;
+    }
+
+    // The search lands on any range with the same start, so look around it for an equal one.
+    for (int i = index; i >= 0 && ranges.get(i).start() == range.start(); i--) {
+      if (ranges.get(i).equals(range)) {
+        return i;
+      }
+    }
+    for (int i = index + 1; i < ranges.size() && ranges.get(i).start() == range.start(); i++) {
+      if (ranges.get(i).equals(range)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,48 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Collection;
+
+/**
+ * A place to keep the events the scheduler works with, so that queries can fetch only the events
+ * of the attendees and the span of time they care about instead of every event there is.
+ */
+public interface EventStore {
+  /** Stores {@code event}. */
+  void add(Event event);
+
+  /** Returns every stored event. */
+  Collection<Event> getAllEvents();
+
+  /** Returns the stored events that overlap {@code window}. */
+  Collection<Event> getEvents(TimeRange window);
+
+  /** Returns the stored events that overlap {@code window} and involve any of {@code attendees}. */
+  Collection<Event> getEvents(Collection<String> attendees, TimeRange window);
+
+  /** Returns the number of stored events. */
+  int size();
+
+  /**
+   * Returns the version of the stored events, which changes whenever they do. Anything computed
+   * from the events can be reused for as long as the version stays the same.
+   *
+   * <p>This is for callers that derive everything they cache from the store alone. The servlets
+   * cache answers computed from structures that are updated after the store, so they key their
+   * cache on a version of their own that moves once those structures have caught up.
+   */
+  long getVersion();
+}
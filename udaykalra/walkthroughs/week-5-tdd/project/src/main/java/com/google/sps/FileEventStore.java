@@ -0,0 +1,369 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * An {@link EventStore} backed by an append-only log file, so that the scheduler can work with
+ * far more events than it would want to parse on every request.
+ *
+ * <p>Each event is one record in the log: its start and duration, then its title and attendees as
+ * length-prefixed UTF-8 strings. When the store is opened the log is memory-mapped and scanned
+ * once, without decoding titles, to build two indexes: the record offsets bucketed by start time,
+ * and each attendee's records sorted by start time. A query looks up the buckets, or the records
+ * of its attendees starting in the span that can reach its window, checks the start and duration
+ * in each record's header and decodes just the records that overlap. The attendee index costs
+ * eight bytes per attendee of each logged event. Events added after the store is opened are
+ * appended to the log and also kept in memory, where they are indexed by attendee as they arrive,
+ * until the store is next opened.
+ *
+ * <p>A record cut short by a crash during an append is dropped when the log is next opened.
+ */
+public final class FileEventStore implements EventStore, Closeable {
+  /** The span of start times covered by each bucket of the index, in minutes. */
+  static final int BUCKET_MINUTES = 60;
+
+  private final FileChannel channel;
+  private final MappedByteBuffer log;
+  // the offsets of the records in the mapped log, keyed by the bucket of their start time
+  private final NavigableMap<Integer, int[]> offsetsByBucket;
+  // the records of each attendee in the mapped log, as their start time in the high half and
+  // offset in the low half of each long, so that sorting orders them by start time
+  private final Map<String, long[]> recordsByAttendee;
+  // the longest event in the mapped log, which bounds how far back an overlapping event can start
+  private final int maxDuration;
+  private final int loggedCount;
+  // the events added since the log was mapped
+  private final InMemoryEventStore appended = new InMemoryEventStore();
+  private long logLength;
+
+  private FileEventStore(FileChannel channel, MappedByteBuffer log,
+      NavigableMap<Integer, int[]> offsetsByBucket, Map<String, long[]> recordsByAttendee,
+      int maxDuration, int loggedCount) {
+    this.channel = channel;
+    this.log = log;
+    this.offsetsByBucket = offsetsByBucket;
+    this.recordsByAttendee = recordsByAttendee;
+    this.maxDuration = maxDuration;
+    this.loggedCount = loggedCount;
+    this.logLength = log.limit();
+  }
+
+  /** Opens the store logged at {@code path}, creating an empty log if there is none yet. */
+  public static FileEventStore open(Path path) throws IOException {
+    FileChannel channel = FileChannel.open(
+        path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("event log is too large to map: " + path);
+      }
+      MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+      Map<Integer, OffsetList> buckets = new TreeMap<>();
+      Map<String, LongArrayList> attendeeRecords = new HashMap<>();
+      ByteBuffer reader = mapped.duplicate();
+      int maxDuration = 0;
+      int count = 0;
+      int offset = 0;
+      int end;
+      while ((end = recordEnd(mapped, offset)) >= 0) {
+        int start = mapped.getInt(offset);
+        maxDuration = Math.max(maxDuration, mapped.getInt(offset + Integer.BYTES));
+        buckets.computeIfAbsent(bucketOf(start), key -> new OffsetList()).add(offset);
+        long record = recordKey(start, offset);
+        for (String attendee : attendeesOf(reader, offset)) {
+          attendeeRecords.computeIfAbsent(attendee, key -> new LongArrayList()).add(record);
+        }
+        count++;
+        offset = end;
+      }
+
+      // Drop a partly written record at the end of the log so that appends follow whole records.
+      if (offset < channel.size()) {
+        channel.truncate(offset);
+        mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, offset);
+      }
+
+      NavigableMap<Integer, int[]> offsetsByBucket = new TreeMap<>();
+      for (Map.Entry<Integer, OffsetList> bucket : buckets.entrySet()) {
+        offsetsByBucket.put(bucket.getKey(), bucket.getValue().toArray());
+      }
+      Map<String, long[]> recordsByAttendee = new HashMap<>();
+      for (Map.Entry<String, LongArrayList> attendee : attendeeRecords.entrySet()) {
+        LongArrayList records = attendee.getValue();
+        records.sort();
+        long[] sorted = new long[records.size()];
+        for (int i = 0; i < sorted.length; i++) {
+          sorted[i] = records.get(i);
+        }
+        recordsByAttendee.put(attendee.getKey(), sorted);
+      }
+      return new FileEventStore(
+          channel, mapped, offsetsByBucket, recordsByAttendee, maxDuration, count);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Appends {@code event} to the log.
+   *
+   * @throws UncheckedIOException if the log cannot be written
+   */
+  @Override
+  public synchronized void add(Event event) {
+    ByteBuffer record = encode(event);
+    try {
+      while (record.hasRemaining()) {
+        logLength += channel.write(record, logLength);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("could not append to the event log", e);
+    }
+    appended.add(event);
+  }
+
+  @Override
+  public Collection<Event> getAllEvents() {
+    List<Event> events = new ArrayList<>(size());
+    ByteBuffer reader = log.duplicate();
+    for (int[] offsets : offsetsByBucket.values()) {
+      for (int offset : offsets) {
+        events.add(decode(reader, offset));
+      }
+    }
+    events.addAll(appended.getAllEvents());
+    return events;
+  }
+
+  @Override
+  public Collection<Event> getEvents(TimeRange window) {
+    List<Event> events = new ArrayList<>();
+    ByteBuffer reader = log.duplicate();
+    for (int[] offsets : candidateBuckets(window)) {
+      for (int offset : offsets) {
+        if (overlaps(window, offset)) {
+          events.add(decode(reader, offset));
+        }
+      }
+    }
+    events.addAll(appended.getEvents(window));
+    return events;
+  }
+
+  @Override
+  public Collection<Event> getEvents(Collection<String> attendees, TimeRange window) {
+    // An event starting up to maxDuration minutes before the window can still reach into it.
+    long first = recordKey(window.start() - maxDuration, 0);
+    OffsetList matches = new OffsetList();
+    for (String attendee : attendees) {
+      long[] records = recordsByAttendee.get(attendee);
+      if (records == null) {
+        continue;
+      }
+      int i = Arrays.binarySearch(records, first);
+      for (i = i < 0 ? -i - 1 : i; i < records.length && startOf(records[i]) <= window.end(); i++) {
+        if (overlaps(window, offsetOf(records[i]))) {
+          matches.add(offsetOf(records[i]));
+        }
+      }
+    }
+
+    // An event with several of the attendees matches once for each, but is decoded once.
+    int[] offsets = matches.toArray();
+    Arrays.sort(offsets);
+    List<Event> events = new ArrayList<>();
+    ByteBuffer reader = log.duplicate();
+    for (int i = 0; i < offsets.length; i++) {
+      if (i == 0 || offsets[i] != offsets[i - 1]) {
+        events.add(decode(reader, offsets[i]));
+      }
+    }
+    events.addAll(appended.getEvents(attendees, window));
+    return events;
+  }
+
+  @Override
+  public int size() {
+    return loggedCount + appended.size();
+  }
+
+  /** Returns the version of the events, which only change when one is appended. */
+  @Override
+  public long getVersion() {
+    return appended.getVersion();
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /** Returns the offsets of the buckets that can hold events overlapping {@code window}. */
+  private Collection<int[]> candidateBuckets(TimeRange window) {
+    // An event starting up to maxDuration minutes before the window can still reach into it.
+    int first = bucketOf(window.start() - maxDuration);
+    int last = bucketOf(window.end());
+    return offsetsByBucket.subMap(first, true, last, true).values();
+  }
+
+  /** Returns whether the record at {@code offset} overlaps {@code window}, from its header. */
+  private boolean overlaps(TimeRange window, int offset) {
+    int start = log.getInt(offset);
+    int duration = log.getInt(offset + Integer.BYTES);
+    return window.overlaps(TimeRange.fromStartDuration(start, duration));
+  }
+
+  private static long recordKey(int start, int offset) {
+    return ((long) start << Integer.SIZE) | offset;
+  }
+
+  private static int startOf(long record) {
+    return (int) (record >> Integer.SIZE);
+  }
+
+  private static int offsetOf(long record) {
+    return (int) record;
+  }
+
+  private static int bucketOf(int minute) {
+    return Math.floorDiv(minute, BUCKET_MINUTES);
+  }
+
+  /**
+   * Returns the offset just past the record at {@code offset}, or -1 if there is no complete
+   * record there.
+   */
+  private static int recordEnd(ByteBuffer log, int offset) {
+    int limit = log.limit();
+    // the start, duration and title length
+    int position = offset + 2 * Integer.BYTES;
+    position = skipString(log, position, limit);
+    if (position < 0 || position + Integer.BYTES > limit) {
+      return -1;
+    }
+    int attendeeCount = log.getInt(position);
+    if (attendeeCount < 0) {
+      return -1;
+    }
+    position += Integer.BYTES;
+    for (int i = 0; i < attendeeCount && position >= 0; i++) {
+      position = skipString(log, position, limit);
+    }
+    return position;
+  }
+
+  /** Returns the offset just past the string at {@code position}, or -1 if it is incomplete. */
+  private static int skipString(ByteBuffer log, int position, int limit) {
+    if (position + Integer.BYTES > limit) {
+      return -1;
+    }
+    int length = log.getInt(position);
+    if (length < 0 || length > limit - position - Integer.BYTES) {
+      return -1;
+    }
+    return position + Integer.BYTES + length;
+  }
+
+  private static ByteBuffer encode(Event event) {
+    byte[] title = event.getTitle().getBytes(StandardCharsets.UTF_8);
+    List<byte[]> attendees = new ArrayList<>();
+    // the start, duration, title length and attendee count, then the strings
+    int length = 4 * Integer.BYTES + title.length;
+    for (String attendee : event.getAttendees()) {
+      byte[] bytes = attendee.getBytes(StandardCharsets.UTF_8);
+      attendees.add(bytes);
+      length += Integer.BYTES + bytes.length;
+    }
+
+    ByteBuffer record = ByteBuffer.allocate(length);
+    record.putInt(event.getWhen().start());
+    record.putInt(event.getWhen().duration());
+    record.putInt(title.length).put(title);
+    record.putInt(attendees.size());
+    for (byte[] attendee : attendees) {
+      record.putInt(attendee.length).put(attendee);
+    }
+    record.flip();
+    return record;
+  }
+
+  /** Decodes the record at {@code offset}, moving {@code reader} as it goes. */
+  private static Event decode(ByteBuffer reader, int offset) {
+    reader.position(offset);
+    int start = reader.getInt();
+    int duration = reader.getInt();
+    String title = readString(reader);
+    String[] attendees = new String[reader.getInt()];
+    for (int i = 0; i < attendees.length; i++) {
+      attendees[i] = readString(reader);
+    }
+    return new Event(title, TimeRange.fromStartDuration(start, duration), Arrays.asList(attendees));
+  }
+
+  /** Decodes just the attendees of the record at {@code offset}, moving {@code reader}. */
+  private static String[] attendeesOf(ByteBuffer reader, int offset) {
+    // Skips the start, duration and title.
+    reader.position(offset + 2 * Integer.BYTES);
+    int titleLength = reader.getInt();
+    reader.position(reader.position() + titleLength);
+    String[] attendees = new String[reader.getInt()];
+    for (int i = 0; i < attendees.length; i++) {
+      attendees[i] = readString(reader);
+    }
+    return attendees;
+  }
+
+  private static String readString(ByteBuffer reader) {
+    byte[] bytes = new byte[reader.getInt()];
+    reader.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /** A growable list of record offsets. */
+  private static final class OffsetList {
+    private int[] offsets = new int[8];
+    private int size = 0;
+
+    void add(int offset) {
+      if (size == offsets.length) {
+        offsets = Arrays.copyOf(offsets, size * 2);
+      }
+      offsets[size++] = offset;
+    }
+
+    int[] toArray() {
+      return Arrays.copyOf(offsets, size);
+    }
+  }
+}
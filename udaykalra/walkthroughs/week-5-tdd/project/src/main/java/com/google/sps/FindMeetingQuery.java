@@ -19,11 +19,12 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Contains methods for querying availability between attendees.
  */
-public final class FindMeetingQuery {
+public final class FindMeetingQuery implements MeetingQuery {
   private enum Overlap {
     OVERLAP_WITH_SAME_START,
     OVERLAP_WITH_SAME_END,
@@ -38,6 +39,7 @@ public final class FindMeetingQuery {
    * for indicated people and duration given through a request object. Determines
    * whether or not to include optional attendees.
    */
+  @Override
   public Collection<TimeRange> query(Collection<Event> events, MeetingRequest request) {
     // Perform queries with and without optional attendees.
     Collection<TimeRange> queryWithoutOptionalAttendees = query(events, request, false);
@@ -51,6 +53,65 @@ public final class FindMeetingQuery {
     }
   }
 
+  /**
+   * Returns the available meeting times for the request over the events in {@code store}, which
+   * keeps event times in primitive arrays and attendees as interned ids. The answer is the same as
+   * {@link #query(Collection, MeetingRequest)} on the events the store was built from.
+   */
+  public Collection<TimeRange> query(CompactEventStore store, MeetingRequest request) {
+    return new SweepLineMeetingQuery().query(store, request);
+  }
+
+  /**
+   * Returns the available meeting times for the request, where the attendees are also busy for
+   * every occurrence of {@code recurringEvents}. Occurrences are generated lazily for the request's
+   * window only, so a series running for years costs no more than the meetings inside the window.
+   */
+  public Collection<TimeRange> query(Collection<Event> events,
+      Collection<RecurringEvent> recurringEvents, MeetingRequest request) {
+    return new SweepLineMeetingQuery().query(events, recurringEvents, request);
+  }
+
+  /**
+   * Returns the available meeting times for the request, each with one of {@code rooms} that holds
+   * everyone, has all of {@code equipment} and is free for the whole time. Rooms are booked by
+   * naming them among the attendees of events. See {@link RoomMeetingQuery}.
+   */
+  public List<RoomSlot> query(Collection<Event> events, Collection<Room> rooms,
+      MeetingRequest request, Collection<String> equipment) {
+    return new RoomMeetingQuery(rooms).query(events, request, equipment);
+  }
+
+  /**
+   * Returns the available meeting times for each of the requests, in the same order as the
+   * requests. The busy times of all the requested attendees are collected from the events once
+   * and shared by every request, and the requests are answered in parallel on the common
+   * fork-join pool.
+   */
+  public List<Collection<TimeRange>> queryAll(
+      Collection<Event> events, List<MeetingRequest> requests) {
+    Set<String> allAttendees = new HashSet<>();
+    for (MeetingRequest request : requests) {
+      allAttendees.addAll(request.getAttendees());
+      allAttendees.addAll(request.getOptionalAttendees());
+    }
+
+    // Only index the events that matter to at least one of the requests.
+    EventIndex index = new EventIndex();
+    for (Event event : events) {
+      if (!Collections.disjoint(allAttendees, event.getAttendees())) {
+        index.add(event);
+      }
+    }
+
+    // Requests with attendees in common share their merged busy times through the cache.
+    BusyTimeCache busyTimeCache = new BusyTimeCache(index);
+    SweepLineMeetingQuery sweepLineQuery = new SweepLineMeetingQuery();
+    return requests.parallelStream()
+        .map(request -> sweepLineQuery.query(busyTimeCache, request))
+        .collect(Collectors.toList());
+  }
+
   /**
    * Returns a collection of TimeRange objects to indicate available meeting times
    * for indicated people and duration given through a request object, given
@@ -58,12 +119,12 @@ public final class FindMeetingQuery {
    */
   public Collection<TimeRange> query(
       Collection<Event> events, MeetingRequest request, boolean includesOptionalAttendees) {
-    /* Create an output collection with a full day to cut(shorten or split)
-     * into the available ranges.
+    /* Create an output collection with the full search window (the whole day unless
+     * the request says otherwise) to cut(shorten or split) into the available ranges.
      */
-    TimeRange fullDay = TimeRange.WHOLE_DAY;
+    TimeRange window = request.getWindow();
     Collection<TimeRange> availableRanges = new HashSet<>();
-    availableRanges.add(fullDay);
+    availableRanges.add(window);
 
     // Obtain data from the request.
     Collection<String> attendees = new HashSet<>();
@@ -94,12 +155,9 @@ public final class FindMeetingQuery {
       removeOverlapsWithTimeRange(busyRange, availableRanges);
     }
 
-    // Eliminate invalid time intervals by duration.
-    for (TimeRange timeRange : availableRanges) {
-      if (timeRange.duration() < requestDuration) {
-        availableRanges.remove(timeRange);
-      }
-    }
+    // Eliminate invalid time intervals by duration. Removing while iterating over the set
+    // would throw a ConcurrentModificationException, so let the set do the removal.
+    availableRanges.removeIf(timeRange -> timeRange.duration() < requestDuration);
 
     // Convert to list and sort.
     List sortedAvailableRanges = new ArrayList(availableRanges);
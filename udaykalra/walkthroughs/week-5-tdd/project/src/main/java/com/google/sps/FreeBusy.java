@@ -0,0 +1,224 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The busy time of some attendees in a window, without the titles and attendee lists of the events
+ * behind it, for clients that only draw busy blocks. Each attendee's busy time is condensed and
+ * then run-length encoded as alternating free and busy run lengths in minutes, starting from the
+ * start of the window: {@code [free, busy, free, busy, ...]}. The free time after the last busy run
+ * is left out.
+ *
+ * <p>{@link #encode} packs the same runs into bytes for clients that want the smallest payload.
+ * Every number is an unsigned LEB128 varint: the window's start (zigzag encoded, as it may be
+ * negative) and duration, the number of attendees, then for each attendee the length of its UTF-8
+ * name, the name, the number of runs and the runs.
+ */
+public final class FreeBusy {
+  private final TimeRange window;
+  // The runs of each attendee, in the order the attendees were asked for.
+  private final Map<String, int[]> runs;
+
+  private FreeBusy(TimeRange window, Map<String, int[]> runs) {
+    this.window = window;
+    this.runs = runs;
+  }
+
+  /**
+   * Returns the busy time in {@code window} of each of {@code attendees} in {@code events}.
+   * Events outside the window are ignored and those crossing its edges are clipped to it.
+   */
+  public static FreeBusy of(
+      Collection<Event> events, Collection<String> attendees, TimeRange window) {
+    Map<String, List<Event>> eventsByAttendee = new LinkedHashMap<>();
+    for (String attendee : attendees) {
+      eventsByAttendee.put(attendee, new ArrayList<>());
+    }
+    for (Event event : events) {
+      for (String attendee : event.getAttendees()) {
+        List<Event> attendeeEvents = eventsByAttendee.get(attendee);
+        if (attendeeEvents != null) {
+          attendeeEvents.add(event);
+        }
+      }
+    }
+
+    Map<String, int[]> runs = new LinkedHashMap<>();
+    for (Map.Entry<String, List<Event>> entry : eventsByAttendee.entrySet()) {
+      List<TimeRange> busy = CondensedRangesMeetingQuery.condenseTimeRanges(
+          CondensedRangesMeetingQuery.getEventTimeRanges(entry.getValue(), window));
+      runs.put(entry.getKey(), toRuns(busy, window.start()));
+    }
+    return new FreeBusy(window, runs);
+  }
+
+  /** Returns the window the busy time is given for. */
+  public TimeRange getWindow() {
+    return window;
+  }
+
+  /** Returns the attendees, in the order they were asked for. */
+  public Set<String> getAttendees() {
+    return Collections.unmodifiableSet(runs.keySet());
+  }
+
+  /**
+   * Returns the alternating free and busy run lengths of {@code attendee}, or an empty array if
+   * the attendee was not asked for.
+   */
+  public int[] getRuns(String attendee) {
+    int[] attendeeRuns = runs.get(attendee);
+    return attendeeRuns == null ? new int[0] : attendeeRuns.clone();
+  }
+
+  /** Returns the busy time ranges of {@code attendee}, sorted by start time. */
+  public List<TimeRange> getBusyRanges(String attendee) {
+    List<TimeRange> busy = new ArrayList<>();
+    int[] attendeeRuns = runs.getOrDefault(attendee, new int[0]);
+    int time = window.start();
+    for (int i = 0; i < attendeeRuns.length; i += 2) {
+      time += attendeeRuns[i];
+      busy.add(TimeRange.fromStartDuration(time, attendeeRuns[i + 1]));
+      time += attendeeRuns[i + 1];
+    }
+    return busy;
+  }
+
+  /** Returns the runs in the compact binary form described above. */
+  public byte[] encode() {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    writeVarint(out, (window.start() << 1) ^ (window.start() >> 31));
+    writeVarint(out, window.duration());
+    writeVarint(out, runs.size());
+    for (Map.Entry<String, int[]> entry : runs.entrySet()) {
+      byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+      writeVarint(out, name.length);
+      out.write(name, 0, name.length);
+      writeVarint(out, entry.getValue().length);
+      for (int run : entry.getValue()) {
+        writeVarint(out, run);
+      }
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * Reads busy time encoded by {@link #encode}.
+   *
+   * @throws IllegalArgumentException if {@code bytes} are not a valid encoding
+   */
+  public static FreeBusy decode(byte[] bytes) {
+    Decoder in = new Decoder(bytes);
+    int zigzagStart = in.readVarint();
+    TimeRange window =
+        TimeRange.fromStartDuration((zigzagStart >>> 1) ^ -(zigzagStart & 1), in.readVarint());
+
+    int attendeeCount = in.readVarint();
+    Map<String, int[]> runs = new LinkedHashMap<>();
+    for (int i = 0; i < attendeeCount; i++) {
+      String attendee = in.readString();
+      int runCount = in.readVarint();
+      if (runCount < 0 || runCount > in.remaining()) {
+        throw new IllegalArgumentException("the encoded busy time is truncated");
+      }
+      if (runCount % 2 != 0) {
+        throw new IllegalArgumentException("runs must come in free and busy pairs");
+      }
+      int[] attendeeRuns = new int[runCount];
+      for (int j = 0; j < runCount; j++) {
+        attendeeRuns[j] = in.readVarint();
+      }
+      runs.put(attendee, attendeeRuns);
+    }
+    if (in.hasRemaining()) {
+      throw new IllegalArgumentException("unexpected bytes after the encoded busy time");
+    }
+    return new FreeBusy(window, runs);
+  }
+
+  /** Returns the run lengths between and of {@code busy}, which must be sorted and disjoint. */
+  private static int[] toRuns(List<TimeRange> busy, int start) {
+    int[] runs = new int[busy.size() * 2];
+    int time = start;
+    for (int i = 0; i < busy.size(); i++) {
+      TimeRange range = busy.get(i);
+      runs[2 * i] = range.start() - time;
+      runs[2 * i + 1] = range.duration();
+      time = range.end();
+    }
+    return runs;
+  }
+
+  private static void writeVarint(ByteArrayOutputStream out, int value) {
+    while ((value & ~0x7f) != 0) {
+      out.write((value & 0x7f) | 0x80);
+      value >>>= 7;
+    }
+    out.write(value);
+  }
+
+  /** Reads varints and strings from the front of a byte array. */
+  private static final class Decoder {
+    private final byte[] bytes;
+    private int position = 0;
+
+    Decoder(byte[] bytes) {
+      this.bytes = bytes;
+    }
+
+    int readVarint() {
+      int value = 0;
+      for (int shift = 0; shift < 35; shift += 7) {
+        if (position == bytes.length) {
+          throw new IllegalArgumentException("the encoded busy time is truncated");
+        }
+        byte b = bytes[position++];
+        value |= (b & 0x7f) << shift;
+        if ((b & 0x80) == 0) {
+          return value;
+        }
+      }
+      throw new IllegalArgumentException("a varint is longer than five bytes");
+    }
+
+    String readString() {
+      int length = readVarint();
+      if (length < 0 || length > remaining()) {
+        throw new IllegalArgumentException("the encoded busy time is truncated");
+      }
+      String string = new String(bytes, position, length, StandardCharsets.UTF_8);
+      position += length;
+      return string;
+    }
+
+    int remaining() {
+      return bytes.length - position;
+    }
+
+    boolean hasRemaining() {
+      return position < bytes.length;
+    }
+  }
+}
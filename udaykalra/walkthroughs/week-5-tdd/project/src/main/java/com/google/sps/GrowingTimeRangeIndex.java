@@ -0,0 +1,121 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * An immutable index of items by the time range they take up, like {@link TimeRangeIndex}, that
+ * can be extended one item at a time without rebuilding it. The items are kept in runs, each with
+ * its own {@link TimeRangeIndex}, every run at most half the size of the one before it. Adding an
+ * item starts a run of its own, then merges the last two runs while they break that rule, so there
+ * are O(log n) runs. An item's run grows by at least half each time it is merged, so each item is
+ * merged O(log n) times and adding costs O(log^2 n) amortized rather than the O(n log n) of a
+ * rebuild. A query costs O(log^2 n + k) for k matches.
+ *
+ * <p>Since {@link #with} returns a new index and leaves this one alone, sharing every run but the
+ * merged ones, an index can be handed to concurrent readers while a writer extends a copy of it.
+ */
+public final class GrowingTimeRangeIndex<T> {
+  private final Function<? super T, TimeRange> timeOf;
+  private final List<Run<T>> runs;
+  private final int size;
+
+  private GrowingTimeRangeIndex(Function<? super T, TimeRange> timeOf, List<Run<T>> runs) {
+    this.timeOf = timeOf;
+    this.runs = runs;
+    int size = 0;
+    for (Run<T> run : runs) {
+      size += run.items.size();
+    }
+    this.size = size;
+  }
+
+  /**
+   * Returns an index of {@code items}, as a single run.
+   *
+   * @param items The items to index. Must be non-null.
+   * @param timeOf Returns the time range of an item. Must be non-null.
+   */
+  public static <T> GrowingTimeRangeIndex<T> of(
+      Collection<T> items, Function<? super T, TimeRange> timeOf) {
+    List<Run<T>> runs = new ArrayList<>();
+    if (!items.isEmpty()) {
+      runs.add(new Run<>(new ArrayList<>(items), timeOf));
+    }
+    return new GrowingTimeRangeIndex<>(timeOf, runs);
+  }
+
+  /** Returns an index of {@code events} by when they take place. */
+  public static GrowingTimeRangeIndex<Event> ofEvents(Collection<Event> events) {
+    return of(events, Event::getWhen);
+  }
+
+  /** Returns an index of the items of this one and {@code item}. */
+  public GrowingTimeRangeIndex<T> with(T item) {
+    List<Run<T>> newRuns = new ArrayList<>(runs);
+    newRuns.add(new Run<>(Collections.singletonList(item), timeOf));
+    while (newRuns.size() > 1) {
+      Run<T> last = newRuns.get(newRuns.size() - 1);
+      Run<T> previous = newRuns.get(newRuns.size() - 2);
+      if (last.items.size() * 2 <= previous.items.size()) {
+        break;
+      }
+      List<T> merged = new ArrayList<>(previous.items);
+      merged.addAll(last.items);
+      newRuns.remove(newRuns.size() - 1);
+      newRuns.set(newRuns.size() - 1, new Run<>(merged, timeOf));
+    }
+    return new GrowingTimeRangeIndex<>(timeOf, newRuns);
+  }
+
+  /** Returns the number of items in the index. */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the items that overlap {@code range}, sorted by start time. Items with the same start
+   * are in the order they were added.
+   */
+  public List<T> overlapping(TimeRange range) {
+    if (runs.size() == 1) {
+      return runs.get(0).index.overlapping(range);
+    }
+    List<T> matches = new ArrayList<>();
+    for (Run<T> run : runs) {
+      matches.addAll(run.index.overlapping(range));
+    }
+    // Stable, so items from older runs stay ahead of newer ones with the same start.
+    Collections.sort(matches, Comparator.comparing(timeOf, TimeRange.ORDER_BY_START));
+    return matches;
+  }
+
+  /** Some of the items, in the order they were added, and their index. */
+  private static final class Run<T> {
+    final List<T> items;
+    final TimeRangeIndex<T> index;
+
+    Run(List<T> items, Function<? super T, TimeRange> timeOf) {
+      this.items = items;
+      this.index = new TimeRangeIndex<>(items, timeOf);
+    }
+  }
+}
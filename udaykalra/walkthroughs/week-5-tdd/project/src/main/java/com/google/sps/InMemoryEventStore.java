@@ -0,0 +1,100 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An {@link EventStore} that keeps its events in memory, with a list of each attendee's events so
+ * that a query by attendee only looks at the events of those attendees. Queries by time alone use a
+ * {@link GrowingTimeRangeIndex}, which each added event extends rather than invalidates, so that
+ * adds interleaved with queries don't rebuild the index every time.
+ */
+public final class InMemoryEventStore implements EventStore {
+  private final List<Event> events = new ArrayList<>();
+  private final Map<String, List<Event>> eventsByAttendee = new HashMap<>();
+  private GrowingTimeRangeIndex<Event> timeIndex =
+      GrowingTimeRangeIndex.ofEvents(Collections.emptyList());
+  private long version = 0;
+
+  /** Creates an empty store. */
+  public InMemoryEventStore() {}
+
+  /** Creates a store containing all of {@code events}. */
+  public InMemoryEventStore(Collection<Event> events) {
+    for (Event event : events) {
+      addToLists(event);
+    }
+    // Indexed in one go rather than merged up an event at a time.
+    timeIndex = GrowingTimeRangeIndex.ofEvents(this.events);
+  }
+
+  @Override
+  public synchronized void add(Event event) {
+    addToLists(event);
+    timeIndex = timeIndex.with(event);
+  }
+
+  @Override
+  public synchronized Collection<Event> getAllEvents() {
+    return Collections.unmodifiableList(new ArrayList<>(events));
+  }
+
+  @Override
+  public synchronized Collection<Event> getEvents(TimeRange window) {
+    return timeIndex.overlapping(window);
+  }
+
+  @Override
+  public synchronized Collection<Event> getEvents(
+      Collection<String> attendees, TimeRange window) {
+    // An event with several of the attendees is in several of their lists, but is returned once.
+    Set<Event> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+    List<Event> matches = new ArrayList<>();
+    for (String attendee : attendees) {
+      for (Event event : eventsByAttendee.getOrDefault(attendee, Collections.emptyList())) {
+        if (window.overlaps(event.getWhen()) && seen.add(event)) {
+          matches.add(event);
+        }
+      }
+    }
+    return matches;
+  }
+
+  @Override
+  public synchronized int size() {
+    return events.size();
+  }
+
+  @Override
+  public synchronized long getVersion() {
+    return version;
+  }
+
+  private void addToLists(Event event) {
+    events.add(event);
+    version++;
+    for (String attendee : event.getAttendees()) {
+      eventsByAttendee.computeIfAbsent(attendee, key -> new ArrayList<>()).add(event);
+    }
+  }
+}
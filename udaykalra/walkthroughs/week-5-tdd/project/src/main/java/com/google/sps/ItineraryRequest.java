@@ -0,0 +1,90 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A sequence of meetings to book together, such as the sessions of an interview loop, where each
+ * meeting after the first must start within a range of minutes after the previous one ends. A gap
+ * of 0 to 0 makes two meetings back to back.
+ */
+public final class ItineraryRequest {
+  private final List<MeetingRequest> meetings = new ArrayList<>();
+  private final List<Integer> minGaps = new ArrayList<>();
+  private final List<Integer> maxGaps = new ArrayList<>();
+
+  /**
+   * Creates an itinerary starting with {@code first}, which may be placed anywhere in its window.
+   *
+   * @param first The first meeting. Must be non-null.
+   */
+  public ItineraryRequest(MeetingRequest first) {
+    if (first == null) {
+      throw new IllegalArgumentException("first cannot be null");
+    }
+
+    meetings.add(first);
+    minGaps.add(0);
+    maxGaps.add(0);
+  }
+
+  /**
+   * Adds {@code meeting} to the end of the itinerary. It must start between {@code minGap} and
+   * {@code maxGap} minutes, inclusive, after the previous meeting ends, as well as within its own
+   * window.
+   *
+   * @param meeting The next meeting. Must be non-null.
+   * @param minGap The fewest minutes between the meetings. Must not be negative.
+   * @param maxGap The most minutes between the meetings. Must be at least {@code minGap}.
+   * @return this itinerary
+   */
+  public ItineraryRequest then(MeetingRequest meeting, int minGap, int maxGap) {
+    if (meeting == null) {
+      throw new IllegalArgumentException("meeting cannot be null");
+    }
+
+    if (minGap < 0 || maxGap < minGap) {
+      throw new IllegalArgumentException("gaps must satisfy 0 <= minGap <= maxGap");
+    }
+
+    meetings.add(meeting);
+    minGaps.add(minGap);
+    maxGaps.add(maxGap);
+    return this;
+  }
+
+  /** Returns a read-only list of the meetings, in order. */
+  public List<MeetingRequest> getMeetings() {
+    return Collections.unmodifiableList(meetings);
+  }
+
+  /** Returns the number of meetings. */
+  public int size() {
+    return meetings.size();
+  }
+
+  /** Returns the fewest minutes between meeting {@code i} and the one before it. */
+  public int getMinGap(int i) {
+    return minGaps.get(i);
+  }
+
+  /** Returns the most minutes between meeting {@code i} and the one before it. */
+  public int getMaxGap(int i) {
+    return maxGaps.get(i);
+  }
+}
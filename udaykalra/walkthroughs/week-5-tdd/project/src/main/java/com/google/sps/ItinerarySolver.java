@@ -0,0 +1,218 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Books every meeting of an {@link ItineraryRequest} at once. The free ranges of each meeting's
+ * required attendees are found once, up front, with {@link SweepLineMeetingQuery}. Meetings are
+ * then placed in order by a depth-first search: each meeting is tried at the start times its free
+ * ranges allow within the gap after the previous one, and the search backs up as soon as a
+ * meeting has nowhere to go. Start times are tried every {@code granularity} minutes, earliest
+ * first, so itineraries are found in order of their start times.
+ *
+ * <p>Before descending, the search propagates the bounds of each placement down the list: every
+ * later meeting must still have free time between the earliest and the latest it could start, so
+ * a placement that is doomed by a meeting further down the list is dropped without exploring the
+ * meetings in between. The search stops once it has found
+ * the requested number of itineraries or its time budget runs out, whichever comes first.
+ */
+public final class ItinerarySolver {
+  private final int granularity;
+
+  /**
+   * Creates a solver.
+   *
+   * @param granularity The minutes between the start times tried for each meeting. Must be
+   *     positive.
+   */
+  public ItinerarySolver(int granularity) {
+    if (granularity <= 0) {
+      throw new IllegalArgumentException("granularity must be positive");
+    }
+
+    this.granularity = granularity;
+  }
+
+  /**
+   * Returns up to {@code count} ways to book every meeting of {@code request} around
+   * {@code events}, each a list of the meetings' times in order. Optional attendees are not
+   * considered. If {@code budgetMillis} runs out first, the itineraries found so far are returned.
+   */
+  public List<List<TimeRange>> solve(
+      Collection<Event> events, ItineraryRequest request, int count, long budgetMillis) {
+    List<MeetingRequest> meetings = request.getMeetings();
+    Search search = new Search(request, count, System.nanoTime() + budgetMillis * 1_000_000);
+    for (int i = 0; i < meetings.size(); i++) {
+      MeetingRequest meeting = meetings.get(i);
+      MeetingRequest requiredOnly = new MeetingRequest(
+          meeting.getAttendees(), meeting.getDuration(), meeting.getWindow());
+      search.free.set(i, new ArrayList<>(new SweepLineMeetingQuery().query(events, requiredOnly)));
+      search.durations[i] = (int) Math.min(meeting.getDuration(), Integer.MAX_VALUE);
+    }
+
+    if (count > 0) {
+      search.place(0, Integer.MIN_VALUE);
+    }
+    return search.itineraries;
+  }
+
+  /** The state of one search for itineraries. */
+  private final class Search {
+    final ItineraryRequest request;
+    final int count;
+    final long deadlineNanos;
+    // The free ranges and duration of each meeting.
+    final List<List<TimeRange>> free;
+    final int[] durations;
+    // The start of each meeting placed so far.
+    final int[] starts;
+    final List<List<TimeRange>> itineraries = new ArrayList<>();
+
+    Search(ItineraryRequest request, int count, long deadlineNanos) {
+      this.request = request;
+      this.count = count;
+      this.deadlineNanos = deadlineNanos;
+      this.free = new ArrayList<>(Collections.nCopies(request.size(), null));
+      this.durations = new int[request.size()];
+      this.starts = new int[request.size()];
+    }
+
+    /**
+     * Places meeting {@code i} and the ones after it, given the end of meeting {@code i - 1}.
+     * Returns false once the search should stop.
+     */
+    boolean place(int i, int previousEnd) {
+      if (i == starts.length) {
+        List<TimeRange> itinerary = new ArrayList<>(starts.length);
+        for (int j = 0; j < starts.length; j++) {
+          itinerary.add(TimeRange.fromStartDuration(starts[j], durations[j]));
+        }
+        itineraries.add(Collections.unmodifiableList(itinerary));
+        return itineraries.size() < count;
+      }
+      if (System.nanoTime() - deadlineNanos > 0) {
+        return false;
+      }
+
+      // The first meeting can start anywhere; later ones within their gap of the previous one.
+      long earliest = i == 0 ? Long.MIN_VALUE : (long) previousEnd + request.getMinGap(i);
+      long latest = i == 0 ? Long.MAX_VALUE : (long) previousEnd + request.getMaxGap(i);
+      for (TimeRange range : free.get(i)) {
+        if (range.end() - durations[i] < earliest) {
+          continue;
+        }
+        if (range.start() > latest) {
+          break;
+        }
+
+        int lastStart = (int) Math.min(latest, range.end() - durations[i]);
+        int start = i == 0
+            ? roundUp(range.start())
+            : (int) Math.max(earliest, range.start());
+        for (; start <= lastStart; start += granularity) {
+          // Checked for every start too, since a single meeting may have a great many of them.
+          if (System.nanoTime() - deadlineNanos > 0) {
+            return false;
+          }
+          if (!laterMeetingsCanStart(i, start + durations[i])) {
+            // A later start may still suit the later meetings, so keep trying.
+            continue;
+          }
+          starts[i] = start;
+          if (!place(i + 1, start + durations[i])) {
+            return false;
+          }
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Returns whether each meeting after {@code i} has some free time to start in, given that
+     * meeting {@code i} ends at {@code end}. Each later meeting is bounded by the earliest and the
+     * latest that the meeting before it could end, narrowed to its own free ranges. This ignores
+     * the granularity, so it can only rule placements out, never in.
+     */
+    boolean laterMeetingsCanStart(int i, int end) {
+      long earliestEnd = end;
+      long latestEnd = end;
+      for (int j = i + 1; j < starts.length; j++) {
+        long earliest = earliestEnd + request.getMinGap(j);
+        long latest = latestEnd + request.getMaxGap(j);
+        List<TimeRange> ranges = free.get(j);
+
+        TimeRange first = firstEndingAfter(ranges, earliest + durations[j]);
+        TimeRange last = lastStartingBefore(ranges, latest);
+        if (first == null || last == null) {
+          return false;
+        }
+        long earliestStart = Math.max(earliest, first.start());
+        long latestStart = Math.min(latest, last.end() - durations[j]);
+        if (earliestStart > latestStart) {
+          return false;
+        }
+        earliestEnd = earliestStart + durations[j];
+        latestEnd = latestStart + durations[j];
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Returns the first of the sorted, disjoint {@code ranges} that ends at or after {@code end}, or
+   * null if there is none.
+   */
+  private static TimeRange firstEndingAfter(List<TimeRange> ranges, long end) {
+    int low = 0;
+    int high = ranges.size();
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (ranges.get(middle).end() < end) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low == ranges.size() ? null : ranges.get(low);
+  }
+
+  /**
+   * Returns the last of the sorted, disjoint {@code ranges} that starts at or before
+   * {@code start}, or null if there is none.
+   */
+  private static TimeRange lastStartingBefore(List<TimeRange> ranges, long start) {
+    int low = 0;
+    int high = ranges.size();
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (ranges.get(middle).start() <= start) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low == 0 ? null : ranges.get(low - 1);
+  }
+
+  /** Returns the first start time on the granularity grid at or after {@code minute}. */
+  private int roundUp(int minute) {
+    return Math.floorDiv(minute + granularity - 1, granularity) * granularity;
+  }
+}
@@ -0,0 +1,90 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of primitive {@code long}s, for holding many values without boxing each one or
+ * allocating an object per value.
+ */
+public final class LongArrayList {
+  private long[] values;
+  private int size = 0;
+
+  /** Creates an empty list with room for 8 values before it has to grow. */
+  public LongArrayList() {
+    this(8);
+  }
+
+  /** Creates an empty list with room for {@code capacity} values before it has to grow. */
+  public LongArrayList(int capacity) {
+    values = new long[Math.max(capacity, 1)];
+  }
+
+  /** Appends {@code value} to the end of the list. */
+  public void add(long value) {
+    if (size == values.length) {
+      values = Arrays.copyOf(values, size * 2);
+    }
+    values[size++] = value;
+  }
+
+  /** Returns the value at {@code index}. */
+  public long get(int index) {
+    checkIndex(index);
+    return values[index];
+  }
+
+  /** Replaces the value at {@code index}. */
+  public void set(int index, long value) {
+    checkIndex(index);
+    values[index] = value;
+  }
+
+  /** Returns the number of values in the list. */
+  public int size() {
+    return size;
+  }
+
+  /** Returns whether the list has no values. */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** Removes every value, keeping the room that has been allocated for them. */
+  public void clear() {
+    size = 0;
+  }
+
+  /** Drops the values from {@code newSize} onwards. */
+  public void truncate(int newSize) {
+    if (newSize < 0 || newSize > size) {
+      throw new IndexOutOfBoundsException("new size " + newSize + " for size " + size);
+    }
+    size = newSize;
+  }
+
+  /** Sorts the values in ascending order. */
+  public void sort() {
+    Arrays.sort(values, 0, size);
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("index " + index + " for size " + size);
+    }
+  }
+}
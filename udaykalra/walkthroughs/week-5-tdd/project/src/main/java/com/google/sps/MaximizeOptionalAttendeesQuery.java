@@ -0,0 +1,183 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import com.google.sps.SweepLineMeetingQuery.BusyIntervals;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the meeting times that the largest number of optional attendees can make, instead of
+ * either including all of them or none of them. Runs in a single sweep over the start times at
+ * which each attendee becomes able and unable to make the meeting, so it is linear in the number
+ * of optional attendees rather than trying each of the 2^k subsets of them.
+ */
+public final class MaximizeOptionalAttendeesQuery {
+  /**
+   * Returns the slots, ordered by start time, in which every required attendee and as many
+   * optional attendees as possible can attend. Slots with different sets of optional attendees
+   * may overlap.
+   */
+  public List<MeetingSlot> query(Collection<Event> events, MeetingRequest request) {
+    List<MeetingSlot> slots = allSlots(events, request);
+
+    int maxCount = 0;
+    for (MeetingSlot slot : slots) {
+      maxCount = Math.max(maxCount, slot.getOptionalAttendeeCount());
+    }
+
+    List<MeetingSlot> bestSlots = new ArrayList<>();
+    for (MeetingSlot slot : slots) {
+      if (slot.getOptionalAttendeeCount() == maxCount) {
+        bestSlots.add(slot);
+      }
+    }
+    return bestSlots;
+  }
+
+  /**
+   * Returns every slot, ordered by start time, in which the required attendees can attend,
+   * labelled with the number of optional attendees who can also attend.
+   */
+  static List<MeetingSlot> allSlots(Collection<Event> events, MeetingRequest request) {
+    Collection<String> attendees = request.getAttendees();
+    Map<String, BusyIntervals> optionalBusy = new HashMap<>();
+    for (String attendee : request.getOptionalAttendees()) {
+      optionalBusy.put(attendee, new BusyIntervals(0));
+    }
+
+    // Times when a required attendee is busy are never returned, so there is no need to track
+    // which optional attendees are busy then too.
+    BusyIntervals requiredBusy = new BusyIntervals(0);
+    for (Event event : events) {
+      if (!Collections.disjoint(attendees, event.getAttendees())) {
+        requiredBusy.add(event.getWhen());
+        continue;
+      }
+      for (String attendee : event.getAttendees()) {
+        BusyIntervals busy = optionalBusy.get(attendee);
+        if (busy != null) {
+          busy.add(event.getWhen());
+        }
+      }
+    }
+
+    TimeRange window = request.getWindow();
+    long duration = request.getDuration();
+    // The number of minutes from the start of a free range to one past the last minute a meeting
+    // could start in it. Zero-length meetings still need a minute to start in.
+    int span = (int) Math.max(duration, 1);
+
+    // Each optional attendee adds one to the count at the first start time in each of their free
+    // ranges, and removes it again after the last start time.
+    int[] countStarts = new int[0];
+    int[] countEnds = new int[0];
+    int size = 0;
+    for (BusyIntervals busy : optionalBusy.values()) {
+      for (TimeRange free : busy.freeRanges(window, duration)) {
+        if (size == countStarts.length) {
+          countStarts = Arrays.copyOf(countStarts, Math.max(8, size * 2));
+          countEnds = Arrays.copyOf(countEnds, countStarts.length);
+        }
+        countStarts[size] = free.start();
+        countEnds[size] = free.end() - span + 1;
+        size++;
+      }
+    }
+    Arrays.sort(countStarts, 0, size);
+    Arrays.sort(countEnds, 0, size);
+
+    SlotBuilder slots = new SlotBuilder(span);
+    int nextStart = 0;
+    int nextEnd = 0;
+    int count = 0;
+
+    // Sweep the start times that work for the required attendees, splitting them wherever the
+    // number of available optional attendees changes.
+    for (TimeRange free : requiredBusy.freeRanges(window, duration)) {
+      int position = free.start();
+      int last = free.end() - span + 1;
+
+      while (position < last) {
+        while (nextStart < size && countStarts[nextStart] <= position) {
+          count++;
+          nextStart++;
+        }
+        while (nextEnd < size && countEnds[nextEnd] <= position) {
+          count--;
+          nextEnd++;
+        }
+
+        int next = last;
+        if (nextStart < size) {
+          next = Math.min(next, countStarts[nextStart]);
+        }
+        if (nextEnd < size) {
+          next = Math.min(next, countEnds[nextEnd]);
+        }
+
+        slots.add(position, next, count);
+        position = next;
+      }
+    }
+    return slots.build();
+  }
+
+  /**
+   * Collects runs of meeting start times with the same count of optional attendees, joining
+   * adjacent runs with equal counts.
+   */
+  private static final class SlotBuilder {
+    private final int span;
+    private final List<MeetingSlot> slots = new ArrayList<>();
+    private int runStart = 0;
+    private int runEnd = 0;
+    private int runCount = -1;
+
+    SlotBuilder(int span) {
+      this.span = span;
+    }
+
+    /** Adds the start times from {@code start} (inclusive) to {@code end} (exclusive). */
+    void add(int start, int end, int count) {
+      if (start == runEnd && count == runCount) {
+        runEnd = end;
+        return;
+      }
+      flush();
+      runStart = start;
+      runEnd = end;
+      runCount = count;
+    }
+
+    List<MeetingSlot> build() {
+      flush();
+      return slots;
+    }
+
+    private void flush() {
+      if (runCount >= 0) {
+        // A meeting starting at the last start time of the run ends span minutes after it.
+        TimeRange when = TimeRange.fromStartEnd(runStart, runEnd - 1 + span, false);
+        slots.add(new MeetingSlot(when, runCount));
+      }
+    }
+  }
+}
@@ -0,0 +1,29 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Collection;
+
+/**
+ * Interface for algorithms that find the times a meeting could be scheduled, so that different
+ * implementations can be swapped in and compared against each other.
+ */
+public interface MeetingQuery {
+  /**
+   * Returns the time ranges, ordered by start time, in which the meeting described by
+   * {@code request} could take place given the already scheduled {@code events}.
+   */
+  Collection<TimeRange> query(Collection<Event> events, MeetingRequest request);
+}
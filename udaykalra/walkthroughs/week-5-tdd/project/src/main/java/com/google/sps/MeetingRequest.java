@@ -38,8 +38,35 @@ public final class MeetingRequest {
   // The duration of the meeting in minutes.
   private final long duration;
 
+  // The span of time to search for the meeting in, in minutes since the epoch. May be null, in which
+  // case the whole day is searched.
+  private final TimeRange window;
+
   public MeetingRequest(Collection<String> attendees, long duration) {
+    this(attendees, duration, null);
+  }
+
+  /**
+   * Creates a request for a meeting that must take place within {@code window}, which may span
+   * several days or weeks.
+   *
+   * @throws IllegalArgumentException if {@code window} has a negative duration or ends past the
+   *     last representable minute
+   */
+  public MeetingRequest(Collection<String> attendees, long duration, TimeRange window) {
+    if (window != null) {
+      if (window.duration() < 0) {
+        throw new IllegalArgumentException("window cannot have a negative duration");
+      }
+      try {
+        Math.addExact(window.start(), window.duration());
+      } catch (ArithmeticException e) {
+        throw new IllegalArgumentException("window ends too late", e);
+      }
+    }
+
     this.duration = duration;
+    this.window = window;
     this.attendees.addAll(attendees);
   }
 
@@ -72,4 +99,11 @@ public final class MeetingRequest {
   public long getDuration() {
     return duration;
   }
+
+  /**
+   * Returns the span of time to search for the meeting in. Defaults to the whole day.
+   */
+  public TimeRange getWindow() {
+    return window == null ? TimeRange.WHOLE_DAY : window;
+  }
 }
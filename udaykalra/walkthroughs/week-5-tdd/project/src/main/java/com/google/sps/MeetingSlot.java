@@ -0,0 +1,72 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+/**
+ * A span of time in which a meeting can be placed anywhere, together with the number of optional
+ * attendees who can make a meeting placed there. Slots are considered read-only.
+ */
+public final class MeetingSlot {
+  private final TimeRange when;
+  private final int optionalAttendeeCount;
+
+  /**
+   * Creates a new slot.
+   *
+   * @param when The span of time the meeting fits in. Must be non-null.
+   * @param optionalAttendeeCount The number of optional attendees free for a meeting in the slot.
+   */
+  public MeetingSlot(TimeRange when, int optionalAttendeeCount) {
+    if (when == null) {
+      throw new IllegalArgumentException("when cannot be null");
+    }
+
+    this.when = when;
+    this.optionalAttendeeCount = optionalAttendeeCount;
+  }
+
+  /**
+   * Returns the {@code TimeRange} the meeting fits in.
+   */
+  public TimeRange getWhen() {
+    return when;
+  }
+
+  /**
+   * Returns the number of optional attendees who can attend a meeting in this slot.
+   */
+  public int getOptionalAttendeeCount() {
+    return optionalAttendeeCount;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof MeetingSlot && equals(this, (MeetingSlot) other);
+  }
+
+  @Override
+  public int hashCode() {
+    return when.hashCode() ^ Integer.hashCode(optionalAttendeeCount);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Slot: %s with %d optional attendees", when, optionalAttendeeCount);
+  }
+
+  private static boolean equals(MeetingSlot a, MeetingSlot b) {
+    return a.when.equals(b.when) && a.optionalAttendeeCount == b.optionalAttendeeCount;
+  }
+}
@@ -0,0 +1,238 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds available meeting times by marking the busy minutes of the search window in two bitmaps,
+ * one for required and one for optional attendees, and scanning them a word at a time for runs of
+ * free minutes. Ported from the bitmap implementation of agcaballero's calendar project so that it
+ * can be compared with the other implementations; unlike the original it searches the request's
+ * window rather than a single day, and only falls back to the required attendees when there are
+ * some, like the other {@link MeetingQuery} implementations.
+ *
+ * <p>Attendees may be given {@link WorkingHours}, in which case the minutes outside their working
+ * hours are treated as busy by AND-ing their availability masks into the free minutes.
+ *
+ * <p>The bitmaps take a bit per minute of the window, so windows longer than
+ * {@link #MAX_WINDOW_DAYS} days are refused rather than allocated.
+ */
+public final class MinuteBitmapMeetingQuery implements MeetingQuery {
+  /** The longest window, in days, that a minute bitmap is made for. */
+  public static final int MAX_WINDOW_DAYS = 366;
+
+  /** the number of bits in each word of a minute bitmap */
+  private static final int BITS_PER_WORD = Long.SIZE;
+
+  private final Map<String, WorkingHours> workingHours;
+
+  /** Creates a query that considers attendees free at any time of day. */
+  public MinuteBitmapMeetingQuery() {
+    this(Collections.emptyMap());
+  }
+
+  /**
+   * Creates a query that only schedules attendees during their working hours.
+   *
+   * @param workingHours The working hours of each attendee who has them. Attendees not in the map
+   *     may meet at any time. Must be non-null; it is read on every query, so it may be updated
+   *     between queries if it is safe to read concurrently.
+   */
+  public MinuteBitmapMeetingQuery(Map<String, WorkingHours> workingHours) {
+    if (workingHours == null) {
+      throw new IllegalArgumentException("workingHours cannot be null");
+    }
+
+    this.workingHours = workingHours;
+  }
+
+  /**
+   * Returns the number of words in a bitmap with a bit for each minute of {@code window}.
+   *
+   * @throws IllegalArgumentException if {@code window} is longer than {@link #MAX_WINDOW_DAYS}
+   *     days
+   */
+  static int wordsFor(TimeRange window) {
+    if (window.duration() > MAX_WINDOW_DAYS * TimeRange.MINUTES_IN_DAY) {
+      throw new IllegalArgumentException(
+          "window cannot be longer than " + MAX_WINDOW_DAYS + " days");
+    }
+    return (window.duration() + BITS_PER_WORD - 1) / BITS_PER_WORD;
+  }
+
+  @Override
+  public Collection<TimeRange> query(Collection<Event> events, MeetingRequest request) {
+    Collection<String> attendees = request.getAttendees();
+    Collection<String> optionalAttendees = request.getOptionalAttendees();
+    TimeRange window = request.getWindow();
+    int words = wordsFor(window);
+
+    // one bit per minute of the window, set if that minute is busy for a required attendee
+    long[] requiredBusy = new long[words];
+    // one bit per minute of the window, set if that minute is busy for an optional attendee
+    long[] optionalBusy = new long[words];
+
+    // one bit per minute of the window, set if a zero-duration event of a required attendee
+    // starts at that minute; free time ranges are split there rather than running through it
+    long[] requiredCuts = new long[words];
+    // the same for the zero-duration events of optional attendees
+    long[] optionalCuts = new long[words];
+
+    for (Event event : events) {
+      TimeRange range = event.getWhen();
+
+      if (!Collections.disjoint(event.getAttendees(), attendees)) {
+        markRange(requiredBusy, requiredCuts, window, range);
+      } else if (!Collections.disjoint(event.getAttendees(), optionalAttendees)) {
+        markRange(optionalBusy, optionalCuts, window, range);
+      }
+    }
+
+    // minutes outside an attendee's working hours count as busy for their tier
+    restrictToWorkingHours(requiredBusy, attendees, window);
+    restrictToWorkingHours(optionalBusy, optionalAttendees, window);
+
+    // minutes where anyone (including optional attendees) is busy
+    long[] anyoneBusy = new long[words];
+    long[] anyoneCuts = new long[words];
+    for (int word = 0; word < words; word++) {
+      anyoneBusy[word] = requiredBusy[word] | optionalBusy[word];
+      anyoneCuts[word] = requiredCuts[word] | optionalCuts[word];
+    }
+
+    List<TimeRange> withOptionalAttendees =
+        availableTimeRanges(anyoneBusy, anyoneCuts, window, request.getDuration());
+    if (!withOptionalAttendees.isEmpty() || attendees.isEmpty()) {
+      return withOptionalAttendees;
+    }
+    return availableTimeRanges(requiredBusy, requiredCuts, window, request.getDuration());
+  }
+
+  /** Marks the minutes outside the working hours of any of {@code attendees} in {@code busy}. */
+  private void restrictToWorkingHours(
+      long[] busy, Collection<String> attendees, TimeRange window) {
+    if (workingHours.isEmpty()) {
+      return;
+    }
+    for (String attendee : attendees) {
+      WorkingHours hours = workingHours.get(attendee);
+      if (hours == null) {
+        continue;
+      }
+      long[] available = hours.availabilityMask(window);
+      for (int word = 0; word < busy.length; word++) {
+        busy[word] |= ~available[word];
+      }
+    }
+  }
+
+  /**
+   * Marks {@code range} in the bitmaps: its minutes in {@code busy}, or its start in {@code cuts}
+   * if it is a zero-duration range strictly inside the window.
+   */
+  static void markRange(long[] busy, long[] cuts, TimeRange window, TimeRange range) {
+    if (range.duration() > 0) {
+      setRange(busy, window, range);
+    } else if (range.start() > window.start() && range.start() < window.end()) {
+      int minute = range.start() - window.start();
+      cuts[minute / BITS_PER_WORD] |= 1L << minute;
+    }
+  }
+
+  /**
+   * Sets the bits for the minutes of {@code range} that fall in {@code window}, a whole word at a
+   * time where possible.
+   */
+  private static void setRange(long[] busy, TimeRange window, TimeRange range) {
+    int start = Math.max(range.start(), window.start()) - window.start();
+    int end = Math.min(range.end(), window.end()) - window.start();
+    if (start >= end) {
+      return;
+    }
+
+    int startWord = start / BITS_PER_WORD;
+    int endWord = (end - 1) / BITS_PER_WORD;
+    // masks of the bits at or after start, and at or before end - 1, within their words
+    long startMask = -1L << start;
+    long endMask = -1L >>> -end;
+
+    if (startWord == endWord) {
+      busy[startWord] |= startMask & endMask;
+      return;
+    }
+
+    busy[startWord] |= startMask;
+    for (int word = startWord + 1; word < endWord; word++) {
+      busy[word] = -1L;
+    }
+    busy[endWord] |= endMask;
+  }
+
+  /**
+   * Returns the runs of clear bits (free minutes) in the busy bitmap that are at least
+   * {@code duration} minutes long, as time ranges in the window.
+   */
+  static List<TimeRange> availableTimeRanges(
+      long[] busy, long[] cuts, TimeRange window, long duration) {
+    List<TimeRange> times = new ArrayList<>();
+    int length = window.duration();
+
+    int start = nextMinute(busy, length, 0, false);
+    while (start < length) {
+      // the available time range lasts until the next busy minute (or the end of the window),
+      // unless a zero-duration event splits it before then
+      int end = nextMinute(busy, length, start, true);
+      int cut = nextMinute(cuts, end, start + 1, true);
+
+      if (cut - start >= duration) {
+        times.add(TimeRange.fromStartEnd(window.start() + start, window.start() + cut, false));
+      }
+
+      start = cut < end ? cut : nextMinute(busy, length, end, false);
+    }
+    return times;
+  }
+
+  /**
+   * Returns the first minute at or after {@code from} whose busy bit equals {@code isBusy}, or
+   * {@code length} if there is none.
+   */
+  private static int nextMinute(long[] busy, int length, int from, boolean isBusy) {
+    if (from >= length) {
+      return length;
+    }
+
+    int word = from / BITS_PER_WORD;
+    // flip the bits when looking for a free minute so that we always search for a set bit, and
+    // ignore the bits before from
+    long bits = (isBusy ? busy[word] : ~busy[word]) & (-1L << from);
+
+    while (bits == 0) {
+      word++;
+      if (word == busy.length) {
+        return length;
+      }
+      bits = isBusy ? busy[word] : ~busy[word];
+    }
+
+    // the padding bits past the end of the window are never set, so clamp to its length
+    return Math.min(word * BITS_PER_WORD + Long.numberOfTrailingZeros(bits), length);
+  }
+}
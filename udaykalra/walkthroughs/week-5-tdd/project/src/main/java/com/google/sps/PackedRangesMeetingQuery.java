@@ -0,0 +1,122 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Finds available meeting times with the same condense and invert pipeline as
+ * {@link CondensedRangesMeetingQuery}, but with every intermediate range packed into a
+ * {@code long} (see {@link PackedTimeRange}) and held in {@link LongArrayList} buffers. Merging
+ * ranges and finding the gaps between them write over the buffers in place, so the only objects
+ * made per query are the buffers themselves and the {@link TimeRange}s that are returned.
+ */
+public final class PackedRangesMeetingQuery implements MeetingQuery {
+  @Override
+  public Collection<TimeRange> query(Collection<Event> events, MeetingRequest request) {
+    Collection<String> attendees = request.getAttendees();
+    Collection<String> optionalAttendees = request.getOptionalAttendees();
+    TimeRange window = request.getWindow();
+
+    // The busy time of the required attendees, and of everyone including optional attendees,
+    // clipped to the window.
+    LongArrayList requiredBusy = new LongArrayList(events.size());
+    LongArrayList anyoneBusy = new LongArrayList(events.size());
+    for (Event event : events) {
+      boolean required = !Collections.disjoint(attendees, event.getAttendees());
+      if (!required && Collections.disjoint(optionalAttendees, event.getAttendees())) {
+        continue;
+      }
+
+      TimeRange when = event.getWhen();
+      int start = Math.max(when.start(), window.start());
+      int end = Math.min(when.end(), window.end());
+      if (start < end || (start == end && window.contains(start))) {
+        long packed = PackedTimeRange.pack(start, end - start);
+        anyoneBusy.add(packed);
+        if (required) {
+          requiredBusy.add(packed);
+        }
+      }
+    }
+
+    LongArrayList gaps = new LongArrayList(anyoneBusy.size() + 1);
+    List<TimeRange> withOptionalAttendees =
+        findValidTimeRanges(anyoneBusy, window, request.getDuration(), gaps);
+    if (!withOptionalAttendees.isEmpty() || attendees.isEmpty()) {
+      return withOptionalAttendees;
+    }
+    return findValidTimeRanges(requiredBusy, window, request.getDuration(), gaps);
+  }
+
+  /**
+   * Returns the gaps between the busy ranges in the window that are long enough for the meeting.
+   * Sorts and condenses {@code busy} in place and overwrites {@code gaps}.
+   */
+  private static List<TimeRange> findValidTimeRanges(
+      LongArrayList busy, TimeRange window, long duration, LongArrayList gaps) {
+    busy.sort();
+    condense(busy);
+    invert(busy, window, gaps);
+
+    // Only now, at the edge of the pipeline, turn the ranges back into objects.
+    List<TimeRange> validTimeRanges = new ArrayList<>();
+    for (int i = 0; i < gaps.size(); i++) {
+      long gap = gaps.get(i);
+      if (PackedTimeRange.duration(gap) > 0 && PackedTimeRange.duration(gap) >= duration) {
+        validTimeRanges.add(PackedTimeRange.toTimeRange(gap));
+      }
+    }
+    return validTimeRanges;
+  }
+
+  /**
+   * Merges overlapping ranges of a sorted buffer in place, leaving ranges that are only adjacent
+   * (such as 8:30-9:00 and 9:00-9:30) apart as TimeRange#overlaps does.
+   */
+  static void condense(LongArrayList sortedRanges) {
+    int condensed = 0;
+    for (int i = 0; i < sortedRanges.size(); i++) {
+      long range = sortedRanges.get(i);
+      if (condensed > 0 && PackedTimeRange.overlaps(sortedRanges.get(condensed - 1), range)) {
+        long current = sortedRanges.get(condensed - 1);
+        int end = Math.max(PackedTimeRange.end(current), PackedTimeRange.end(range));
+        int start = PackedTimeRange.start(current);
+        sortedRanges.set(condensed - 1, PackedTimeRange.pack(start, end - start));
+      } else {
+        sortedRanges.set(condensed++, range);
+      }
+    }
+    sortedRanges.truncate(condensed);
+  }
+
+  /**
+   * Writes the ranges of the window not covered by the condensed ranges into {@code gaps},
+   * including the empty ranges between adjacent ones.
+   */
+  static void invert(LongArrayList condensedRanges, TimeRange window, LongArrayList gaps) {
+    gaps.clear();
+    int lastEnd = window.start();
+    for (int i = 0; i < condensedRanges.size(); i++) {
+      long range = condensedRanges.get(i);
+      gaps.add(PackedTimeRange.pack(lastEnd, PackedTimeRange.start(range) - lastEnd));
+      lastEnd = PackedTimeRange.end(range);
+    }
+    gaps.add(PackedTimeRange.pack(lastEnd, window.end() - lastEnd));
+  }
+}
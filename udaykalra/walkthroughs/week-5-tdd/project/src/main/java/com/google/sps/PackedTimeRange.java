@@ -0,0 +1,65 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+/**
+ * Packs a time range into a single {@code long}, with the start in the high 32 bits and the
+ * duration in the low 32 bits, so that ranges can be stored in primitive arrays instead of as
+ * {@link TimeRange} objects. Because the duration is never negative, packed ranges sort by start
+ * time and then by duration.
+ */
+public final class PackedTimeRange {
+  private PackedTimeRange() {}
+
+  /** Returns the packed range starting at {@code start} and lasting {@code duration} minutes. */
+  public static long pack(int start, int duration) {
+    return ((long) start << 32) | (duration & 0xFFFFFFFFL);
+  }
+
+  /** Returns {@code range} packed into a long. */
+  public static long pack(TimeRange range) {
+    return pack(range.start(), range.duration());
+  }
+
+  /** Returns the start of the packed range. */
+  public static int start(long packed) {
+    return (int) (packed >> 32);
+  }
+
+  /** Returns the duration of the packed range. */
+  public static int duration(long packed) {
+    return (int) packed;
+  }
+
+  /** Returns the end of the packed range (exclusive). */
+  public static int end(long packed) {
+    return start(packed) + duration(packed);
+  }
+
+  /** Returns whether the packed range contains {@code point}, like {@link TimeRange#contains}. */
+  public static boolean contains(long packed, int point) {
+    return start(packed) <= point && point < end(packed);
+  }
+
+  /** Returns whether the packed ranges overlap, like {@link TimeRange#overlaps}. */
+  public static boolean overlaps(long packed, long other) {
+    return contains(packed, start(other)) || contains(other, start(packed));
+  }
+
+  /** Returns the packed range as a {@link TimeRange}. */
+  public static TimeRange toTimeRange(long packed) {
+    return TimeRange.fromStartDuration(start(packed), duration(packed));
+  }
+}
@@ -0,0 +1,201 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Finds available meeting times like {@link MinuteBitmapMeetingQuery}, but marks the busy minutes
+ * of the events in parallel. The events are split in halves across a {@link ForkJoinPool} until
+ * each part is no bigger than a threshold; each part marks its events in bitmaps of its own and
+ * then ORs them into one set of bitmaps shared by the whole query, so only the parts being marked
+ * at the time hold bitmaps of their own, rather than one per part. Requests with few events are
+ * answered on the calling thread, where forking would cost more than it saves.
+ *
+ * <p>Like {@link MinuteBitmapMeetingQuery}, windows longer than
+ * {@link MinuteBitmapMeetingQuery#MAX_WINDOW_DAYS} days are refused.
+ *
+ * <p>The attendees of the request are copied into hash sets once, so checking an event costs a
+ * lookup per attendee of the event however many attendees the request has.
+ */
+public final class ParallelMeetingQuery implements MeetingQuery {
+  /** The default number of events below which a part is marked without splitting it further. */
+  public static final int DEFAULT_SEQUENTIAL_THRESHOLD = 4096;
+
+  private final ForkJoinPool pool;
+  private final int sequentialThreshold;
+
+  /** Creates a query running on the common pool with the default threshold. */
+  public ParallelMeetingQuery() {
+    this(ForkJoinPool.commonPool(), DEFAULT_SEQUENTIAL_THRESHOLD);
+  }
+
+  /**
+   * Creates a query running on {@code pool}.
+   *
+   * @param pool The pool to mark events on. Must be non-null.
+   * @param sequentialThreshold The number of events below which a part is not split further. Must
+   *     be positive.
+   */
+  public ParallelMeetingQuery(ForkJoinPool pool, int sequentialThreshold) {
+    if (pool == null) {
+      throw new IllegalArgumentException("pool cannot be null");
+    }
+
+    if (sequentialThreshold <= 0) {
+      throw new IllegalArgumentException("sequentialThreshold must be positive");
+    }
+
+    this.pool = pool;
+    this.sequentialThreshold = sequentialThreshold;
+  }
+
+  @Override
+  public Collection<TimeRange> query(Collection<Event> events, MeetingRequest request) {
+    Set<String> attendees = new HashSet<>(request.getAttendees());
+    Set<String> optionalAttendees = new HashSet<>(request.getOptionalAttendees());
+    TimeRange window = request.getWindow();
+
+    // Sized before any task runs, so that a window too long for a bitmap is refused up front.
+    BusyBitmaps busy = new BusyBitmaps(MinuteBitmapMeetingQuery.wordsFor(window));
+    List<Event> eventList = new ArrayList<>(events);
+    MarkTask task = new MarkTask(eventList, 0, eventList.size(), attendees, optionalAttendees,
+        window, sequentialThreshold, busy);
+    if (eventList.size() < sequentialThreshold) {
+      task.compute();
+    } else {
+      pool.invoke(task);
+    }
+
+    long[] anyoneBusy = new long[busy.requiredBusy.length];
+    long[] anyoneCuts = new long[busy.requiredBusy.length];
+    for (int word = 0; word < anyoneBusy.length; word++) {
+      anyoneBusy[word] = busy.requiredBusy[word] | busy.optionalBusy[word];
+      anyoneCuts[word] = busy.requiredCuts[word] | busy.optionalCuts[word];
+    }
+
+    List<TimeRange> withOptionalAttendees = MinuteBitmapMeetingQuery.availableTimeRanges(
+        anyoneBusy, anyoneCuts, window, request.getDuration());
+    if (!withOptionalAttendees.isEmpty() || attendees.isEmpty()) {
+      return withOptionalAttendees;
+    }
+    return MinuteBitmapMeetingQuery.availableTimeRanges(
+        busy.requiredBusy, busy.requiredCuts, window, request.getDuration());
+  }
+
+  /** The busy minutes and zero-duration events of the two tiers of attendees in a window. */
+  private static final class BusyBitmaps {
+    final long[] requiredBusy;
+    final long[] requiredCuts;
+    final long[] optionalBusy;
+    final long[] optionalCuts;
+
+    BusyBitmaps(int words) {
+      requiredBusy = new long[words];
+      requiredCuts = new long[words];
+      optionalBusy = new long[words];
+      optionalCuts = new long[words];
+    }
+
+    /** Adds everything marked in {@code other} to these bitmaps. */
+    void or(BusyBitmaps other) {
+      for (int word = 0; word < requiredBusy.length; word++) {
+        requiredBusy[word] |= other.requiredBusy[word];
+        requiredCuts[word] |= other.requiredCuts[word];
+        optionalBusy[word] |= other.optionalBusy[word];
+        optionalCuts[word] |= other.optionalCuts[word];
+      }
+    }
+  }
+
+  /**
+   * Marks the events in [from, to) of a list into the shared bitmaps, splitting the work while it
+   * is large.
+   */
+  private static final class MarkTask extends RecursiveAction {
+    private final List<Event> events;
+    private final int from;
+    private final int to;
+    private final Set<String> attendees;
+    private final Set<String> optionalAttendees;
+    private final TimeRange window;
+    private final int sequentialThreshold;
+    // Every task of a query ORs its marks into these, holding their lock while it does.
+    private final BusyBitmaps shared;
+
+    MarkTask(List<Event> events, int from, int to, Set<String> attendees,
+        Set<String> optionalAttendees, TimeRange window, int sequentialThreshold,
+        BusyBitmaps shared) {
+      this.events = events;
+      this.from = from;
+      this.to = to;
+      this.attendees = attendees;
+      this.optionalAttendees = optionalAttendees;
+      this.window = window;
+      this.sequentialThreshold = sequentialThreshold;
+      this.shared = shared;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= sequentialThreshold) {
+        markSequentially();
+        return;
+      }
+
+      int middle = (from + to) >>> 1;
+      invokeAll(
+          new MarkTask(events, from, middle, attendees, optionalAttendees, window,
+              sequentialThreshold, shared),
+          new MarkTask(events, middle, to, attendees, optionalAttendees, window,
+              sequentialThreshold, shared));
+    }
+
+    private void markSequentially() {
+      BusyBitmaps busy = new BusyBitmaps(shared.requiredBusy.length);
+      for (int i = from; i < to; i++) {
+        Event event = events.get(i);
+        if (involvesAny(event, attendees)) {
+          MinuteBitmapMeetingQuery.markRange(
+              busy.requiredBusy, busy.requiredCuts, window, event.getWhen());
+        } else if (involvesAny(event, optionalAttendees)) {
+          MinuteBitmapMeetingQuery.markRange(
+              busy.optionalBusy, busy.optionalCuts, window, event.getWhen());
+        }
+      }
+      synchronized (shared) {
+        shared.or(busy);
+      }
+    }
+
+    private static boolean involvesAny(Event event, Set<String> attendees) {
+      if (attendees.isEmpty()) {
+        return false;
+      }
+      for (String attendee : event.getAttendees()) {
+        if (attendees.contains(attendee)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+}
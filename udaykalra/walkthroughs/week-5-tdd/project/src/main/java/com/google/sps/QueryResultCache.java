@@ -0,0 +1,248 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Caches the answers to meeting queries, so that a client asking the same question again gets the
+ * previous answer instead of a recomputation. Entries are keyed by the request with its attendees
+ * sorted, the algorithm that answered it and the version of the events it was answered over, so a
+ * change to the events makes every older entry unreachable; the first lookup at a newer version
+ * also drops them to free their memory. Versions are expected to only increase, and answers over
+ * an older version than the cache has seen are computed but not kept. Beyond that the cache
+ * holds at most a fixed number of entries, evicting the least recently used, and entries expire a
+ * fixed time after they are computed.
+ *
+ * <p>Answers are computed outside the cache's lock, so two threads missing on the same key at once
+ * may both compute it. That is harmless since the answers are equal.
+ */
+public final class QueryResultCache {
+  // Rough sizes, in bytes, of an entry's fixed overhead and of each time range and character it
+  // holds, for estimating the memory used by the cache.
+  private static final int ENTRY_BYTES = 160;
+  private static final int TIME_RANGE_BYTES = 40;
+  private static final int CHAR_BYTES = 2;
+
+  private final int maxEntries;
+  private final long timeToLiveMillis;
+  private final Clock clock;
+
+  // In access order, so that the first entry is the least recently used. Guarded by this.
+  private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long version = Long.MIN_VALUE;
+  private long estimatedBytes = 0;
+
+  private long hitCount = 0;
+  private long missCount = 0;
+  private long evictionCount = 0;
+
+  /**
+   * Creates an empty cache.
+   *
+   * @param maxEntries The number of answers to keep. Must be positive.
+   * @param timeToLiveMillis How long an answer is kept for after it is computed. Must be positive.
+   */
+  public QueryResultCache(int maxEntries, long timeToLiveMillis) {
+    this(maxEntries, timeToLiveMillis, Clock.systemUTC());
+  }
+
+  /** Creates an empty cache that tells the time by {@code clock}. */
+  QueryResultCache(int maxEntries, long timeToLiveMillis, Clock clock) {
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("maxEntries must be positive");
+    }
+
+    if (timeToLiveMillis <= 0) {
+      throw new IllegalArgumentException("timeToLiveMillis must be positive");
+    }
+
+    this.maxEntries = maxEntries;
+    this.timeToLiveMillis = timeToLiveMillis;
+    this.clock = clock;
+  }
+
+  /**
+   * Returns the answer to {@code request} by {@code algorithm} over the events at
+   * {@code version}, calling {@code query} to compute it if it is not cached. The answer is
+   * read-only.
+   */
+  public Collection<TimeRange> get(MeetingRequest request, String algorithm, long version,
+      Supplier<? extends Collection<TimeRange>> query) {
+    Key key = new Key(request, algorithm, version);
+    synchronized (this) {
+      if (version > this.version) {
+        // Only entries at the latest version can be hit, so the rest are just taking up memory.
+        clear();
+        this.version = version;
+      }
+
+      Entry entry = version == this.version ? entries.get(key) : null;
+      if (entry != null && clock.millis() < entry.expiresAt) {
+        hitCount++;
+        return entry.answer;
+      }
+      if (entry != null) {
+        remove(key);
+      }
+      missCount++;
+    }
+
+    List<TimeRange> answer = Collections.unmodifiableList(new ArrayList<>(query.get()));
+    synchronized (this) {
+      // Don't store an answer computed over events that have changed since.
+      if (version == this.version) {
+        put(key, new Entry(answer, clock.millis() + timeToLiveMillis));
+      }
+    }
+    return answer;
+  }
+
+  /** Returns the number of lookups that were answered from the cache. */
+  public synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  /** Returns the number of lookups that had to compute their answer. */
+  public synchronized long getMissCount() {
+    return missCount;
+  }
+
+  /** Returns the share of lookups answered from the cache, or 0 if there have been none. */
+  public synchronized double getHitRatio() {
+    long lookups = hitCount + missCount;
+    return lookups == 0 ? 0 : (double) hitCount / lookups;
+  }
+
+  /** Returns the number of answers dropped to make room for newer ones. */
+  public synchronized long getEvictionCount() {
+    return evictionCount;
+  }
+
+  /** Returns the number of cached answers, including any that have expired but not been seen. */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /** Returns a rough estimate of the memory used by the cached answers and their keys, in bytes. */
+  public synchronized long getEstimatedBytes() {
+    return estimatedBytes;
+  }
+
+  private void put(Key key, Entry entry) {
+    remove(key);
+    entries.put(key, entry);
+    estimatedBytes += key.estimatedBytes + entry.estimatedBytes;
+
+    Iterator<Map.Entry<Key, Entry>> leastRecentlyUsed = entries.entrySet().iterator();
+    while (entries.size() > maxEntries) {
+      Map.Entry<Key, Entry> eldest = leastRecentlyUsed.next();
+      estimatedBytes -= eldest.getKey().estimatedBytes + eldest.getValue().estimatedBytes;
+      leastRecentlyUsed.remove();
+      evictionCount++;
+    }
+  }
+
+  private void remove(Key key) {
+    Entry entry = entries.remove(key);
+    if (entry != null) {
+      estimatedBytes -= key.estimatedBytes + entry.estimatedBytes;
+    }
+  }
+
+  private void clear() {
+    entries.clear();
+    estimatedBytes = 0;
+  }
+
+  /** A request reduced to what determines its answer, with the attendees in a fixed order. */
+  private static final class Key {
+    final List<String> attendees;
+    final List<String> optionalAttendees;
+    final long duration;
+    final TimeRange window;
+    final String algorithm;
+    final long version;
+    final int hashCode;
+    final long estimatedBytes;
+
+    Key(MeetingRequest request, String algorithm, long version) {
+      this.attendees = sorted(request.getAttendees());
+      this.optionalAttendees = sorted(request.getOptionalAttendees());
+      this.duration = request.getDuration();
+      this.window = request.getWindow();
+      this.algorithm = algorithm;
+      this.version = version;
+      this.hashCode = Objects.hash(
+          attendees, optionalAttendees, duration, window, algorithm, version);
+
+      long chars = algorithm == null ? 0 : algorithm.length();
+      for (String attendee : attendees) {
+        chars += attendee.length();
+      }
+      for (String attendee : optionalAttendees) {
+        chars += attendee.length();
+      }
+      this.estimatedBytes = ENTRY_BYTES + chars * CHAR_BYTES;
+    }
+
+    private static List<String> sorted(Collection<String> strings) {
+      List<String> sorted = new ArrayList<>(strings);
+      Collections.sort(sorted);
+      return sorted;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) other;
+      return duration == key.duration
+          && version == key.version
+          && attendees.equals(key.attendees)
+          && optionalAttendees.equals(key.optionalAttendees)
+          && window.equals(key.window)
+          && Objects.equals(algorithm, key.algorithm);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  /** A cached answer and when it expires. */
+  private static final class Entry {
+    final List<TimeRange> answer;
+    final long expiresAt;
+    final long estimatedBytes;
+
+    Entry(List<TimeRange> answer, long expiresAt) {
+      this.answer = answer;
+      this.expiresAt = expiresAt;
+      this.estimatedBytes = (long) answer.size() * TIME_RANGE_BYTES;
+    }
+  }
+}
@@ -0,0 +1,176 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Suggests the best few meeting times rather than every feasible range. Each range that works for
+ * the required attendees is sliced into candidate start times on a grid of {@code granularity}
+ * minutes, and every candidate is scored by:
+ *
+ * <ul>
+ *   <li>the share of optional attendees who can make it, worth up to {@link #COVERAGE_WEIGHT};
+ *   <li>how far it starts before or ends after the preferred hours of its day, costing
+ *       {@link #OUTSIDE_HOURS_WEIGHT} per hour;
+ *   <li>the free time it leaves before and after it that is too short for another meeting of the
+ *       same length, costing {@link #FRAGMENT_WEIGHT} per hour.
+ * </ul>
+ *
+ * <p>Only the best {@code k} candidates are kept, in a bounded heap, so the query needs O(k)
+ * memory however many candidates there are. Ties go to the earlier time.
+ */
+public final class RankedMeetingQuery {
+  /** The score of a time that every optional attendee can make. */
+  public static final double COVERAGE_WEIGHT = 10;
+
+  /** The score lost for each hour a meeting starts before or ends after the preferred hours. */
+  public static final double OUTSIDE_HOURS_WEIGHT = 2;
+
+  /** The score lost for each hour of unusably short free time left around the meeting. */
+  public static final double FRAGMENT_WEIGHT = 1;
+
+  /** The most meeting times a query can ask for, which bounds the memory of its heap. */
+  public static final int MAX_K = 1000;
+
+  /** Orders slots from worst to best, so that the worst is at the head of a priority queue. */
+  private static final Comparator<RankedSlot> WORST_FIRST =
+      Comparator.comparingDouble(RankedSlot::getScore)
+          .thenComparing(RankedSlot::getWhen, TimeRange.ORDER_BY_START.reversed());
+
+  private final int granularity;
+  private final int k;
+  private final TimeRange preferredHours;
+
+  /**
+   * Creates a query for the best {@code k} meeting times.
+   *
+   * @param granularity The minutes between candidate start times. Must be positive.
+   * @param k The number of meeting times to return. Must be positive and at most {@link #MAX_K}.
+   * @param preferredHours The preferred time of day for meetings, within a single day. Must be
+   *     non-null.
+   */
+  public RankedMeetingQuery(int granularity, int k, TimeRange preferredHours) {
+    if (granularity <= 0) {
+      throw new IllegalArgumentException("granularity must be positive");
+    }
+
+    if (k <= 0 || k > MAX_K) {
+      throw new IllegalArgumentException("k must be between 1 and " + MAX_K);
+    }
+
+    if (preferredHours == null || !TimeRange.WHOLE_DAY.contains(preferredHours)) {
+      throw new IllegalArgumentException("preferredHours must be a non-null range within a day");
+    }
+
+    this.granularity = granularity;
+    this.k = k;
+    this.preferredHours = preferredHours;
+  }
+
+  /** Returns up to {@code k} meeting times for the request, best first. */
+  public List<RankedSlot> query(Collection<Event> events, MeetingRequest request) {
+    if (request.getDuration() > request.getWindow().duration()) {
+      return Collections.emptyList();
+    }
+    int duration = (int) request.getDuration();
+    int optionalAttendeeCount = request.getOptionalAttendees().size();
+
+    // The ranges that work for the required attendees, to measure the fragments a meeting leaves.
+    MeetingRequest requiredOnly =
+        new MeetingRequest(request.getAttendees(), request.getDuration(), request.getWindow());
+    List<TimeRange> requiredFree =
+        new ArrayList<>(new SweepLineMeetingQuery().query(events, requiredOnly));
+
+    // Left to grow as candidates arrive, so that a large k costs nothing when there are few.
+    PriorityQueue<RankedSlot> best = new PriorityQueue<>(WORST_FIRST);
+    // Zero-length meetings still need a minute to start in, as in MaximizeOptionalAttendeesQuery.
+    int span = Math.max(duration, 1);
+    for (MeetingSlot slot : MaximizeOptionalAttendeesQuery.allSlots(events, request)) {
+      int lastStart = slot.getWhen().end() - span;
+      for (int start = roundUp(slot.getWhen().start()); start <= lastStart; start += granularity) {
+        TimeRange when = TimeRange.fromStartDuration(start, duration);
+        double score = score(when, slot.getOptionalAttendeeCount(), optionalAttendeeCount,
+            containing(requiredFree, start));
+        best.add(new RankedSlot(when, slot.getOptionalAttendeeCount(), score));
+        if (best.size() > k) {
+          best.poll();
+        }
+      }
+    }
+
+    List<RankedSlot> ranked = new ArrayList<>(best);
+    Collections.sort(ranked, WORST_FIRST.reversed());
+    return ranked;
+  }
+
+  /** Returns the score of a meeting at {@code when} in the free range {@code free}. */
+  private double score(
+      TimeRange when, int attending, int optionalAttendeeCount, TimeRange free) {
+    double coverage = optionalAttendeeCount == 0 ? 1 : (double) attending / optionalAttendeeCount;
+
+    // The preferred hours of the day the meeting starts on.
+    int dayStart = TimeRange.getDay(when.start()) * TimeRange.MINUTES_IN_DAY;
+    int preferredStart = dayStart + preferredHours.start();
+    int preferredEnd = dayStart + preferredHours.end();
+    // Measured from the preferred hours rather than just counted, so that a meeting just before
+    // them beats one in the middle of the night.
+    int outsideMinutes = Math.max(0, preferredStart - when.start())
+        + Math.max(0, when.end() - preferredEnd);
+
+    int fragmentMinutes = 0;
+    if (free != null) {
+      fragmentMinutes += fragment(when.start() - free.start(), when.duration());
+      fragmentMinutes += fragment(free.end() - when.end(), when.duration());
+    }
+
+    return COVERAGE_WEIGHT * coverage
+        - OUTSIDE_HOURS_WEIGHT * outsideMinutes / 60
+        - FRAGMENT_WEIGHT * fragmentMinutes / 60;
+  }
+
+  /** Returns the minutes of a leftover gap that are wasted because it is too short to use. */
+  private static int fragment(int gap, int duration) {
+    return gap > 0 && gap < duration ? gap : 0;
+  }
+
+  /** Returns the first candidate start time at or after {@code minute}. */
+  private int roundUp(int minute) {
+    return Math.floorDiv(minute + granularity - 1, granularity) * granularity;
+  }
+
+  /** Returns the range of the sorted, disjoint {@code ranges} containing {@code minute}. */
+  private static TimeRange containing(List<TimeRange> ranges, int minute) {
+    int low = 0;
+    int high = ranges.size() - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      TimeRange range = ranges.get(middle);
+      if (minute < range.start()) {
+        high = middle - 1;
+      } else if (minute >= range.end()) {
+        low = middle + 1;
+      } else {
+        return range;
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,84 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+/**
+ * A suggested meeting time together with the number of optional attendees who can make it and
+ * the score it was ranked by. Ranked slots are considered read-only.
+ */
+public final class RankedSlot {
+  private final TimeRange when;
+  private final int optionalAttendeeCount;
+  private final double score;
+
+  /**
+   * Creates a new ranked slot.
+   *
+   * @param when The time of the meeting. Must be non-null.
+   * @param optionalAttendeeCount The number of optional attendees free for the meeting.
+   * @param score How good the time is; higher is better.
+   */
+  public RankedSlot(TimeRange when, int optionalAttendeeCount, double score) {
+    if (when == null) {
+      throw new IllegalArgumentException("when cannot be null");
+    }
+
+    this.when = when;
+    this.optionalAttendeeCount = optionalAttendeeCount;
+    this.score = score;
+  }
+
+  /**
+   * Returns the {@code TimeRange} of the meeting.
+   */
+  public TimeRange getWhen() {
+    return when;
+  }
+
+  /**
+   * Returns the number of optional attendees who can attend the meeting.
+   */
+  public int getOptionalAttendeeCount() {
+    return optionalAttendeeCount;
+  }
+
+  /**
+   * Returns the score the meeting time was ranked by; higher is better.
+   */
+  public double getScore() {
+    return score;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof RankedSlot && equals(this, (RankedSlot) other);
+  }
+
+  @Override
+  public int hashCode() {
+    return when.hashCode() ^ Integer.hashCode(optionalAttendeeCount) ^ Double.hashCode(score);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Slot: %s with %d optional attendees scoring %.2f",
+        when, optionalAttendeeCount, score);
+  }
+
+  private static boolean equals(RankedSlot a, RankedSlot b) {
+    return a.when.equals(b.when) && a.optionalAttendeeCount == b.optionalAttendeeCount
+        && Double.compare(a.score, b.score) == 0;
+  }
+}
@@ -0,0 +1,255 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A rule for repeating a time range, such as every weekday at 9:00 or every other Tuesday at
+ * 14:30, until a given time and with some occurrences cancelled. Days are counted in UTC from the
+ * epoch like the rest of the scheduler; day 0 was a Thursday.
+ *
+ * <p>Occurrences are never stored. {@link #occurrences} computes the first one that can overlap
+ * a window directly from the rule and steps from there, so the cost of a query depends on the
+ * size of its window rather than on how long the series runs. Recurrences are considered
+ * read-only.
+ */
+public final class Recurrence {
+  /** How often a recurrence repeats. */
+  public enum Frequency {
+    DAILY,
+    WEEKLY
+  }
+
+  private static final int DAYS_IN_WEEK = 7;
+  // The epoch was a Thursday, so the Monday starting its week was day -3.
+  private static final int FIRST_MONDAY = -3;
+
+  private final TimeRange first;
+  private final Frequency frequency;
+  private final int interval;
+  private final Set<DayOfWeek> days;
+  private final int until;
+  // The start times of the cancelled occurrences, sorted for binary search.
+  private final int[] exceptions;
+
+  private Recurrence(TimeRange first, Frequency frequency, int interval, Set<DayOfWeek> days,
+      int until, int[] exceptions) {
+    this.first = first;
+    this.frequency = frequency;
+    this.interval = interval;
+    this.days = days;
+    this.until = until;
+    this.exceptions = exceptions;
+  }
+
+  /**
+   * Returns a recurrence of {@code first} every {@code interval} days.
+   *
+   * @param first The first occurrence. Must be non-null.
+   * @param interval The number of days between occurrences. Must be positive.
+   */
+  public static Recurrence daily(TimeRange first, int interval) {
+    checkArguments(first, interval);
+    return new Recurrence(first, Frequency.DAILY, interval, EnumSet.noneOf(DayOfWeek.class),
+        Integer.MAX_VALUE, new int[0]);
+  }
+
+  /**
+   * Returns a recurrence of {@code first} at the same time on each of {@code days}, every
+   * {@code interval} weeks. Weeks start on Monday.
+   *
+   * @param first The earliest occurrence, which sets the time and duration of the others. It is
+   *     skipped if its day of the week is not one of {@code days}. Must be non-null.
+   * @param interval The number of weeks between the weeks with occurrences. Must be positive.
+   * @param days The days of the week to repeat on, or an empty collection for the day of
+   *     {@code first}. Must be non-null.
+   */
+  public static Recurrence weekly(TimeRange first, int interval, Collection<DayOfWeek> days) {
+    checkArguments(first, interval);
+    if (days == null) {
+      throw new IllegalArgumentException("days cannot be null. Use empty array instead.");
+    }
+
+    Set<DayOfWeek> weekdays = days.isEmpty()
+        ? EnumSet.of(dayOfWeek(TimeRange.getDay(first.start())))
+        : EnumSet.copyOf(days);
+    return new Recurrence(first, Frequency.WEEKLY, interval, weekdays, Integer.MAX_VALUE,
+        new int[0]);
+  }
+
+  private static void checkArguments(TimeRange first, int interval) {
+    if (first == null) {
+      throw new IllegalArgumentException("first cannot be null");
+    }
+
+    if (interval <= 0) {
+      throw new IllegalArgumentException("interval must be positive");
+    }
+  }
+
+  /** Returns a copy of this recurrence without the occurrences starting at or after {@code end}. */
+  public Recurrence until(int end) {
+    return new Recurrence(first, frequency, interval, days, end, exceptions);
+  }
+
+  /** Returns a copy of this recurrence without the occurrence starting at {@code start}. */
+  public Recurrence except(int start) {
+    if (Arrays.binarySearch(exceptions, start) >= 0) {
+      return this;
+    }
+    int[] moreExceptions = Arrays.copyOf(exceptions, exceptions.length + 1);
+    moreExceptions[exceptions.length] = start;
+    Arrays.sort(moreExceptions);
+    return new Recurrence(first, frequency, interval, days, until, moreExceptions);
+  }
+
+  /** Returns the first occurrence. */
+  public TimeRange getFirst() {
+    return first;
+  }
+
+  /** Returns how often the recurrence repeats. */
+  public Frequency getFrequency() {
+    return frequency;
+  }
+
+  /** Returns the number of days or weeks between occurrences. */
+  public int getInterval() {
+    return interval;
+  }
+
+  /**
+   * Returns the occurrences that overlap {@code window}, in order. Zero-duration occurrences are
+   * included if they fall inside the window. Each occurrence is only computed when the iterator
+   * reaches it.
+   */
+  public Iterator<TimeRange> occurrences(TimeRange window) {
+    return new OccurrenceIterator(window);
+  }
+
+  /** Returns whether the rule puts an occurrence on {@code day}, ignoring exceptions and limits. */
+  private boolean occursOn(int day) {
+    int firstDay = TimeRange.getDay(first.start());
+    if (day < firstDay) {
+      return false;
+    }
+    if (frequency == Frequency.DAILY) {
+      return (day - firstDay) % interval == 0;
+    }
+    return days.contains(dayOfWeek(day)) && (week(day) - week(firstDay)) % interval == 0;
+  }
+
+  /**
+   * Returns the first day at or after {@code day} that could have an occurrence, skipping whole
+   * intervals at a time.
+   */
+  private int alignToRule(int day) {
+    int firstDay = TimeRange.getDay(first.start());
+    if (day <= firstDay) {
+      return firstDay;
+    }
+    if (frequency == Frequency.DAILY) {
+      return firstDay + ceilDiv(day - firstDay, interval) * interval;
+    }
+    int weeks = week(day) - week(firstDay);
+    if (weeks % interval == 0) {
+      return day;
+    }
+    // Jump to the Monday of the next week with occurrences.
+    int nextWeek = week(firstDay) + ceilDiv(weeks, interval) * interval;
+    return FIRST_MONDAY + nextWeek * DAYS_IN_WEEK;
+  }
+
+  private static int week(int day) {
+    return Math.floorDiv(day - FIRST_MONDAY, DAYS_IN_WEEK);
+  }
+
+  private static DayOfWeek dayOfWeek(int day) {
+    return DayOfWeek.MONDAY.plus(Math.floorMod(day - FIRST_MONDAY, DAYS_IN_WEEK));
+  }
+
+  private static int ceilDiv(int dividend, int divisor) {
+    return -Math.floorDiv(-dividend, divisor);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Recurrence: %s every %d %s %s until %d except %s", first, interval,
+        frequency, days, until, Arrays.toString(exceptions));
+  }
+
+  /** Steps through the days of the rule that can overlap a window. */
+  private final class OccurrenceIterator implements Iterator<TimeRange> {
+    private final TimeRange window;
+    // The minutes from the start of a day to the start of each occurrence on it.
+    private final int timeOfDay = Math.floorMod(first.start(), TimeRange.MINUTES_IN_DAY);
+    private int day;
+    private TimeRange next;
+
+    OccurrenceIterator(TimeRange window) {
+      this.window = window;
+      // The last day whose occurrence ends before the window starts; the day after it is the
+      // first that can overlap the window.
+      int lastDayBefore = Math.floorDiv(
+          window.start() - timeOfDay - first.duration(), TimeRange.MINUTES_IN_DAY);
+      day = alignToRule(lastDayBefore);
+      next = findNext();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public TimeRange next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      TimeRange occurrence = next;
+      next = findNext();
+      return occurrence;
+    }
+
+    private TimeRange findNext() {
+      while (true) {
+        int start = day * TimeRange.MINUTES_IN_DAY + timeOfDay;
+        if (start >= window.end() || start >= until) {
+          return null;
+        }
+        boolean occurs = occursOn(day);
+        day = alignToRule(day + 1);
+
+        if (occurs && overlapsWindow(start) && Arrays.binarySearch(exceptions, start) < 0) {
+          return TimeRange.fromStartDuration(start, first.duration());
+        }
+      }
+    }
+
+    private boolean overlapsWindow(int start) {
+      if (first.duration() == 0) {
+        return start >= window.start();
+      }
+      return start + first.duration() > window.start();
+    }
+  }
+}
@@ -0,0 +1,78 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A series of meetings of the same group of people, repeating by a {@link Recurrence}. Unlike
+ * {@link Event}, a recurring event stands for any number of meetings without storing them.
+ * Recurring events are considered read-only.
+ */
+public final class RecurringEvent {
+  private final String title;
+  private final Recurrence recurrence;
+  private final Set<String> attendees = new HashSet<>();
+  private final Set<String> readOnlyAttendees = Collections.unmodifiableSet(attendees);
+
+  /**
+   * Creates a new recurring event.
+   *
+   * @param title The human-readable name for the event. Must be non-null.
+   * @param recurrence When the event takes place. Must be non-null.
+   * @param attendees The collection of people attending the event. Must be non-null.
+   */
+  public RecurringEvent(String title, Recurrence recurrence, Collection<String> attendees) {
+    if (title == null) {
+      throw new IllegalArgumentException("title cannot be null");
+    }
+
+    if (recurrence == null) {
+      throw new IllegalArgumentException("recurrence cannot be null");
+    }
+
+    if (attendees == null) {
+      throw new IllegalArgumentException("attendees cannot be null. Use empty array instead.");
+    }
+
+    this.title = title;
+    this.recurrence = recurrence;
+    this.attendees.addAll(attendees);
+  }
+
+  /**
+   * Returns the human-readable name for this event.
+   */
+  public String getTitle() {
+    return title;
+  }
+
+  /**
+   * Returns the rule for when this event takes place.
+   */
+  public Recurrence getRecurrence() {
+    return recurrence;
+  }
+
+  /**
+   * Returns a read-only set of required attendees for this event.
+   */
+  public Set<String> getAttendees() {
+    return readOnlyAttendees;
+  }
+}
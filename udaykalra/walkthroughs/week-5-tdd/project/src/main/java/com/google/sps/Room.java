@@ -0,0 +1,99 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A room, or any other bookable resource, that meetings can take place in. A room is booked by
+ * listing its name among the attendees of an {@link Event}, so its bookings live alongside
+ * everyone else's. Rooms are considered read-only.
+ */
+public final class Room {
+  private final String name;
+  private final int capacity;
+  private final Set<String> equipment = new HashSet<>();
+
+  /**
+   * Creates a new room.
+   *
+   * @param name The name the room is booked under. Must be non-null.
+   * @param capacity The number of people the room holds. Must not be negative.
+   * @param equipment The equipment the room has, such as a projector. Must be non-null.
+   */
+  public Room(String name, int capacity, Collection<String> equipment) {
+    if (name == null) {
+      throw new IllegalArgumentException("name cannot be null");
+    }
+
+    if (capacity < 0) {
+      throw new IllegalArgumentException("capacity cannot be negative");
+    }
+
+    if (equipment == null) {
+      throw new IllegalArgumentException("equipment cannot be null. Use empty array instead.");
+    }
+
+    this.name = name;
+    this.capacity = capacity;
+    this.equipment.addAll(equipment);
+  }
+
+  /**
+   * Returns the name the room is booked under.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the number of people the room holds.
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Returns a read-only set of the equipment the room has.
+   */
+  public Set<String> getEquipment() {
+    return Collections.unmodifiableSet(equipment);
+  }
+
+  /**
+   * Returns whether the room holds {@code people} people and has all of {@code neededEquipment}.
+   */
+  public boolean suits(int people, Collection<String> neededEquipment) {
+    return capacity >= people && equipment.containsAll(neededEquipment);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof Room && name.equals(((Room) other).name);
+  }
+
+  @Override
+  public int hashCode() {
+    return name.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Room: %s (%d)", name, capacity);
+  }
+}
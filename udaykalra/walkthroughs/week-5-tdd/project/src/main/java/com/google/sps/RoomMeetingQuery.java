@@ -0,0 +1,172 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import com.google.sps.SweepLineMeetingQuery.BusyIntervals;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds times for a meeting together with a room to hold it in. Rooms are booked as attendees of
+ * events, so a single pass over the events sorts each one into the busy time of the required
+ * attendees, the optional attendees and every suitable room it books. The attendees' free ranges
+ * are then intersected with each room's, rather than querying once per room.
+ *
+ * <p>A room suits the meeting if it holds everyone being scheduled and has all of the requested
+ * equipment. Like {@link FindMeetingQuery}, optional attendees are included if there is any time
+ * and room that works for them, and otherwise only the required attendees are considered, which
+ * may also let smaller rooms in.
+ */
+public final class RoomMeetingQuery {
+  /** Orders slots by start time, then end time, so that slots for the same time are together. */
+  private static final Comparator<RoomSlot> ORDER_BY_START_THEN_END =
+      Comparator.comparing(RoomSlot::getWhen, TimeRange.ORDER_BY_START)
+          .thenComparing(RoomSlot::getWhen, TimeRange.ORDER_BY_END);
+
+  private final List<Room> rooms;
+
+  /**
+   * Creates a query over {@code rooms}.
+   *
+   * @param rooms The rooms to hold meetings in, in order of preference. Must be non-null.
+   */
+  public RoomMeetingQuery(Collection<Room> rooms) {
+    if (rooms == null) {
+      throw new IllegalArgumentException("rooms cannot be null. Use empty array instead.");
+    }
+
+    this.rooms = new ArrayList<>(rooms);
+  }
+
+  /**
+   * Returns the times the meeting can take place, each with a suitable room that is free for all
+   * of it, ordered by start time and then end time. Where several rooms are free for exactly the
+   * same time only the most preferred one is given, but a less preferred room that is free for
+   * longer is given as well, so that the preferred room is never hidden by a bigger one.
+   */
+  public List<RoomSlot> query(
+      Collection<Event> events, MeetingRequest request, Collection<String> equipment) {
+    Collection<String> attendees = request.getAttendees();
+    Collection<String> optionalAttendees = request.getOptionalAttendees();
+    int everyone = attendees.size() + optionalAttendees.size();
+
+    // The rooms big enough for the required attendees, by name; the ones that also hold the
+    // optional attendees are a subset of them.
+    Map<String, Integer> roomIndex = new HashMap<>();
+    List<Room> candidates = new ArrayList<>();
+    for (Room room : rooms) {
+      if (room.suits(attendees.size(), equipment) && !roomIndex.containsKey(room.getName())) {
+        roomIndex.put(room.getName(), candidates.size());
+        candidates.add(room);
+      }
+    }
+
+    BusyIntervals requiredBusy = new BusyIntervals(events.size());
+    BusyIntervals optionalBusy = new BusyIntervals(0);
+    List<BusyIntervals> roomBusy = new ArrayList<>(candidates.size());
+    for (int i = 0; i < candidates.size(); i++) {
+      roomBusy.add(new BusyIntervals(0));
+    }
+    for (Event event : events) {
+      Set<String> eventAttendees = event.getAttendees();
+      if (!Collections.disjoint(attendees, eventAttendees)) {
+        requiredBusy.add(event.getWhen());
+      } else if (!Collections.disjoint(optionalAttendees, eventAttendees)) {
+        optionalBusy.add(event.getWhen());
+      }
+      if (!roomIndex.isEmpty()) {
+        for (String attendee : eventAttendees) {
+          Integer room = roomIndex.get(attendee);
+          if (room != null) {
+            roomBusy.get(room).add(event.getWhen());
+          }
+        }
+      }
+    }
+
+    List<RoomSlot> withOptionalAttendees = slots(
+        requiredBusy.concat(optionalBusy), candidates, roomBusy, everyone, equipment, request);
+    if (!withOptionalAttendees.isEmpty() || attendees.isEmpty()) {
+      return withOptionalAttendees;
+    }
+    return slots(requiredBusy, candidates, roomBusy, attendees.size(), equipment, request);
+  }
+
+  /**
+   * Returns the times that the attendees with {@code attendeeBusy} can meet in the candidate rooms
+   * that hold {@code people} people, giving each time range only with the first room free for it.
+   */
+  private static List<RoomSlot> slots(BusyIntervals attendeeBusy, List<Room> candidates,
+      List<BusyIntervals> roomBusy, int people, Collection<String> equipment,
+      MeetingRequest request) {
+    TimeRange window = request.getWindow();
+    long duration = request.getDuration();
+    List<TimeRange> attendeesFree = attendeeBusy.freeRanges(window, duration);
+
+    List<RoomSlot> slots = new ArrayList<>();
+    for (int i = 0; i < candidates.size() && !attendeesFree.isEmpty(); i++) {
+      Room room = candidates.get(i);
+      if (!room.suits(people, equipment)) {
+        continue;
+      }
+      List<TimeRange> roomFree = roomBusy.get(i).freeRanges(window, duration);
+      for (TimeRange when : intersect(attendeesFree, roomFree, duration)) {
+        slots.add(new RoomSlot(when, room));
+      }
+    }
+
+    // The sort is stable, so among slots for the same time the preferred room comes first and
+    // the others are dropped as repeats of it.
+    Collections.sort(slots, ORDER_BY_START_THEN_END);
+    List<RoomSlot> kept = new ArrayList<>();
+    TimeRange keptWhen = null;
+    for (RoomSlot slot : slots) {
+      if (!slot.getWhen().equals(keptWhen)) {
+        kept.add(slot);
+        keptWhen = slot.getWhen();
+      }
+    }
+    return kept;
+  }
+
+  /**
+   * Returns the overlaps of two lists of sorted, disjoint ranges that are at least
+   * {@code duration} minutes long.
+   */
+  private static List<TimeRange> intersect(List<TimeRange> a, List<TimeRange> b, long duration) {
+    List<TimeRange> overlaps = new ArrayList<>();
+    int i = 0;
+    int j = 0;
+    while (i < a.size() && j < b.size()) {
+      int start = Math.max(a.get(i).start(), b.get(j).start());
+      int end = Math.min(a.get(i).end(), b.get(j).end());
+      if (end > start && end - start >= duration) {
+        overlaps.add(TimeRange.fromStartEnd(start, end, false));
+      }
+      if (a.get(i).end() < b.get(j).end()) {
+        i++;
+      } else {
+        j++;
+      }
+    }
+    return overlaps;
+  }
+}
@@ -0,0 +1,78 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Objects;
+
+/**
+ * A time that works for a meeting together with the room it can take place in. Room slots are
+ * considered read-only.
+ */
+public final class RoomSlot {
+  private final TimeRange when;
+  private final Room room;
+
+  /**
+   * Creates a new room slot.
+   *
+   * @param when The time of the slot. Must be non-null.
+   * @param room The room that is free for the whole slot. Must be non-null.
+   */
+  public RoomSlot(TimeRange when, Room room) {
+    if (when == null) {
+      throw new IllegalArgumentException("when cannot be null");
+    }
+
+    if (room == null) {
+      throw new IllegalArgumentException("room cannot be null");
+    }
+
+    this.when = when;
+    this.room = room;
+  }
+
+  /**
+   * Returns the {@code TimeRange} of the slot.
+   */
+  public TimeRange getWhen() {
+    return when;
+  }
+
+  /**
+   * Returns the room that is free for the whole slot.
+   */
+  public Room getRoom() {
+    return room;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (!(other instanceof RoomSlot)) {
+      return false;
+    }
+    RoomSlot slot = (RoomSlot) other;
+    return when.equals(slot.when) && room.equals(slot.room);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(when, room);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("RoomSlot: %s in %s", when, room.getName());
+  }
+}
@@ -0,0 +1,236 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * An {@link EventStore} that keeps its events in immutable snapshots, so that readers never wait
+ * for writers or for each other. Every change builds a new snapshot from the current one and
+ * publishes it with a compare-and-set, retrying if another writer got there first; readers just
+ * read the current snapshot. Writes copy the event array and the lists of the attendees they touch,
+ * so they cost time linear in the number of events, which suits a calendar that is read far more
+ * often than it is written.
+ *
+ * <p>Each call of the {@link EventStore} methods reads the snapshot current at the time. A reader
+ * that makes several calls and needs them to agree, such as a query that reads the version and
+ * then the events, should take a {@link #snapshot} and read from that instead.
+ */
+public final class SnapshotEventStore implements EventStore {
+  private final AtomicReference<Snapshot> current;
+
+  /** Creates an empty store. */
+  public SnapshotEventStore() {
+    this(Collections.emptyList());
+  }
+
+  /** Creates a store containing all of {@code events}. */
+  public SnapshotEventStore(Collection<Event> events) {
+    current = new AtomicReference<>(Snapshot.of(events.toArray(new Event[0]), 0));
+  }
+
+  /** Returns the current events, which no later change will affect. */
+  public Snapshot snapshot() {
+    return current.get();
+  }
+
+  @Override
+  public void add(Event event) {
+    if (event == null) {
+      throw new IllegalArgumentException("event cannot be null");
+    }
+    current.updateAndGet(snapshot -> snapshot.with(event));
+  }
+
+  /**
+   * Removes one event equal to {@code event}, if there is one.
+   *
+   * @return whether an event was removed
+   */
+  public boolean remove(Event event) {
+    while (true) {
+      Snapshot snapshot = current.get();
+      Snapshot updated = snapshot.without(event);
+      if (updated == snapshot) {
+        return false;
+      }
+      if (current.compareAndSet(snapshot, updated)) {
+        return true;
+      }
+    }
+  }
+
+  @Override
+  public Collection<Event> getAllEvents() {
+    return snapshot().getAllEvents();
+  }
+
+  @Override
+  public Collection<Event> getEvents(TimeRange window) {
+    return snapshot().getEvents(window);
+  }
+
+  @Override
+  public Collection<Event> getEvents(Collection<String> attendees, TimeRange window) {
+    return snapshot().getEvents(attendees, window);
+  }
+
+  @Override
+  public int size() {
+    return snapshot().size();
+  }
+
+  @Override
+  public long getVersion() {
+    return snapshot().getVersion();
+  }
+
+  /**
+   * The events of a {@link SnapshotEventStore} at one version. A snapshot never changes, so it can
+   * be read from any number of threads without locking.
+   */
+  public static final class Snapshot {
+    private final Event[] events;
+    private final Map<String, Event[]> eventsByAttendee;
+    private final long version;
+    // Built on the first query by time alone. Two threads may both build it, which is harmless.
+    private volatile TimeRangeIndex<Event> timeIndex;
+
+    private Snapshot(Event[] events, Map<String, Event[]> eventsByAttendee, long version) {
+      this.events = events;
+      this.eventsByAttendee = eventsByAttendee;
+      this.version = version;
+    }
+
+    static Snapshot of(Event[] events, long version) {
+      Map<String, List<Event>> lists = new HashMap<>();
+      for (Event event : events) {
+        for (String attendee : event.getAttendees()) {
+          lists.computeIfAbsent(attendee, key -> new ArrayList<>()).add(event);
+        }
+      }
+      Map<String, Event[]> eventsByAttendee = new HashMap<>();
+      for (Map.Entry<String, List<Event>> entry : lists.entrySet()) {
+        eventsByAttendee.put(entry.getKey(), entry.getValue().toArray(new Event[0]));
+      }
+      return new Snapshot(events, eventsByAttendee, version);
+    }
+
+    /** Returns every event, in the order they were added. */
+    public Collection<Event> getAllEvents() {
+      return Collections.unmodifiableList(Arrays.asList(events));
+    }
+
+    /** Returns the events that overlap {@code window}. */
+    public Collection<Event> getEvents(TimeRange window) {
+      TimeRangeIndex<Event> index = timeIndex;
+      if (index == null) {
+        index = TimeRangeIndex.ofEvents(Arrays.asList(events));
+        timeIndex = index;
+      }
+      return index.overlapping(window);
+    }
+
+    /** Returns the events that overlap {@code window} and involve any of {@code attendees}. */
+    public Collection<Event> getEvents(Collection<String> attendees, TimeRange window) {
+      // An event with several of the attendees is in several of their arrays, but is returned once.
+      Set<Event> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+      List<Event> matches = new ArrayList<>();
+      for (String attendee : attendees) {
+        Event[] attendeeEvents = eventsByAttendee.get(attendee);
+        if (attendeeEvents == null) {
+          continue;
+        }
+        for (Event event : attendeeEvents) {
+          if (window.overlaps(event.getWhen()) && seen.add(event)) {
+            matches.add(event);
+          }
+        }
+      }
+      return matches;
+    }
+
+    /** Returns the number of events. */
+    public int size() {
+      return events.length;
+    }
+
+    /** Returns the version of the events, which is one higher for each change since creation. */
+    public long getVersion() {
+      return version;
+    }
+
+    /** Returns a snapshot with {@code event} added after the others. */
+    Snapshot with(Event event) {
+      Event[] newEvents = Arrays.copyOf(events, events.length + 1);
+      newEvents[events.length] = event;
+
+      Map<String, Event[]> newEventsByAttendee = new HashMap<>(eventsByAttendee);
+      for (String attendee : event.getAttendees()) {
+        Event[] attendeeEvents = newEventsByAttendee.get(attendee);
+        if (attendeeEvents == null) {
+          newEventsByAttendee.put(attendee, new Event[] {event});
+        } else {
+          Event[] newAttendeeEvents = Arrays.copyOf(attendeeEvents, attendeeEvents.length + 1);
+          newAttendeeEvents[attendeeEvents.length] = event;
+          newEventsByAttendee.put(attendee, newAttendeeEvents);
+        }
+      }
+      return new Snapshot(newEvents, newEventsByAttendee, version + 1);
+    }
+
+    /** Returns a snapshot without the first event equal to {@code event}, or this if none is. */
+    Snapshot without(Event event) {
+      int index = Arrays.asList(events).indexOf(event);
+      if (index < 0) {
+        return this;
+      }
+      // Removes the stored instance, which may be a different object from the one given.
+      Event removed = events[index];
+
+      Map<String, Event[]> newEventsByAttendee = new HashMap<>(eventsByAttendee);
+      for (String attendee : removed.getAttendees()) {
+        Event[] attendeeEvents = removeInstance(newEventsByAttendee.get(attendee), removed);
+        if (attendeeEvents.length == 0) {
+          newEventsByAttendee.remove(attendee);
+        } else {
+          newEventsByAttendee.put(attendee, attendeeEvents);
+        }
+      }
+      return new Snapshot(removeInstance(events, removed), newEventsByAttendee, version + 1);
+    }
+
+    /** Returns a copy of {@code array} without the first element that is {@code instance}. */
+    private static Event[] removeInstance(Event[] array, Event instance) {
+      int index = 0;
+      while (array[index] != instance) {
+        index++;
+      }
+      Event[] removed = new Event[array.length - 1];
+      System.arraycopy(array, 0, removed, 0, index);
+      System.arraycopy(array, index + 1, removed, index, array.length - index - 1);
+      return removed;
+    }
+  }
+}
@@ -0,0 +1,251 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Finds available meeting times by sorting the endpoints of every busy event once and sweeping
+ * across the request's search window a single time, emitting the gaps where nobody is busy. This
+ * runs in O(n log n) in the number of relevant events, unlike {@link FindMeetingQuery} which cuts
+ * every available range by every busy event.
+ */
+public final class SweepLineMeetingQuery implements MeetingQuery {
+  /**
+   * Returns the available meeting times for the request. Optional attendees are included if there
+   * is at least one time that works for them, otherwise only the required attendees are
+   * considered.
+   */
+  @Override
+  public Collection<TimeRange> query(Collection<Event> events, MeetingRequest request) {
+    return query(events, Collections.emptyList(), request);
+  }
+
+  /**
+   * Returns the available meeting times for the request, counting both {@code events} and the
+   * occurrences of {@code recurringEvents} as busy. Only the occurrences overlapping the request's
+   * window are generated, and they are recorded as busy intervals without creating an event for
+   * each.
+   */
+  public Collection<TimeRange> query(Collection<Event> events,
+      Collection<RecurringEvent> recurringEvents, MeetingRequest request) {
+    Collection<String> attendees = request.getAttendees();
+    Collection<String> optionalAttendees = request.getOptionalAttendees();
+    TimeRange window = request.getWindow();
+
+    // Sort the busy time of relevant events into the two tiers of attendees. An event with any
+    // required attendee only has to be recorded in the required tier.
+    BusyIntervals requiredBusy = new BusyIntervals(events.size());
+    BusyIntervals optionalBusy = new BusyIntervals(events.size());
+    for (Event event : events) {
+      Set<String> eventAttendees = event.getAttendees();
+      if (!Collections.disjoint(attendees, eventAttendees)) {
+        requiredBusy.add(event.getWhen());
+      } else if (!Collections.disjoint(optionalAttendees, eventAttendees)) {
+        optionalBusy.add(event.getWhen());
+      }
+    }
+    for (RecurringEvent event : recurringEvents) {
+      Set<String> eventAttendees = event.getAttendees();
+      BusyIntervals busy;
+      if (!Collections.disjoint(attendees, eventAttendees)) {
+        busy = requiredBusy;
+      } else if (!Collections.disjoint(optionalAttendees, eventAttendees)) {
+        busy = optionalBusy;
+      } else {
+        continue;
+      }
+      for (Iterator<TimeRange> it = event.getRecurrence().occurrences(window); it.hasNext(); ) {
+        busy.add(it.next());
+      }
+    }
+    return query(requiredBusy, optionalBusy, request);
+  }
+
+  /**
+   * Returns the available meeting times for the request over the events in {@code store}. The
+   * requested attendees are looked up in the store's registry once, so sorting each event into a
+   * tier takes a few bit lookups rather than hashing its attendees' names.
+   */
+  public Collection<TimeRange> query(CompactEventStore store, MeetingRequest request) {
+    AttendeeRegistry registry = store.getRegistry();
+    BitSet attendees = registry.toBitSet(request.getAttendees());
+    BitSet optionalAttendees = registry.toBitSet(request.getOptionalAttendees());
+
+    BusyIntervals requiredBusy = new BusyIntervals(store.size());
+    BusyIntervals optionalBusy = new BusyIntervals(0);
+    for (int i = 0; i < store.size(); i++) {
+      if (store.involvesAny(i, attendees)) {
+        requiredBusy.add(store.start(i), store.end(i));
+      } else if (store.involvesAny(i, optionalAttendees)) {
+        optionalBusy.add(store.start(i), store.end(i));
+      }
+    }
+    return query(requiredBusy, optionalBusy, request);
+  }
+
+  /**
+   * Returns the available meeting times for the request, reading the busy times of only the
+   * requested attendees from {@code index} instead of scanning every event.
+   */
+  public Collection<TimeRange> query(EventIndex index, MeetingRequest request) {
+    return query(index::getBusyRanges, request);
+  }
+
+  /**
+   * Returns the available meeting times for the request, reading the merged busy times of the
+   * requested attendees from {@code cache}.
+   */
+  public Collection<TimeRange> query(BusyTimeCache cache, MeetingRequest request) {
+    return query(cache::getMergedBusyRanges, request);
+  }
+
+  /**
+   * Returns the available meeting times for the request, given a function returning the busy
+   * times of an attendee. The busy times only need to cover the request's search window.
+   */
+  static Collection<TimeRange> query(
+      Function<String, List<TimeRange>> busyRangesOf, MeetingRequest request) {
+    BusyIntervals requiredBusy = new BusyIntervals(0);
+    for (String attendee : request.getAttendees()) {
+      for (TimeRange range : busyRangesOf.apply(attendee)) {
+        requiredBusy.add(range);
+      }
+    }
+
+    BusyIntervals optionalBusy = new BusyIntervals(0);
+    for (String attendee : request.getOptionalAttendees()) {
+      for (TimeRange range : busyRangesOf.apply(attendee)) {
+        optionalBusy.add(range);
+      }
+    }
+    return query(requiredBusy, optionalBusy, request);
+  }
+
+  private static Collection<TimeRange> query(
+      BusyIntervals requiredBusy, BusyIntervals optionalBusy, MeetingRequest request) {
+    BusyIntervals allBusy = requiredBusy.concat(optionalBusy);
+    List<TimeRange> withOptionalAttendees =
+        allBusy.freeRanges(request.getWindow(), request.getDuration());
+
+    // Only fall back to the required attendees if there are some to schedule around.
+    if (!withOptionalAttendees.isEmpty() || request.getAttendees().isEmpty()) {
+      return withOptionalAttendees;
+    }
+    return requiredBusy.freeRanges(request.getWindow(), request.getDuration());
+  }
+
+  /**
+   * The start and end points of a set of busy time ranges, kept in two parallel primitive arrays so
+   * that they can be sorted independently without allocating an object per endpoint.
+   */
+  static final class BusyIntervals {
+    private int[] starts;
+    private int[] ends;
+    private int size = 0;
+
+    BusyIntervals(int capacity) {
+      starts = new int[capacity];
+      ends = new int[capacity];
+    }
+
+    /** Records {@code range} as busy. */
+    void add(TimeRange range) {
+      add(range.start(), range.end());
+    }
+
+    /** Records the range from {@code start} (inclusive) to {@code end} (exclusive) as busy. */
+    void add(int start, int end) {
+      if (size == starts.length) {
+        int capacity = Math.max(8, size * 2);
+        starts = Arrays.copyOf(starts, capacity);
+        ends = Arrays.copyOf(ends, capacity);
+      }
+      starts[size] = start;
+      ends[size] = end;
+      size++;
+    }
+
+    /** Returns a new set of busy intervals containing the intervals of both this and other. */
+    BusyIntervals concat(BusyIntervals other) {
+      BusyIntervals combined = new BusyIntervals(size + other.size);
+      System.arraycopy(starts, 0, combined.starts, 0, size);
+      System.arraycopy(other.starts, 0, combined.starts, size, other.size);
+      System.arraycopy(ends, 0, combined.ends, 0, size);
+      System.arraycopy(other.ends, 0, combined.ends, size, other.size);
+      combined.size = size + other.size;
+      return combined;
+    }
+
+    /**
+     * Returns the ranges of {@code window}, ordered by start time, that no busy interval covers
+     * and that are at least {@code duration} minutes long. The window may span many days, in which
+     * case free time running across midnight is returned as a single range.
+     */
+    List<TimeRange> freeRanges(TimeRange window, long duration) {
+      Arrays.sort(starts, 0, size);
+      Arrays.sort(ends, 0, size);
+
+      List<TimeRange> free = new ArrayList<>();
+      int freeStart = window.start();
+      int depth = 0;
+      int nextEnd = 0;
+
+      // Walk the sorted starts, closing intervals whose end comes before the next start. Starts win
+      // ties with ends so that back-to-back events don't leave an empty gap between them.
+      for (int nextStart = 0; nextStart < size && starts[nextStart] < window.end(); nextStart++) {
+        int start = starts[nextStart];
+        while (ends[nextEnd] < start) {
+          depth--;
+          if (depth == 0) {
+            freeStart = Math.max(freeStart, ends[nextEnd]);
+          }
+          nextEnd++;
+        }
+
+        if (depth == 0) {
+          addIfLongEnough(free, freeStart, start, duration);
+        }
+        depth++;
+      }
+
+      // Once every interval in the window has started, the window is free again after the open
+      // intervals end. Intervals starting after the window also end after it, so the remaining
+      // ends inside the window all belong to open intervals.
+      for (; depth > 0 && nextEnd < size && ends[nextEnd] < window.end(); nextEnd++) {
+        depth--;
+        freeStart = Math.max(freeStart, ends[nextEnd]);
+      }
+      if (depth == 0) {
+        addIfLongEnough(free, freeStart, window.end(), duration);
+      }
+      return free;
+    }
+
+    private static void addIfLongEnough(List<TimeRange> free, int start, int end, long duration) {
+      if (end > start && end - start >= duration) {
+        free.add(TimeRange.fromStartEnd(start, end, false));
+      }
+    }
+  }
+}
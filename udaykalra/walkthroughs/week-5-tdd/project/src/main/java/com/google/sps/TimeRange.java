@@ -21,10 +21,12 @@ import java.util.Comparator;
  * providing methods to make ranges easier to work with (e.g. {@code overlaps}).
  */
 public final class TimeRange {
+  public static final int MINUTES_IN_DAY = 24 * 60;
+
   public static final int START_OF_DAY = getTimeInMinutes(0, 0);
   public static final int END_OF_DAY = getTimeInMinutes(23, 59);
 
-  public static final TimeRange WHOLE_DAY = new TimeRange(0, 24 * 60);
+  public static final TimeRange WHOLE_DAY = new TimeRange(0, MINUTES_IN_DAY);
 
   /**
    * A comparator for sorting ranges by their start time in ascending order.
@@ -168,6 +170,27 @@ public final class TimeRange {
     return (hours * 60) + minutes;
   }
 
+  /**
+   * Returns the time in minutes since the epoch of {@code hours}:{@code minutes} on {@code day},
+   * where {@code day} is the number of days since the epoch. Day 0 is the single day that the
+   * other methods of this class refer to.
+   */
+  public static int getTimeInMinutes(int day, int hours, int minutes) {
+    if (day < 0) {
+      throw new IllegalArgumentException("Day cannot be before the epoch.");
+    }
+
+    return (day * MINUTES_IN_DAY) + getTimeInMinutes(hours, minutes);
+  }
+
+  /**
+   * Returns the day, counted from the epoch, that the time {@code minutes} since the epoch falls
+   * on.
+   */
+  public static int getDay(int minutes) {
+    return Math.floorDiv(minutes, MINUTES_IN_DAY);
+  }
+
   /**
    * Creates a {@code TimeRange} from {@code start} to {@code end}. Whether or not {@code end} is
    * included in the range will depend on {@code inclusive}. If {@code inclusive} is {@code true},
@@ -183,4 +206,12 @@ public final class TimeRange {
   public static TimeRange fromStartDuration(int start, int duration) {
     return new TimeRange(start, duration);
   }
+
+  /**
+   * Creates a {@code TimeRange} covering {@code days} whole days, starting at the beginning of
+   * {@code firstDay} (counted from the epoch).
+   */
+  public static TimeRange fromDays(int firstDay, int days) {
+    return new TimeRange(firstDay * MINUTES_IN_DAY, days * MINUTES_IN_DAY);
+  }
 }
@@ -0,0 +1,126 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A read-only index of items by the time range they take up, answering which items overlap a
+ * range or contain a minute in O(log n + k) for k matches rather than by checking every item.
+ *
+ * <p>The index is an augmented interval tree laid out implicitly over the items sorted by start
+ * time: the root of each subarray is its middle item, and each node records the latest end in its
+ * subtree. A query skips a subtree when every item in it ends too early, and skips a node and its
+ * right subtree when the node starts too late. Overlap follows {@link TimeRange#overlaps}, so
+ * zero-duration ranges are handled the same way as everywhere else.
+ */
+public final class TimeRangeIndex<T> {
+  private final List<T> items;
+  private final int[] starts;
+  private final int[] ends;
+  // the latest end of any item in the subtree rooted at each position
+  private final int[] maxEnds;
+
+  /**
+   * Creates an index of {@code items}.
+   *
+   * @param items The items to index. Must be non-null.
+   * @param timeOf Returns the time range of an item. Must be non-null.
+   */
+  public TimeRangeIndex(Collection<T> items, Function<? super T, TimeRange> timeOf) {
+    List<T> sorted = new ArrayList<>(items);
+    Collections.sort(sorted, Comparator.comparing(timeOf, TimeRange.ORDER_BY_START));
+
+    this.items = Collections.unmodifiableList(sorted);
+    starts = new int[sorted.size()];
+    ends = new int[sorted.size()];
+    for (int i = 0; i < sorted.size(); i++) {
+      TimeRange when = timeOf.apply(sorted.get(i));
+      starts[i] = when.start();
+      ends[i] = when.end();
+    }
+    maxEnds = new int[sorted.size()];
+    computeMaxEnds(0, sorted.size());
+  }
+
+  /** Returns an index of {@code events} by when they take place. */
+  public static TimeRangeIndex<Event> ofEvents(Collection<Event> events) {
+    return new TimeRangeIndex<>(events, Event::getWhen);
+  }
+
+  /** Returns the number of items in the index. */
+  public int size() {
+    return items.size();
+  }
+
+  /** Returns the items that overlap {@code range}, sorted by start time. */
+  public List<T> overlapping(TimeRange range) {
+    List<T> matches = new ArrayList<>();
+    int start = range.start();
+    int end = range.end();
+    // Only items starting at or before this minute can overlap the range.
+    int lastStart = start == end ? start : end - 1;
+    collect(0, items.size(), start, end, lastStart, matches);
+    return matches;
+  }
+
+  /** Returns the items whose time range contains {@code minute}, sorted by start time. */
+  public List<T> containing(int minute) {
+    return overlapping(TimeRange.fromStartDuration(minute, 0));
+  }
+
+  private int computeMaxEnds(int low, int high) {
+    if (low >= high) {
+      return Integer.MIN_VALUE;
+    }
+    int middle = (low + high) >>> 1;
+    int maxEnd = Math.max(ends[middle],
+        Math.max(computeMaxEnds(low, middle), computeMaxEnds(middle + 1, high)));
+    maxEnds[middle] = maxEnd;
+    return maxEnd;
+  }
+
+  /** Adds the items of the subtree over [low, high) that overlap [start, end), in order. */
+  private void collect(int low, int high, int start, int end, int lastStart, List<T> matches) {
+    if (low >= high) {
+      return;
+    }
+    int middle = (low + high) >>> 1;
+    // Every item in this subtree ends before the range starts.
+    if (maxEnds[middle] < start) {
+      return;
+    }
+
+    collect(low, middle, start, end, lastStart, matches);
+    // This item and everything after it start after the range.
+    if (starts[middle] > lastStart) {
+      return;
+    }
+    if (overlaps(starts[middle], ends[middle], start, end)) {
+      matches.add(items.get(middle));
+    }
+    collect(middle + 1, high, start, end, lastStart, matches);
+  }
+
+  /** Returns whether [start, end) and [otherStart, otherEnd) overlap, like TimeRange does. */
+  private static boolean overlaps(int start, int end, int otherStart, int otherEnd) {
+    return (start <= otherStart && otherStart < end) || (otherStart <= start && start < otherEnd);
+  }
+}
@@ -0,0 +1,169 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The hours an attendee works, in their own time zone, such as 9:00 to 17:00 on weekdays in
+ * Europe/London. Times in the scheduler are minutes since midnight UTC on 1 January 1970, so a
+ * profile is what maps them back onto the attendee's local day.
+ *
+ * <p>A profile is compiled into an availability mask for a search window, with one bit set for
+ * each minute of the window that falls in working hours, laid out like the bitmaps of
+ * {@link MinuteBitmapMeetingQuery}. Restricting a query to working hours is then one AND per word
+ * of the bitmap. The mask of the last window compiled is kept, since most requests search the
+ * same window. Working hours are considered read-only.
+ */
+public final class WorkingHours {
+  /** The days from Monday to Friday. */
+  public static final Set<DayOfWeek> WEEKDAYS = Collections.unmodifiableSet(
+      EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY));
+
+  private static final int BITS_PER_WORD = Long.SIZE;
+
+  private final ZoneId zone;
+  private final LocalTime start;
+  private final LocalTime end;
+  private final Set<DayOfWeek> days;
+
+  /** The last mask compiled, read and replaced as a whole so that it needs no locking. */
+  private volatile CompiledMask lastMask;
+
+  /**
+   * Creates a working hours profile.
+   *
+   * @param zone The attendee's time zone. Must be non-null.
+   * @param start The local time the working day starts. Must be non-null.
+   * @param end The local time the working day ends. Must be non-null and after {@code start}.
+   * @param days The days of the week the attendee works. Must be non-null.
+   */
+  public WorkingHours(ZoneId zone, LocalTime start, LocalTime end, Collection<DayOfWeek> days) {
+    if (zone == null) {
+      throw new IllegalArgumentException("zone cannot be null");
+    }
+
+    if (start == null || end == null || !end.isAfter(start)) {
+      throw new IllegalArgumentException("end must come after start");
+    }
+
+    if (days == null) {
+      throw new IllegalArgumentException("days cannot be null");
+    }
+
+    this.zone = zone;
+    this.start = start;
+    this.end = end;
+    this.days = days.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(days);
+  }
+
+  /** Returns the attendee's time zone. */
+  public ZoneId getZone() {
+    return zone;
+  }
+
+  /** Returns the local time the working day starts. */
+  public LocalTime getStart() {
+    return start;
+  }
+
+  /** Returns the local time the working day ends. */
+  public LocalTime getEnd() {
+    return end;
+  }
+
+  /** Returns a read-only view of the days of the week the attendee works. */
+  public Set<DayOfWeek> getDays() {
+    return Collections.unmodifiableSet(days);
+  }
+
+  /**
+   * Returns the availability mask of {@code window}: bit {@code i} is set if minute
+   * {@code window.start() + i} falls in working hours. The returned array must not be modified.
+   */
+  public long[] availabilityMask(TimeRange window) {
+    CompiledMask mask = lastMask;
+    if (mask == null || !mask.window.equals(window)) {
+      mask = new CompiledMask(window, compile(window));
+      lastMask = mask;
+    }
+    return mask.words;
+  }
+
+  /** Sets the bits of each working day overlapping {@code window}, a day at a time. */
+  private long[] compile(TimeRange window) {
+    long[] words = new long[MinuteBitmapMeetingQuery.wordsFor(window)];
+
+    // Start a day early, since the first local day may begin before the window does in UTC.
+    LocalDate day = toZoned(window.start()).toLocalDate().minusDays(1);
+    while (true) {
+      int dayStart = toMinutes(day.atTime(start).atZone(zone));
+      if (dayStart >= window.end()) {
+        break;
+      }
+      if (days.contains(day.getDayOfWeek())) {
+        setRange(words, window, dayStart, toMinutes(day.atTime(end).atZone(zone)));
+      }
+      day = day.plusDays(1);
+    }
+    return words;
+  }
+
+  /** Returns the time, in this profile's zone, of {@code minutes} since the epoch. */
+  private ZonedDateTime toZoned(int minutes) {
+    return Instant.ofEpochSecond(minutes * 60L).atZone(zone);
+  }
+
+  private static int toMinutes(ZonedDateTime time) {
+    return (int) Math.floorDiv(time.toEpochSecond(), 60);
+  }
+
+  /** Sets the bits for the minutes from {@code from} to {@code to} that fall in the window. */
+  private static void setRange(long[] words, TimeRange window, int from, int to) {
+    int first = Math.max(from, window.start()) - window.start();
+    int last = Math.min(to, window.end()) - window.start();
+    for (int minute = first; minute < last; ) {
+      int word = minute / BITS_PER_WORD;
+      int bits = Math.min(last - minute, BITS_PER_WORD - minute % BITS_PER_WORD);
+      words[word] |= (bits == BITS_PER_WORD ? -1L : (1L << bits) - 1) << minute;
+      minute += bits;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format("WorkingHours: %s %s-%s %s", zone, start, end, days);
+  }
+
+  /** A mask together with the window it was compiled for. */
+  private static final class CompiledMask {
+    final TimeRange window;
+    final long[] words;
+
+    CompiledMask(TimeRange window, long[] words) {
+      this.window = window;
+      this.words = words;
+    }
+  }
+}
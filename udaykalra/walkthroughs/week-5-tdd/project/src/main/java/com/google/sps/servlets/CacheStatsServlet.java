@@ -0,0 +1,59 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.gson.Gson;
+import com.google.sps.BusyTimeCache;
+import com.google.sps.QueryResultCache;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Reports the hit and miss counts of the busy time cache, and those of the query result cache
+ * under {@code queryResults}, so that they can be sized.
+ */
+@WebServlet("/cache-stats")
+public class CacheStatsServlet extends HttpServlet {
+  @Override
+  public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    BusyTimeCache cache = (BusyTimeCache) getServletContext().getAttribute(
+        SchedulerContextListener.BUSY_TIME_CACHE_ATTRIBUTE);
+
+    Map<String, Object> stats = new LinkedHashMap<>();
+    stats.put("hits", cache.getHitCount());
+    stats.put("misses", cache.getMissCount());
+    stats.put("size", cache.size());
+
+    QueryResultCache queryResultCache = (QueryResultCache) getServletContext().getAttribute(
+        SchedulerContextListener.QUERY_RESULT_CACHE_ATTRIBUTE);
+    Map<String, Object> queryResultStats = new LinkedHashMap<>();
+    queryResultStats.put("hits", queryResultCache.getHitCount());
+    queryResultStats.put("misses", queryResultCache.getMissCount());
+    queryResultStats.put("hitRatio", queryResultCache.getHitRatio());
+    queryResultStats.put("evictions", queryResultCache.getEvictionCount());
+    queryResultStats.put("size", queryResultCache.size());
+    queryResultStats.put("estimatedBytes", queryResultCache.getEstimatedBytes());
+    stats.put("queryResults", queryResultStats);
+
+    // Send the JSON back as the response
+    response.setContentType("application/json");
+    response.getWriter().println(new Gson().toJson(stats));
+  }
+}
@@ -0,0 +1,119 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.sps.BusyTimeCache;
+import com.google.sps.CalendarJson;
+import com.google.sps.CompiledTimelines;
+import com.google.sps.Event;
+import com.google.sps.EventStore;
+import com.google.sps.SnapshotEventStore;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Adds and removes events. A POST adds the event in its body and a DELETE removes an event equal
+ * to the one in its body, both in the shape listed by {@link GetEventsServlet}. Events can only be
+ * removed from a {@link SnapshotEventStore}, since the event log of a file store is append-only.
+ *
+ * <p>The structures built from the events for {@link QueryServlet} are updated after the store, and
+ * only then is the version its answers are cached under bumped. A query that read the old version
+ * may answer from a mix of old and new structures, but its answer is cached under the old version,
+ * which no later query looks up.
+ *
+ * <p>This servlet is the only writer of the events. Each change updates the store and the
+ * structures and bumps the version under one lock, so that an add and a remove of the same event
+ * cannot interleave and leave the structures holding an event the store no longer has. Queries
+ * never take the lock.
+ */
+@WebServlet("/events")
+public class EventsServlet extends HttpServlet {
+  private EventStore eventStore;
+  private BusyTimeCache busyTimeCache;
+  private CompiledTimelines compiledTimelines;
+  private AtomicLong eventsVersion;
+  // Held while the events change, so that changes are applied to everything in the same order.
+  private final Object writeLock = new Object();
+
+  @Override
+  public void init() {
+    eventStore = (EventStore) getServletContext().getAttribute(
+        SchedulerContextListener.EVENT_STORE_ATTRIBUTE);
+    busyTimeCache = (BusyTimeCache) getServletContext().getAttribute(
+        SchedulerContextListener.BUSY_TIME_CACHE_ATTRIBUTE);
+    compiledTimelines = (CompiledTimelines) getServletContext().getAttribute(
+        SchedulerContextListener.COMPILED_TIMELINES_ATTRIBUTE);
+    eventsVersion = (AtomicLong) getServletContext().getAttribute(
+        SchedulerContextListener.EVENTS_VERSION_ATTRIBUTE);
+  }
+
+  @Override
+  public void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    Event event;
+    try {
+      event = CalendarJson.read(request.getReader(), CalendarJson::readEvent);
+    } catch (IllegalArgumentException e) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+      return;
+    }
+
+    synchronized (writeLock) {
+      eventStore.add(event);
+      // The busy time cache also adds the event to the index it caches.
+      busyTimeCache.add(event);
+      compiledTimelines.add(event);
+      eventsVersion.incrementAndGet();
+    }
+    response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+  }
+
+  @Override
+  public void doDelete(HttpServletRequest request, HttpServletResponse response)
+      throws IOException {
+    if (!(eventStore instanceof SnapshotEventStore)) {
+      response.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED,
+          "events cannot be removed from the event log");
+      return;
+    }
+
+    Event event;
+    try {
+      event = CalendarJson.read(request.getReader(), CalendarJson::readEvent);
+    } catch (IllegalArgumentException e) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+      return;
+    }
+
+    boolean removed;
+    synchronized (writeLock) {
+      removed = ((SnapshotEventStore) eventStore).remove(event);
+      if (removed) {
+        busyTimeCache.remove(event);
+        // Recompiled from the store, which no longer has the event.
+        compiledTimelines.remove(event, eventStore);
+        eventsVersion.incrementAndGet();
+      }
+    }
+    if (!removed) {
+      response.sendError(HttpServletResponse.SC_NOT_FOUND, "no such event");
+      return;
+    }
+    response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+  }
+}
@@ -0,0 +1,85 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.gson.stream.JsonWriter;
+import com.google.sps.CalendarJson;
+import com.google.sps.EventStore;
+import com.google.sps.FreeBusy;
+import com.google.sps.TimeRange;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Lists the busy time of attendees as run lengths rather than whole events, which is all a client
+ * drawing busy blocks needs. The {@code attendees} parameter is comma-separated, and the optional
+ * {@code start} and {@code end} parameters give the window as for {@link GetEventsServlet}. With
+ * {@code format=binary} the runs are sent in the compact encoding of {@link FreeBusy#encode}
+ * instead of as JSON.
+ */
+@WebServlet("/freebusy")
+public class FreeBusyServlet extends HttpServlet {
+  private EventStore eventStore;
+
+  @Override
+  public void init() {
+    eventStore = (EventStore) getServletContext().getAttribute(
+        SchedulerContextListener.EVENT_STORE_ATTRIBUTE);
+  }
+
+  @Override
+  public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    String attendeesParameter = request.getParameter("attendees");
+    if (attendeesParameter == null || attendeesParameter.isEmpty()) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, "attendees must be given");
+      return;
+    }
+    // Repeated attendees are listed once, in the order they were first given.
+    List<String> attendees =
+        new ArrayList<>(new LinkedHashSet<>(Arrays.asList(attendeesParameter.split(","))));
+
+    TimeRange window;
+    try {
+      window = GetEventsServlet.getWindow(request);
+    } catch (IllegalArgumentException e) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+      return;
+    }
+    if (window == null) {
+      window = TimeRange.WHOLE_DAY;
+    }
+
+    FreeBusy freeBusy = FreeBusy.of(eventStore.getEvents(attendees, window), attendees, window);
+    if ("binary".equals(request.getParameter("format"))) {
+      byte[] bytes = freeBusy.encode();
+      response.setContentType("application/octet-stream");
+      response.setContentLength(bytes.length);
+      response.getOutputStream().write(bytes);
+      return;
+    }
+
+    response.setContentType("application/json");
+    JsonWriter out = new JsonWriter(response.getWriter());
+    CalendarJson.writeFreeBusy(out, freeBusy);
+    out.flush();
+  }
+}
@@ -14,23 +14,76 @@
 
 package com.google.sps.servlets;
 
-import com.google.gson.Gson;
-import com.google.sps.Events;
+import com.google.gson.stream.JsonWriter;
+import com.google.sps.CalendarJson;
+import com.google.sps.Event;
+import com.google.sps.EventStore;
+import com.google.sps.TimeRange;
 import java.io.IOException;
+import java.util.Collection;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+/**
+ * Lists the events as JSON, written to the response one event at a time. The optional
+ * {@code start} and {@code end} parameters, in minutes, limit the list to the events overlapping
+ * that window, so that clients can page through a large calendar by time.
+ */
 @WebServlet("/get-events")
 public class GetEventsServlet extends HttpServlet {
+  private EventStore eventStore;
+
+  @Override
+  public void init() {
+    eventStore = (EventStore) getServletContext().getAttribute(
+        SchedulerContextListener.EVENT_STORE_ATTRIBUTE);
+  }
+
   @Override
   public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
-    Gson gson = new Gson();
-    String jsonResponse = gson.toJson(Events.events);
+    TimeRange window;
+    try {
+      window = getWindow(request);
+    } catch (IllegalArgumentException e) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+      return;
+    }
 
     // Send the JSON back as the response
     response.setContentType("application/json");
-    response.getWriter().println(jsonResponse);
+    JsonWriter out = new JsonWriter(response.getWriter());
+    out.beginArray();
+    Collection<Event> events =
+        window == null ? eventStore.getAllEvents() : eventStore.getEvents(window);
+    for (Event event : events) {
+      CalendarJson.writeEvent(out, event);
+    }
+    out.endArray();
+    out.flush();
+  }
+
+  /**
+   * Returns the window given by the {@code start} and {@code end} parameters, or null if neither
+   * is given. A missing start defaults to the start of the day and a missing end to the end of it.
+   */
+  static TimeRange getWindow(HttpServletRequest request) {
+    String start = request.getParameter("start");
+    String end = request.getParameter("end");
+    if (start == null && end == null) {
+      return null;
+    }
+
+    try {
+      int startMinute = start == null ? TimeRange.START_OF_DAY : Integer.parseInt(start);
+      int endMinute = end == null ? TimeRange.END_OF_DAY + 1 : Integer.parseInt(end);
+      if (endMinute < startMinute) {
+        throw new IllegalArgumentException("end cannot be before start");
+      }
+      return TimeRange.fromStartEnd(startMinute, endMinute, false);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("start and end must be numbers of minutes");
+    }
   }
 }
@@ -0,0 +1,96 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.gson.stream.JsonWriter;
+import com.google.sps.CalendarJson;
+import com.google.sps.Event;
+import com.google.sps.EventStore;
+import com.google.sps.ItineraryRequest;
+import com.google.sps.ItinerarySolver;
+import com.google.sps.MeetingRequest;
+import com.google.sps.TimeRange;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Books several dependent meetings, such as an interview loop, in one request. The body is an
+ * itinerary as read by {@link CalendarJson#readItineraryRequest}; the response lists up to
+ * {@code count} itineraries (default 5, at most {@link #MAX_COUNT}), each the times of its meetings
+ * in order, with start times tried every {@code granularity} minutes (default 15).
+ */
+@WebServlet("/itinerary")
+public class ItineraryServlet extends HttpServlet {
+  /** The most itineraries a request can ask for, which bounds the size of the response. */
+  public static final int MAX_COUNT = 1000;
+
+  /** How long to search for itineraries before answering with those found so far. */
+  private static final long BUDGET_MILLIS = 1000;
+
+  private EventStore eventStore;
+
+  @Override
+  public void init() {
+    eventStore = (EventStore) getServletContext().getAttribute(
+        SchedulerContextListener.EVENT_STORE_ATTRIBUTE);
+  }
+
+  @Override
+  public void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    ItineraryRequest itinerary;
+    ItinerarySolver solver;
+    int count;
+    try {
+      itinerary = CalendarJson.read(request.getReader(), CalendarJson::readItineraryRequest);
+      solver = new ItinerarySolver(ServletParameters.getInt(request, "granularity", 15));
+      count = ServletParameters.getInt(request, "count", 5);
+      if (count <= 0 || count > MAX_COUNT) {
+        throw new IllegalArgumentException("count must be between 1 and " + MAX_COUNT);
+      }
+    } catch (IllegalArgumentException e) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+      return;
+    }
+
+    List<List<TimeRange>> itineraries =
+        solver.solve(getRelevantEvents(itinerary), itinerary, count, BUDGET_MILLIS);
+
+    response.setContentType("application/json");
+    JsonWriter out = new JsonWriter(response.getWriter());
+    CalendarJson.writeItineraries(out, itineraries);
+    out.flush();
+  }
+
+  /** Returns the stored events of the required attendees of any of the itinerary's meetings. */
+  private List<Event> getRelevantEvents(ItineraryRequest itinerary) {
+    Set<String> attendees = new HashSet<>();
+    for (MeetingRequest meeting : itinerary.getMeetings()) {
+      attendees.addAll(meeting.getAttendees());
+    }
+    // An event may overlap the windows of several meetings, so collect it once.
+    Set<Event> events = new HashSet<>();
+    for (MeetingRequest meeting : itinerary.getMeetings()) {
+      events.addAll(eventStore.getEvents(attendees, meeting.getWindow()));
+    }
+    return new ArrayList<>(events);
+  }
+}
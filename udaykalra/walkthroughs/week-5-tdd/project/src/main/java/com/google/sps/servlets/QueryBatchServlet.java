@@ -0,0 +1,93 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.gson.stream.JsonWriter;
+import com.google.sps.CalendarJson;
+import com.google.sps.Event;
+import com.google.sps.EventStore;
+import com.google.sps.FindMeetingQuery;
+import com.google.sps.MeetingRequest;
+import com.google.sps.TimeRange;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/** Answers a JSON array of meeting requests with a JSON array of their possible meeting times. */
+@WebServlet("/query-batch")
+public class QueryBatchServlet extends HttpServlet {
+  private EventStore eventStore;
+
+  @Override
+  public void init() {
+    eventStore = (EventStore) getServletContext().getAttribute(
+        SchedulerContextListener.EVENT_STORE_ATTRIBUTE);
+  }
+
+  @Override
+  public void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    // Read the MeetingRequests straight from the body rather than buffering the JSON first.
+    List<MeetingRequest> meetingRequests;
+    try {
+      meetingRequests = CalendarJson.read(request.getReader(), CalendarJson::readMeetingRequests);
+    } catch (IllegalArgumentException e) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+      return;
+    }
+
+    // Find the possible meeting times for all of the requests at once.
+    FindMeetingQuery findMeetingQuery = new FindMeetingQuery();
+    List<Collection<TimeRange>> answers =
+        findMeetingQuery.queryAll(getRelevantEvents(meetingRequests), meetingRequests);
+
+    // Write the times to the response as they are converted to JSON.
+    response.setContentType("application/json");
+    JsonWriter out = new JsonWriter(response.getWriter());
+    out.beginArray();
+    for (Collection<TimeRange> answer : answers) {
+      CalendarJson.writeTimeRanges(out, answer);
+    }
+    out.endArray();
+    out.flush();
+  }
+
+  /**
+   * Returns the stored events of the requests' attendees, optional or not, that overlap the span
+   * of time covered by the requests' search windows.
+   */
+  private Collection<Event> getRelevantEvents(List<MeetingRequest> meetingRequests) {
+    if (meetingRequests.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    Set<String> attendees = new HashSet<>();
+    int start = Integer.MAX_VALUE;
+    int end = Integer.MIN_VALUE;
+    for (MeetingRequest meetingRequest : meetingRequests) {
+      attendees.addAll(meetingRequest.getAttendees());
+      attendees.addAll(meetingRequest.getOptionalAttendees());
+      start = Math.min(start, meetingRequest.getWindow().start());
+      end = Math.max(end, meetingRequest.getWindow().end());
+    }
+    return eventStore.getEvents(attendees, TimeRange.fromStartEnd(start, end, false));
+  }
+}
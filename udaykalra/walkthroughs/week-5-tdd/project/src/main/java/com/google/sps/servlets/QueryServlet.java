@@ -14,14 +14,40 @@
 
 package com.google.sps.servlets;
 
-import com.google.gson.Gson;
-import com.google.sps.Events;
+import com.google.gson.stream.JsonWriter;
+import com.google.sps.BusyTimeCache;
+import com.google.sps.CalendarJson;
+import com.google.sps.CompiledTimelines;
+import com.google.sps.CondensedRangesMeetingQuery;
+import com.google.sps.Event;
+import com.google.sps.EventIndex;
+import com.google.sps.EventStore;
 import com.google.sps.FindMeetingQuery;
+import com.google.sps.MaximizeOptionalAttendeesQuery;
+import com.google.sps.MeetingQuery;
 import com.google.sps.MeetingRequest;
+import com.google.sps.MinuteBitmapMeetingQuery;
+import com.google.sps.PackedRangesMeetingQuery;
+import com.google.sps.ParallelMeetingQuery;
+import com.google.sps.QueryResultCache;
+import com.google.sps.RankedMeetingQuery;
+import com.google.sps.Room;
+import com.google.sps.RoomMeetingQuery;
+import com.google.sps.RoomSlot;
+import com.google.sps.SweepLineMeetingQuery;
 import com.google.sps.TimeRange;
+import com.google.sps.WorkingHours;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
@@ -29,23 +55,162 @@ import javax.servlet.http.HttpServletResponse;
 
 @WebServlet("/query")
 public class QueryServlet extends HttpServlet {
+  /** The hours of the day that ranked suggestions prefer, 9:00 to 17:00. */
+  private static final TimeRange PREFERRED_HOURS = TimeRange.fromStartEnd(
+      TimeRange.getTimeInMinutes(9, 0), TimeRange.getTimeInMinutes(17, 0), false);
+
+  private EventStore eventStore;
+  private EventIndex eventIndex;
+  private BusyTimeCache busyTimeCache;
+  private CompiledTimelines compiledTimelines;
+  private Map<String, WorkingHours> workingHours;
+  private AtomicLong eventsVersion;
+  private QueryResultCache queryResultCache;
+  private Map<String, Room> rooms;
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void init() {
+    eventStore = (EventStore) getServletContext().getAttribute(
+        SchedulerContextListener.EVENT_STORE_ATTRIBUTE);
+
+    // The events are indexed once, at startup, so that each query only touches the events of its
+    // attendees.
+    eventIndex = (EventIndex) getServletContext().getAttribute(
+        SchedulerContextListener.EVENT_INDEX_ATTRIBUTE);
+    busyTimeCache = (BusyTimeCache) getServletContext().getAttribute(
+        SchedulerContextListener.BUSY_TIME_CACHE_ATTRIBUTE);
+    compiledTimelines = (CompiledTimelines) getServletContext().getAttribute(
+        SchedulerContextListener.COMPILED_TIMELINES_ATTRIBUTE);
+    workingHours = (Map<String, WorkingHours>) getServletContext().getAttribute(
+        SchedulerContextListener.WORKING_HOURS_ATTRIBUTE);
+    eventsVersion = (AtomicLong) getServletContext().getAttribute(
+        SchedulerContextListener.EVENTS_VERSION_ATTRIBUTE);
+    queryResultCache = (QueryResultCache) getServletContext().getAttribute(
+        SchedulerContextListener.QUERY_RESULT_CACHE_ATTRIBUTE);
+    rooms = (Map<String, Room>) getServletContext().getAttribute(
+        SchedulerContextListener.ROOMS_ATTRIBUTE);
+  }
+
   @Override
   public void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
-    Gson gson = new Gson();
+    // Read the MeetingRequest straight from the body rather than buffering the JSON first.
+    MeetingRequest meetingRequest;
+    try {
+      meetingRequest = CalendarJson.read(request.getReader(), CalendarJson::readMeetingRequest);
+    } catch (IllegalArgumentException e) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+      return;
+    }
+
+    response.setContentType("application/json");
+    JsonWriter out = new JsonWriter(response.getWriter());
 
-    // Convert the JSON to an instance of MeetingRequest.
-    MeetingRequest meetingRequest = gson.fromJson(request.getReader(), MeetingRequest.class);
+    // Find the possible meeting times and write them to the response as they are converted.
+    String algorithm = request.getParameter("algorithm");
+    if ("max-optional".equals(algorithm)) {
+      // Answers with slots labelled by how many optional attendees can make them.
+      CalendarJson.writeMeetingSlots(out, new MaximizeOptionalAttendeesQuery().query(
+          getRelevantEvents(meetingRequest), meetingRequest));
+    } else if ("ranked".equals(algorithm)) {
+      // Answers with the best few start times rather than every free range.
+      RankedMeetingQuery rankedQuery;
+      try {
+        rankedQuery = new RankedMeetingQuery(ServletParameters.getInt(request, "granularity", 15),
+            ServletParameters.getInt(request, "k", 10), PREFERRED_HOURS);
+      } catch (IllegalArgumentException e) {
+        response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+        return;
+      }
+      CalendarJson.writeRankedSlots(
+          out, rankedQuery.query(getRelevantEvents(meetingRequest), meetingRequest));
+    } else if ("rooms".equals(algorithm)) {
+      // Answers with times paired with a room to hold the meeting in.
+      CalendarJson.writeRoomSlots(
+          out, findRoomSlots(meetingRequest, request.getParameter("equipment")));
+    } else if ("working-hours".equals(algorithm)) {
+      // Working hours change without the events changing, so these answers aren't cached.
+      CalendarJson.writeTimeRanges(out, findMeetingTimes(algorithm, meetingRequest));
+    } else {
+      // The front end repeats identical requests, so answer those from the cache. The version is
+      // read before the answer is computed, so an answer racing a change is cached under the
+      // version from before it.
+      CalendarJson.writeTimeRanges(out, queryResultCache.get(meetingRequest, algorithm,
+          eventsVersion.get(), () -> findMeetingTimes(algorithm, meetingRequest)));
+    }
+    out.flush();
+  }
+
+  /** Returns the possible meeting times found by the algorithm named by {@code algorithm}. */
+  private Collection<TimeRange> findMeetingTimes(String algorithm, MeetingRequest meetingRequest) {
+    if ("indexed".equals(algorithm)) {
+      return new SweepLineMeetingQuery().query(eventIndex, meetingRequest);
+    } else if ("cached".equals(algorithm)) {
+      return new SweepLineMeetingQuery().query(busyTimeCache, meetingRequest);
+    } else if ("timelines".equals(algorithm)) {
+      // Merges the busy arrays compiled at startup without touching the events.
+      return compiledTimelines.query(meetingRequest);
+    }
+    MeetingQuery meetingQuery = getMeetingQuery(algorithm);
+    return meetingQuery.query(getRelevantEvents(meetingRequest), meetingRequest);
+  }
 
-    // Find the possible meeting times.
-    FindMeetingQuery findMeetingQuery = new FindMeetingQuery();
-    Collection<TimeRange> answer =
-        findMeetingQuery.query(Arrays.asList(Events.events), meetingRequest);
+  /**
+   * Returns times for the meeting, each with a room that holds everyone and has all of the
+   * comma-separated {@code equipment}, preferring the smallest such room.
+   */
+  private List<RoomSlot> findRoomSlots(MeetingRequest meetingRequest, String equipment) {
+    List<Room> roomsBySize = new ArrayList<>(rooms.values());
+    Collections.sort(roomsBySize,
+        Comparator.comparingInt(Room::getCapacity).thenComparing(Room::getName));
 
-    // Convert the times to JSON
-    String jsonResponse = gson.toJson(answer);
+    // Rooms are booked as attendees, so their events are fetched along with everyone else's.
+    Set<String> attendees = new HashSet<>(meetingRequest.getAttendees());
+    attendees.addAll(meetingRequest.getOptionalAttendees());
+    for (Room room : roomsBySize) {
+      attendees.add(room.getName());
+    }
+    Collection<Event> events = eventStore.getEvents(attendees, meetingRequest.getWindow());
 
-    // Send the JSON back as the response
-    response.setContentType("application/json");
-    response.getWriter().println(jsonResponse);
+    List<String> neededEquipment = equipment == null || equipment.isEmpty()
+        ? Collections.emptyList()
+        : Arrays.asList(equipment.split(","));
+    return new RoomMeetingQuery(roomsBySize).query(events, meetingRequest, neededEquipment);
+  }
+
+  /**
+   * Returns the stored events that can affect the request: those of its attendees, optional or
+   * not, that overlap its search window.
+   */
+  private Collection<Event> getRelevantEvents(MeetingRequest meetingRequest) {
+    Set<String> attendees = new HashSet<>(meetingRequest.getAttendees());
+    attendees.addAll(meetingRequest.getOptionalAttendees());
+    return eventStore.getEvents(attendees, meetingRequest.getWindow());
+  }
+
+  /**
+   * Returns the meeting query implementation named by {@code algorithm}, so that the
+   * implementations can be compared against each other. Defaults to {@link FindMeetingQuery}.
+   */
+  private MeetingQuery getMeetingQuery(String algorithm) {
+    if ("sweep-line".equals(algorithm)) {
+      return new SweepLineMeetingQuery();
+    }
+    if ("minute-bitmap".equals(algorithm)) {
+      return new MinuteBitmapMeetingQuery();
+    }
+    if ("working-hours".equals(algorithm)) {
+      return new MinuteBitmapMeetingQuery(workingHours);
+    }
+    if ("condensed-ranges".equals(algorithm)) {
+      return new CondensedRangesMeetingQuery();
+    }
+    if ("packed-ranges".equals(algorithm)) {
+      return new PackedRangesMeetingQuery();
+    }
+    if ("parallel".equals(algorithm)) {
+      return new ParallelMeetingQuery();
+    }
+    return new FindMeetingQuery();
   }
 }
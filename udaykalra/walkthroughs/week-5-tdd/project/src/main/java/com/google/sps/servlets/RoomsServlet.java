@@ -0,0 +1,66 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.gson.stream.JsonWriter;
+import com.google.sps.CalendarJson;
+import com.google.sps.Room;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Lists and sets the rooms that the {@code rooms} algorithm of {@link QueryServlet} books meetings
+ * into. A POST replaces the rooms in its body that have the same names and adds the rest. Rooms
+ * are booked by naming them among the attendees of events.
+ */
+@WebServlet("/rooms")
+public class RoomsServlet extends HttpServlet {
+  private ConcurrentMap<String, Room> rooms;
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void init() {
+    rooms = (ConcurrentMap<String, Room>) getServletContext().getAttribute(
+        SchedulerContextListener.ROOMS_ATTRIBUTE);
+  }
+
+  @Override
+  public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    response.setContentType("application/json");
+    JsonWriter out = new JsonWriter(response.getWriter());
+    CalendarJson.writeRooms(out, rooms.values());
+    out.flush();
+  }
+
+  @Override
+  public void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    List<Room> updates;
+    try {
+      updates = CalendarJson.read(request.getReader(), CalendarJson::readRooms);
+    } catch (IllegalArgumentException e) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+      return;
+    }
+    for (Room room : updates) {
+      rooms.put(room.getName(), room);
+    }
+    response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+  }
+}
@@ -0,0 +1,150 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.sps.BusyTimeCache;
+import com.google.sps.CompiledTimelines;
+import com.google.sps.Event;
+import com.google.sps.EventIndex;
+import com.google.sps.EventStore;
+import com.google.sps.Events;
+import com.google.sps.FileEventStore;
+import com.google.sps.QueryResultCache;
+import com.google.sps.Room;
+import com.google.sps.SnapshotEventStore;
+import com.google.sps.WorkingHours;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+
+/**
+ * Builds the scheduling structures shared by the servlets once, when the app starts, and stores
+ * them as attributes of the servlet context.
+ */
+@WebListener
+public class SchedulerContextListener implements ServletContextListener {
+  /**
+   * The system property naming the log file of a {@link FileEventStore} to keep events in. If it
+   * is not set, the events are kept in memory, in a {@link SnapshotEventStore}.
+   */
+  public static final String EVENT_LOG_PROPERTY = "com.google.sps.eventLog";
+
+  /** The attribute holding the {@link EventStore} of all events. */
+  public static final String EVENT_STORE_ATTRIBUTE = "com.google.sps.EventStore";
+
+  /** The attribute holding the {@link EventIndex} of all events. */
+  public static final String EVENT_INDEX_ATTRIBUTE = "com.google.sps.EventIndex";
+
+  /** The attribute holding the {@link BusyTimeCache} over the event index. */
+  public static final String BUSY_TIME_CACHE_ATTRIBUTE = "com.google.sps.BusyTimeCache";
+
+  /** The attribute holding the {@link CompiledTimelines} of all events. */
+  public static final String COMPILED_TIMELINES_ATTRIBUTE = "com.google.sps.CompiledTimelines";
+
+  /**
+   * The attribute holding the {@link WorkingHours} of attendees, as a {@link ConcurrentMap} from
+   * attendee to working hours. It starts out empty.
+   */
+  public static final String WORKING_HOURS_ATTRIBUTE = "com.google.sps.WorkingHours";
+
+  /**
+   * The attribute holding the version of the events that cached answers are keyed on, as an
+   * {@link AtomicLong}. It is bumped only once the store and every structure built from it have
+   * seen a change, unlike the store's own version, which moves before the structures catch up.
+   */
+  public static final String EVENTS_VERSION_ATTRIBUTE = "com.google.sps.EventsVersion";
+
+  /** The attribute holding the {@link QueryResultCache} of answers to meeting queries. */
+  public static final String QUERY_RESULT_CACHE_ATTRIBUTE = "com.google.sps.QueryResultCache";
+
+  /**
+   * The attribute holding the rooms meetings can be held in, as a {@link ConcurrentMap} from name
+   * to {@link Room}. It starts out empty.
+   */
+  public static final String ROOMS_ATTRIBUTE = "com.google.sps.Rooms";
+
+  // The number of answers to cache, and how long to cache each of them for.
+  private static final int QUERY_RESULT_CACHE_ENTRIES = 1024;
+  private static final long QUERY_RESULT_TIME_TO_LIVE_MILLIS = 5 * 60 * 1000;
+
+  @Override
+  public void contextInitialized(ServletContextEvent event) {
+    ServletContext context = event.getServletContext();
+
+    EventStore eventStore = openEventStore();
+    context.setAttribute(EVENT_STORE_ATTRIBUTE, eventStore);
+
+    Collection<Event> events = eventStore.getAllEvents();
+    EventIndex eventIndex = new EventIndex(events);
+    context.setAttribute(EVENT_INDEX_ATTRIBUTE, eventIndex);
+    context.setAttribute(BUSY_TIME_CACHE_ATTRIBUTE, new BusyTimeCache(eventIndex));
+    context.setAttribute(COMPILED_TIMELINES_ATTRIBUTE, CompiledTimelines.of(events));
+
+    ConcurrentMap<String, WorkingHours> workingHours = new ConcurrentHashMap<>();
+    context.setAttribute(WORKING_HOURS_ATTRIBUTE, workingHours);
+    ConcurrentMap<String, Room> rooms = new ConcurrentHashMap<>();
+    context.setAttribute(ROOMS_ATTRIBUTE, rooms);
+    context.setAttribute(EVENTS_VERSION_ATTRIBUTE, new AtomicLong());
+    context.setAttribute(QUERY_RESULT_CACHE_ATTRIBUTE,
+        new QueryResultCache(QUERY_RESULT_CACHE_ENTRIES, QUERY_RESULT_TIME_TO_LIVE_MILLIS));
+  }
+
+  @Override
+  public void contextDestroyed(ServletContextEvent event) {
+    Object eventStore = event.getServletContext().getAttribute(EVENT_STORE_ATTRIBUTE);
+    if (eventStore instanceof Closeable) {
+      try {
+        ((Closeable) eventStore).close();
+      } catch (IOException e) {
+        event.getServletContext().log("Could not close the event store", e);
+      }
+    }
+  }
+
+  /**
+   * Opens the event store named by {@link #EVENT_LOG_PROPERTY}, or creates an in-memory one. A new
+   * store starts out with the sample events so that the page has something to show.
+   */
+  private static EventStore openEventStore() {
+    String eventLog = System.getProperty(EVENT_LOG_PROPERTY);
+    if (eventLog == null) {
+      // Queries read snapshots of the events, so they never wait for events being added.
+      return new SnapshotEventStore(Arrays.asList(Events.events));
+    }
+
+    FileEventStore eventStore;
+    try {
+      eventStore = FileEventStore.open(Paths.get(eventLog));
+    } catch (IOException e) {
+      throw new UncheckedIOException("could not open the event log " + eventLog, e);
+    }
+    if (eventStore.size() == 0) {
+      for (Event event : Events.events) {
+        eventStore.add(event);
+      }
+    }
+    return eventStore;
+  }
+}
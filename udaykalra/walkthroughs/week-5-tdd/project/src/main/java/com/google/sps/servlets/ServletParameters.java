@@ -0,0 +1,33 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import javax.servlet.http.HttpServletRequest;
+
+/** Reads typed values of request parameters for the servlets. */
+final class ServletParameters {
+  private ServletParameters() {}
+
+  /**
+   * Returns the integer value of the parameter {@code name}, or {@code defaultValue} if it is
+   * missing.
+   *
+   * @throws NumberFormatException if the value is not an integer
+   */
+  static int getInt(HttpServletRequest request, String name, int defaultValue) {
+    String value = request.getParameter(name);
+    return value == null ? defaultValue : Integer.parseInt(value);
+  }
+}
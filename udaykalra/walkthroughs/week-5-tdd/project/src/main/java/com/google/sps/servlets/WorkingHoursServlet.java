@@ -0,0 +1,64 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.gson.stream.JsonWriter;
+import com.google.sps.CalendarJson;
+import com.google.sps.WorkingHours;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Lists and sets the working hours of attendees, which the {@code working-hours} algorithm of
+ * {@link QueryServlet} schedules meetings within. A POST replaces the working hours of the
+ * attendees in its body and leaves everyone else's alone.
+ */
+@WebServlet("/working-hours")
+public class WorkingHoursServlet extends HttpServlet {
+  private ConcurrentMap<String, WorkingHours> workingHours;
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void init() {
+    workingHours = (ConcurrentMap<String, WorkingHours>) getServletContext().getAttribute(
+        SchedulerContextListener.WORKING_HOURS_ATTRIBUTE);
+  }
+
+  @Override
+  public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    response.setContentType("application/json");
+    JsonWriter out = new JsonWriter(response.getWriter());
+    CalendarJson.writeWorkingHours(out, workingHours);
+    out.flush();
+  }
+
+  @Override
+  public void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    Map<String, WorkingHours> updates;
+    try {
+      updates = CalendarJson.read(request.getReader(), CalendarJson::readWorkingHours);
+    } catch (IllegalArgumentException e) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+      return;
+    }
+    workingHours.putAll(updates);
+    response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+  }
+}
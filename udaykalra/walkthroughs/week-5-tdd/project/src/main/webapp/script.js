@@ -92,10 +92,13 @@ function timeToString(totalMinutes) {
  * Request for possible meeting times.
  */
 class MeetingRequest {
-  constructor(duration, attendees, optional_attendees) {
+  constructor(duration, attendees, optional_attendees, window) {
     this.duration = duration;
     this.attendees = attendees;
     this.optional_attendees = optional_attendees;
+    // Optional TimeRange to search in. The server searches the whole day if it
+    // is left out.
+    this.window = window;
   }
 }
 
@@ -0,0 +1,62 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class AttendeeRegistryTest {
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+  private static final String PERSON_C = "Person C";
+
+  @Test
+  public void internAssignsDenseIdsInOrder() {
+    AttendeeRegistry registry = new AttendeeRegistry();
+
+    Assert.assertEquals(0, registry.intern(PERSON_A));
+    Assert.assertEquals(1, registry.intern(PERSON_B));
+    Assert.assertEquals(0, registry.intern(PERSON_A));
+    Assert.assertEquals(2, registry.size());
+    Assert.assertEquals(PERSON_B, registry.nameOf(1));
+  }
+
+  @Test
+  public void unknownNamesHaveNoId() {
+    AttendeeRegistry registry = new AttendeeRegistry();
+    registry.intern(PERSON_A);
+
+    Assert.assertEquals(-1, registry.idOf(PERSON_B));
+  }
+
+  @Test
+  public void toBitSetSkipsUnknownNames() {
+    AttendeeRegistry registry = new AttendeeRegistry();
+    registry.intern(PERSON_A);
+    registry.intern(PERSON_B);
+
+    BitSet actual = registry.toBitSet(Arrays.asList(PERSON_B, PERSON_C));
+    BitSet expected = new BitSet();
+    expected.set(1);
+
+    Assert.assertEquals(expected, actual);
+  }
+}
@@ -0,0 +1,176 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class AvailabilityTrackerTest {
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+  private static final String PERSON_C = "Person C";
+
+  private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
+  private static final int TIME_0830AM = TimeRange.getTimeInMinutes(8, 30);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_1000AM = TimeRange.getTimeInMinutes(10, 0);
+
+  private static final int DURATION_30_MINUTES = 30;
+
+  private static final int WRITERS = 4;
+  private static final int CHANGES_PER_WRITER = 500;
+
+  @Test
+  public void removingAnEventSplitsItsBlock() {
+    // Events  : |--A--|
+    //                |-----A-----|
+    //                     |A|
+    // Before  : |----------------|
+    // After   : |--1--|   |2|
+    Event first = new Event("Event 1",
+        TimeRange.fromStartEnd(TIME_0800AM, TIME_0830AM, false), Arrays.asList(PERSON_A));
+    Event second = new Event("Event 2",
+        TimeRange.fromStartEnd(TIME_0800AM + 15, TIME_1000AM, false), Arrays.asList(PERSON_A));
+    Event third = new Event("Event 3",
+        TimeRange.fromStartEnd(TIME_0900AM, TIME_0900AM + 15, false), Arrays.asList(PERSON_A));
+    AvailabilityTracker tracker = new AvailabilityTracker(Arrays.asList(first, second, third));
+
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartEnd(TIME_0800AM, TIME_1000AM, false)),
+        tracker.getMergedBusyRanges(PERSON_A));
+
+    tracker.removeEvent(second);
+
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartEnd(TIME_0800AM, TIME_0830AM, false),
+        TimeRange.fromStartEnd(TIME_0900AM, TIME_0900AM + 15, false)),
+        tracker.getMergedBusyRanges(PERSON_A));
+  }
+
+  @Test
+  public void sameTimeStaysBusyUntilEveryEventIsRemoved() {
+    TimeRange when = TimeRange.fromStartEnd(TIME_0800AM, TIME_0900AM, false);
+    Event first = new Event("Event 1", when, Arrays.asList(PERSON_A));
+    Event second = new Event("Event 2", when, Arrays.asList(PERSON_A));
+    AvailabilityTracker tracker = new AvailabilityTracker(Arrays.asList(first, second));
+
+    tracker.removeEvent(first);
+    Assert.assertEquals(Arrays.asList(when), tracker.getMergedBusyRanges(PERSON_A));
+
+    tracker.removeEvent(second);
+    Assert.assertEquals(Arrays.asList(), tracker.getMergedBusyRanges(PERSON_A));
+  }
+
+  @Test
+  public void subscribersAreToldOnlyWhenTheirTimesChange() {
+    AvailabilityTracker tracker = new AvailabilityTracker();
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+    List<Collection<TimeRange>> answers = new ArrayList<>();
+    AvailabilityTracker.Subscription subscription = tracker.subscribe(request, answers::add);
+
+    tracker.addEvent(new Event("Event 1",
+        TimeRange.fromStartEnd(TIME_0800AM, TIME_0900AM, false), Arrays.asList(PERSON_A)));
+    // Another attendee's event does not change the request's times.
+    tracker.addEvent(new Event("Event 2",
+        TimeRange.fromStartEnd(TIME_0900AM, TIME_1000AM, false), Arrays.asList(PERSON_B)));
+    subscription.cancel();
+    tracker.addEvent(new Event("Event 3",
+        TimeRange.fromStartEnd(TIME_0900AM, TIME_1000AM, false), Arrays.asList(PERSON_A)));
+
+    Assert.assertEquals(Arrays.asList(Arrays.asList(TimeRange.WHOLE_DAY),
+        Arrays.asList(TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0800AM, false),
+            TimeRange.fromStartEnd(TIME_0900AM, TimeRange.END_OF_DAY, true))),
+        answers);
+  }
+
+  @Test
+  public void subscriberEndsWithLatestAnswerUnderConcurrentChanges() throws Exception {
+    // Writers add and remove events of the same attendee at once. The subscriber yields while it
+    // is called, so that a thread delivering an older answer is likely to be overtaken.
+    AvailabilityTracker tracker = new AvailabilityTracker();
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+    AtomicReference<Collection<TimeRange>> latest = new AtomicReference<>();
+    tracker.subscribe(request, answer -> {
+      Thread.yield();
+      latest.set(answer);
+    });
+
+    ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> writers = new ArrayList<>();
+    for (int w = 0; w < WRITERS; w++) {
+      Random random = new Random(w);
+      writers.add(executor.submit(() -> {
+        start.await();
+        for (int i = 0; i < CHANGES_PER_WRITER; i++) {
+          Event event = new Event("Event " + i, TimeRange.fromStartDuration(
+              random.nextInt(TimeRange.END_OF_DAY), random.nextInt(120)), Arrays.asList(PERSON_A));
+          tracker.addEvent(event);
+          if (random.nextBoolean()) {
+            tracker.removeEvent(event);
+          }
+        }
+        return null;
+      }));
+    }
+
+    start.countDown();
+    for (Future<?> writer : writers) {
+      writer.get(1, TimeUnit.MINUTES);
+    }
+    executor.shutdown();
+
+    Assert.assertEquals(tracker.query(request), latest.get());
+  }
+
+  @Test
+  public void answersMatchFindMeetingQueryAfterEachChange() {
+    Random random = new Random(13);
+    String[] people = {PERSON_A, PERSON_B, PERSON_C};
+    AvailabilityTracker tracker = new AvailabilityTracker();
+    List<Event> events = new ArrayList<>();
+
+    for (int i = 0; i < 2000; i++) {
+      if (events.isEmpty() || random.nextInt(3) > 0) {
+        int start = random.nextInt(TimeRange.END_OF_DAY);
+        int duration = random.nextInt(4) == 0 ? 0 : random.nextInt(120);
+        Event event = new Event("Event " + i, TimeRange.fromStartDuration(start, duration),
+            Arrays.asList(people[random.nextInt(people.length)]));
+        events.add(event);
+        tracker.addEvent(event);
+      } else {
+        tracker.removeEvent(events.remove(random.nextInt(events.size())));
+      }
+
+      MeetingRequest request =
+          new MeetingRequest(Arrays.asList(people[random.nextInt(people.length)]), 1);
+      request.addOptionalAttendee(people[random.nextInt(people.length)]);
+      Assert.assertEquals(new FindMeetingQuery().query(events, request), tracker.query(request));
+    }
+  }
+}
@@ -0,0 +1,104 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.Collection;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class BusyTimeCacheTest {
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+
+  private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
+  private static final int TIME_0830AM = TimeRange.getTimeInMinutes(8, 30);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_0930AM = TimeRange.getTimeInMinutes(9, 30);
+  private static final int TIME_1000AM = TimeRange.getTimeInMinutes(10, 0);
+
+  private static final int DURATION_30_MINUTES = 30;
+  private static final int DURATION_60_MINUTES = 60;
+
+  private BusyTimeCache cache;
+
+  @Before
+  public void setUp() {
+    cache = new BusyTimeCache(new EventIndex(Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartDuration(TIME_0800AM, DURATION_60_MINUTES),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 2", TimeRange.fromStartDuration(TIME_0830AM, DURATION_30_MINUTES),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 3", TimeRange.fromStartDuration(TIME_0900AM, DURATION_30_MINUTES),
+            Arrays.asList(PERSON_A, PERSON_B)))));
+  }
+
+  @Test
+  public void mergesOverlappingAndTouchingRanges() {
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartEnd(TIME_0800AM, TIME_0930AM, false)),
+        cache.getMergedBusyRanges(PERSON_A));
+  }
+
+  @Test
+  public void countsHitsAndMisses() {
+    cache.getMergedBusyRanges(PERSON_A);
+    cache.getMergedBusyRanges(PERSON_A);
+    cache.getMergedBusyRanges(PERSON_B);
+
+    Assert.assertEquals(1, cache.getHitCount());
+    Assert.assertEquals(2, cache.getMissCount());
+    Assert.assertEquals(2, cache.size());
+  }
+
+  @Test
+  public void addingEventInvalidatesAttendees() {
+    cache.getMergedBusyRanges(PERSON_A);
+    cache.getMergedBusyRanges(PERSON_B);
+
+    Event event = new Event("Event 4",
+        TimeRange.fromStartDuration(TIME_1000AM, DURATION_30_MINUTES), Arrays.asList(PERSON_B));
+    cache.add(event);
+
+    Assert.assertEquals(1, cache.size());
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartDuration(TIME_0900AM, DURATION_30_MINUTES),
+        TimeRange.fromStartDuration(TIME_1000AM, DURATION_30_MINUTES)),
+        cache.getMergedBusyRanges(PERSON_B));
+
+    cache.remove(event);
+
+    Assert.assertEquals(
+        Arrays.asList(TimeRange.fromStartDuration(TIME_0900AM, DURATION_30_MINUTES)),
+        cache.getMergedBusyRanges(PERSON_B));
+  }
+
+  @Test
+  public void cachedQueryMatchesScanningQuery() {
+    Collection<Event> events = Arrays.asList(Events.events);
+    BusyTimeCache eventsCache = new BusyTimeCache(new EventIndex(events));
+    SweepLineMeetingQuery query = new SweepLineMeetingQuery();
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList("Isabella", "Oliver"), 30);
+    request.addOptionalAttendee("Liam");
+
+    Assert.assertEquals(query.query(events, request), query.query(eventsCache, request));
+    Assert.assertEquals(query.query(events, request), query.query(eventsCache, request));
+    Assert.assertEquals(3, eventsCache.getHitCount());
+  }
+}
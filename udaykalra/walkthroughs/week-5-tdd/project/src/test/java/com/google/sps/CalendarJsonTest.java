@@ -0,0 +1,247 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class CalendarJsonTest {
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+
+  private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+
+  private static final Event EVENT = new Event("Event 1",
+      TimeRange.fromStartEnd(TIME_0800AM, TIME_0900AM, false), Arrays.asList(PERSON_A, PERSON_B));
+
+  @Test
+  public void writeEventMatchesGson() throws IOException {
+    StringWriter actual = new StringWriter();
+    CalendarJson.writeEvent(new JsonWriter(actual), EVENT);
+
+    Assert.assertEquals(new Gson().toJson(EVENT), actual.toString());
+  }
+
+  @Test
+  public void readEventReadsWrittenEvent() throws IOException {
+    StringWriter json = new StringWriter();
+    CalendarJson.writeEvent(new JsonWriter(json), EVENT);
+
+    Event actual = CalendarJson.readEvent(new JsonReader(new StringReader(json.toString())));
+
+    Assert.assertEquals(EVENT, actual);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void readEventRejectsMissingTime() throws IOException {
+    CalendarJson.readEvent(new JsonReader(new StringReader("{\"title\": \"Event 1\"}")));
+  }
+
+  @Test
+  public void eventReadByGsonKeepsItsAttendees() {
+    Event actual = new Gson().fromJson(new Gson().toJson(EVENT), Event.class);
+
+    Assert.assertEquals(EVENT.getAttendees(), actual.getAttendees());
+    Assert.assertEquals(EVENT, actual);
+  }
+
+  @Test
+  public void readEventAcceptsNullAttendees() throws IOException {
+    String json = "{\"title\": \"Event 1\", \"when\": {\"start\": 480, \"duration\": 60},"
+        + " \"attendees\": null}";
+
+    Event actual = CalendarJson.read(new StringReader(json), CalendarJson::readEvent);
+
+    Assert.assertTrue(actual.getAttendees().isEmpty());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void readRejectsTruncatedJson() throws IOException {
+    CalendarJson.read(new StringReader("{\"title\": \"Event 1\", \"when\": {"),
+        CalendarJson::readEvent);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void readRejectsMalformedJson() throws IOException {
+    CalendarJson.read(new StringReader("{\"duration\": 30,, }"), CalendarJson::readMeetingRequest);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void readRejectsJsonOfTheWrongShape() throws IOException {
+    CalendarJson.read(new StringReader("[{\"name\": [1]}]"), CalendarJson::readRooms);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void readRejectsEmptyBody() throws IOException {
+    CalendarJson.read(new StringReader(""), CalendarJson::readMeetingRequests);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void readRejectsContentAfterTheValue() throws IOException {
+    CalendarJson.read(new StringReader("[] []"), CalendarJson::readMeetingRequests);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void readMeetingRequestRejectsOverlongWindow() throws IOException {
+    int minutes = (CalendarJson.MAX_WINDOW_DAYS + 1) * TimeRange.MINUTES_IN_DAY;
+    String json = "{\"duration\": 30, \"window\": {\"start\": 0, \"duration\": " + minutes + "}}";
+
+    CalendarJson.read(new StringReader(json), CalendarJson::readMeetingRequest);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void readMeetingRequestRejectsOverflowingWindow() throws IOException {
+    String json =
+        "{\"duration\": 30, \"window\": {\"start\": 2147480000, \"duration\": 100000}}";
+
+    CalendarJson.read(new StringReader(json), CalendarJson::readMeetingRequest);
+  }
+
+  @Test
+  public void writeTimeRangesMatchesGson() throws IOException {
+    List<TimeRange> ranges = Arrays.asList(TimeRange.fromStartDuration(TIME_0800AM, 30),
+        TimeRange.fromStartDuration(TIME_0900AM, 0));
+
+    StringWriter actual = new StringWriter();
+    CalendarJson.writeTimeRanges(new JsonWriter(actual), ranges);
+
+    Assert.assertEquals(new Gson().toJson(ranges), actual.toString());
+  }
+
+  @Test
+  public void writeMeetingSlotsMatchesGson() throws IOException {
+    List<MeetingSlot> slots = Arrays.asList(new MeetingSlot(TimeRange.WHOLE_DAY, 2));
+
+    StringWriter actual = new StringWriter();
+    CalendarJson.writeMeetingSlots(new JsonWriter(actual), slots);
+
+    Assert.assertEquals(new Gson().toJson(slots), actual.toString());
+  }
+
+  @Test
+  public void writeRankedSlotsMatchesGson() throws IOException {
+    List<RankedSlot> slots = Arrays.asList(new RankedSlot(TimeRange.WHOLE_DAY, 1, 7.5));
+
+    StringWriter actual = new StringWriter();
+    CalendarJson.writeRankedSlots(new JsonWriter(actual), slots);
+
+    Assert.assertEquals(new Gson().toJson(slots), actual.toString());
+  }
+
+  @Test
+  public void writeFreeBusy() throws IOException {
+    FreeBusy freeBusy =
+        FreeBusy.of(Arrays.asList(EVENT), Arrays.asList(PERSON_A), TimeRange.WHOLE_DAY);
+
+    StringWriter actual = new StringWriter();
+    CalendarJson.writeFreeBusy(new JsonWriter(actual), freeBusy);
+
+    Assert.assertEquals("{\"window\":{\"start\":0,\"duration\":1440},"
+        + "\"busy\":{\"Person A\":[480,60]}}", actual.toString());
+  }
+
+  @Test
+  public void workingHoursRoundTrip() throws IOException {
+    String json = "{\"Person A\":{\"zone\":\"Europe/London\",\"start\":\"09:00\","
+        + "\"end\":\"17:30\",\"days\":[\"MONDAY\",\"FRIDAY\"]}}";
+
+    Map<String, WorkingHours> workingHours =
+        CalendarJson.readWorkingHours(new JsonReader(new StringReader(json)));
+    StringWriter actual = new StringWriter();
+    CalendarJson.writeWorkingHours(new JsonWriter(actual), workingHours);
+
+    Assert.assertEquals(json, actual.toString());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void readWorkingHoursRejectsUnknownZone() throws IOException {
+    String json = "{\"Person A\":{\"zone\":\"Mars/Olympus\",\"start\":\"09:00\","
+        + "\"end\":\"17:00\"}}";
+
+    CalendarJson.readWorkingHours(new JsonReader(new StringReader(json)));
+  }
+
+  @Test
+  public void readItineraryRequest() throws IOException {
+    String json = "[{\"request\": {\"duration\": 60, \"attendees\": [\"Person A\"]}},"
+        + " {\"request\": {\"duration\": 30, \"attendees\": [\"Person B\"]},"
+        + " \"minGap\": 15, \"maxGap\": 30}]";
+
+    ItineraryRequest itinerary =
+        CalendarJson.readItineraryRequest(new JsonReader(new StringReader(json)));
+
+    Assert.assertEquals(2, itinerary.size());
+    Assert.assertEquals(60, itinerary.getMeetings().get(0).getDuration());
+    Assert.assertEquals(Arrays.asList("Person B"),
+        new ArrayList<>(itinerary.getMeetings().get(1).getAttendees()));
+    Assert.assertEquals(15, itinerary.getMinGap(1));
+    Assert.assertEquals(30, itinerary.getMaxGap(1));
+  }
+
+  @Test
+  public void roomsRoundTrip() throws IOException {
+    String json = "[{\"name\":\"Room 1\",\"capacity\":4,\"equipment\":[\"projector\"]}]";
+
+    List<Room> rooms = CalendarJson.readRooms(new JsonReader(new StringReader(json)));
+    StringWriter actual = new StringWriter();
+    CalendarJson.writeRooms(new JsonWriter(actual), rooms);
+
+    Assert.assertEquals(json, actual.toString());
+  }
+
+  @Test
+  public void readMeetingRequestFromFrontEnd() throws IOException {
+    // The front end sends the duration as a string and may leave out the window.
+    String json = "{\"duration\": \"30\", \"attendees\": [\"Person A\"],"
+        + " \"optional_attendees\": [\"Person B\"], \"window\": null, \"unknown\": [1, 2]}";
+
+    MeetingRequest request =
+        CalendarJson.readMeetingRequest(new JsonReader(new StringReader(json)));
+
+    Assert.assertEquals(30, request.getDuration());
+    Assert.assertEquals(
+        new HashSet<>(Arrays.asList(PERSON_A)), new HashSet<>(request.getAttendees()));
+    Assert.assertTrue(request.getOptionalAttendees().contains(PERSON_B));
+    Assert.assertEquals(TimeRange.WHOLE_DAY, request.getWindow());
+  }
+
+  @Test
+  public void readMeetingRequestWithWindow() throws IOException {
+    String json = "{\"duration\": 60, \"attendees\": [],"
+        + " \"window\": {\"start\": 1440, \"duration\": 2880}}";
+
+    MeetingRequest request =
+        CalendarJson.readMeetingRequest(new JsonReader(new StringReader(json)));
+
+    Assert.assertEquals(TimeRange.fromDays(1, 2), request.getWindow());
+    Assert.assertTrue(request.getOptionalAttendees().isEmpty());
+  }
+}
@@ -0,0 +1,125 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class CompiledTimelinesTest {
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+
+  private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_1000AM = TimeRange.getTimeInMinutes(10, 0);
+  private static final int TIME_1100AM = TimeRange.getTimeInMinutes(11, 0);
+  private static final int TIME_1000PM = TimeRange.getTimeInMinutes(22, 0);
+
+  private static final int DURATION_30_MINUTES = 30;
+
+  @Test
+  public void overlappingAndTouchingEventsAreMerged() {
+    // Events  : |--A--|
+    //               |--A--|
+    //                     |--A--|
+    // Compiled: |--------A------|
+    CompiledTimelines timelines = CompiledTimelines.of(Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartEnd(TIME_0800AM, TIME_0900AM + 30, false),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 2", TimeRange.fromStartEnd(TIME_0900AM, TIME_1000AM, false),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 3", TimeRange.fromStartEnd(TIME_1000AM, TIME_1100AM, false),
+            Arrays.asList(PERSON_A))));
+
+    Assert.assertArrayEquals(new int[] {TIME_0800AM, TIME_1100AM},
+        timelines.getBoundaries(PERSON_A, 0));
+  }
+
+  @Test
+  public void eventsAreSplitAtMidnight() {
+    // 22:00 on day 0 to 8:00 on day 1.
+    int end = TimeRange.getTimeInMinutes(1, 8, 0);
+    CompiledTimelines timelines = CompiledTimelines.of(Arrays.asList(new Event("Event 1",
+        TimeRange.fromStartEnd(TIME_1000PM, end, false), Arrays.asList(PERSON_A))));
+
+    Assert.assertArrayEquals(new int[] {TIME_1000PM, TimeRange.MINUTES_IN_DAY},
+        timelines.getBoundaries(PERSON_A, 0));
+    Assert.assertArrayEquals(new int[] {TimeRange.MINUTES_IN_DAY, end},
+        timelines.getBoundaries(PERSON_A, 1));
+    Assert.assertArrayEquals(new int[0], timelines.getBoundaries(PERSON_A, 2));
+  }
+
+  @Test
+  public void addRecompilesTheDay() {
+    CompiledTimelines timelines = CompiledTimelines.of(Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartEnd(TIME_0800AM, TIME_0900AM, false),
+            Arrays.asList(PERSON_A))));
+
+    timelines.add(new Event("Event 2", TimeRange.fromStartEnd(TIME_1000AM, TIME_1100AM, false),
+        Arrays.asList(PERSON_A, PERSON_B)));
+
+    Assert.assertArrayEquals(new int[] {TIME_0800AM, TIME_0900AM, TIME_1000AM, TIME_1100AM},
+        timelines.getBoundaries(PERSON_A, 0));
+    Assert.assertArrayEquals(new int[] {TIME_1000AM, TIME_1100AM},
+        timelines.getBoundaries(PERSON_B, 0));
+    Assert.assertEquals(2, timelines.size());
+  }
+
+  @Test
+  public void removeRecompilesTheDayFromTheRemainingEvents() {
+    Event event1 = new Event("Event 1", TimeRange.fromStartEnd(TIME_0800AM, TIME_1000AM, false),
+        Arrays.asList(PERSON_A));
+    Event event2 = new Event("Event 2", TimeRange.fromStartEnd(TIME_0900AM, TIME_1100AM, false),
+        Arrays.asList(PERSON_A));
+    SnapshotEventStore store = new SnapshotEventStore(Arrays.asList(event1, event2));
+    CompiledTimelines timelines = CompiledTimelines.of(store.getAllEvents());
+
+    store.remove(event1);
+    timelines.remove(event1, store);
+
+    Assert.assertArrayEquals(new int[] {TIME_0900AM, TIME_1100AM},
+        timelines.getBoundaries(PERSON_A, 0));
+  }
+
+  @Test
+  public void queryAcrossDays() {
+    // Person A is busy overnight, so the free time of the two days is split around it.
+    CompiledTimelines timelines = CompiledTimelines.of(Arrays.asList(new Event("Event 1",
+        TimeRange.fromStartEnd(TIME_1000PM, TimeRange.getTimeInMinutes(1, 8, 0), false),
+        Arrays.asList(PERSON_A))));
+    MeetingRequest request = new MeetingRequest(
+        Arrays.asList(PERSON_A), DURATION_30_MINUTES, TimeRange.fromDays(0, 2));
+
+    Assert.assertEquals(Arrays.asList(
+        TimeRange.fromStartEnd(0, TIME_1000PM, false),
+        TimeRange.fromStartEnd(TimeRange.getTimeInMinutes(1, 8, 0), 2 * TimeRange.MINUTES_IN_DAY,
+            false)),
+        timelines.query(request));
+  }
+
+  @Test
+  public void unknownAttendeesAreFree() {
+    CompiledTimelines timelines = CompiledTimelines.of(Collections.emptyList());
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+
+    Assert.assertEquals(Arrays.asList(TimeRange.WHOLE_DAY), timelines.query(request));
+  }
+}
@@ -0,0 +1,93 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class EventIndexTest {
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+  private static final String PERSON_C = "Person C";
+
+  private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_1000AM = TimeRange.getTimeInMinutes(10, 0);
+
+  private static final int DURATION_30_MINUTES = 30;
+
+  private static final Event EVENT_1 = new Event("Event 1",
+      TimeRange.fromStartDuration(TIME_1000AM, DURATION_30_MINUTES), Arrays.asList(PERSON_A));
+  private static final Event EVENT_2 = new Event("Event 2",
+      TimeRange.fromStartDuration(TIME_0800AM, DURATION_30_MINUTES),
+      Arrays.asList(PERSON_A, PERSON_B));
+  private static final Event EVENT_3 = new Event("Event 3",
+      TimeRange.fromStartDuration(TIME_0900AM, DURATION_30_MINUTES), Arrays.asList(PERSON_A));
+
+  @Test
+  public void busyRangesAreSortedByStart() {
+    EventIndex index = new EventIndex(Arrays.asList(EVENT_1, EVENT_2, EVENT_3));
+
+    List<TimeRange> expected =
+        Arrays.asList(EVENT_2.getWhen(), EVENT_3.getWhen(), EVENT_1.getWhen());
+
+    Assert.assertEquals(expected, index.getBusyRanges(PERSON_A));
+    Assert.assertEquals(Arrays.asList(EVENT_2.getWhen()), index.getBusyRanges(PERSON_B));
+    Assert.assertEquals(Collections.emptyList(), index.getBusyRanges(PERSON_C));
+  }
+
+  @Test
+  public void removeOnlyRemovesOneEvent() {
+    // Two events at the same time for the same person: removing one keeps the time busy.
+    Event sameTime = new Event("Same time", EVENT_2.getWhen(), Arrays.asList(PERSON_A));
+    EventIndex index = new EventIndex(Arrays.asList(EVENT_1, EVENT_2, sameTime));
+
+    index.remove(EVENT_2);
+
+    Assert.assertEquals(
+        Arrays.asList(EVENT_2.getWhen(), EVENT_1.getWhen()), index.getBusyRanges(PERSON_A));
+    Assert.assertEquals(Collections.emptyList(), index.getBusyRanges(PERSON_B));
+  }
+
+  @Test
+  public void removeUnknownEventIsIgnored() {
+    EventIndex index = new EventIndex(Arrays.asList(EVENT_1));
+
+    index.remove(EVENT_3);
+    index.remove(EVENT_2);
+
+    Assert.assertEquals(Arrays.asList(EVENT_1.getWhen()), index.getBusyRanges(PERSON_A));
+  }
+
+  @Test
+  public void indexedQueryMatchesScanningQuery() {
+    Collection<Event> events = Arrays.asList(Events.events);
+    EventIndex index = new EventIndex(events);
+    SweepLineMeetingQuery query = new SweepLineMeetingQuery();
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList("Amelia", "Logan"), 30);
+    request.addOptionalAttendee("Emma");
+
+    Assert.assertEquals(query.query(events, request), query.query(index, request));
+  }
+}
@@ -0,0 +1,129 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class FileEventStoreTest {
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+  private static final String PERSON_C = "Person C";
+
+  private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_1000AM = TimeRange.getTimeInMinutes(10, 0);
+  private static final int TIME_1100AM = TimeRange.getTimeInMinutes(11, 0);
+
+  private static final Event EVENT_1 = new Event("Event 1",
+      TimeRange.fromStartEnd(TIME_0800AM, TIME_0900AM, false), Arrays.asList(PERSON_A, PERSON_B));
+  private static final Event EVENT_2 = new Event("Event 2",
+      TimeRange.fromStartEnd(TIME_0900AM, TIME_1000AM, false), Arrays.asList(PERSON_C));
+  // Starts several buckets before 11:00AM and lasts until then.
+  private static final Event LONG_EVENT = new Event("Long Event",
+      TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_1100AM, false), Arrays.asList(PERSON_C));
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void eventsSurviveReopening() throws IOException {
+    File log = folder.newFile();
+    try (FileEventStore store = FileEventStore.open(log.toPath())) {
+      store.add(EVENT_1);
+      store.add(EVENT_2);
+    }
+
+    try (FileEventStore store = FileEventStore.open(log.toPath())) {
+      Assert.assertEquals(2, store.size());
+      Assert.assertEquals(
+          new HashSet<>(Arrays.asList(EVENT_1, EVENT_2)), new HashSet<>(store.getAllEvents()));
+    }
+  }
+
+  @Test
+  public void getEventsByAttendeeAndWindow() throws IOException {
+    File log = folder.newFile();
+    try (FileEventStore store = FileEventStore.open(log.toPath())) {
+      store.add(EVENT_1);
+      store.add(EVENT_2);
+      store.add(LONG_EVENT);
+    }
+
+    try (FileEventStore store = FileEventStore.open(log.toPath())) {
+      TimeRange window = TimeRange.fromStartEnd(TIME_1000AM, TIME_1100AM, false);
+
+      Assert.assertEquals(Arrays.asList(LONG_EVENT), store.getEvents(window));
+      Assert.assertEquals(
+          Arrays.asList(), store.getEvents(Arrays.asList(PERSON_A, PERSON_B), window));
+      Assert.assertEquals(Arrays.asList(EVENT_1),
+          store.getEvents(Arrays.asList(PERSON_A), TimeRange.WHOLE_DAY));
+      // Found through both attendees, but returned once.
+      Assert.assertEquals(Arrays.asList(EVENT_1),
+          store.getEvents(Arrays.asList(PERSON_A, PERSON_B), TimeRange.WHOLE_DAY));
+      // Starts long before the window, but reaches into it.
+      Assert.assertEquals(
+          Arrays.asList(LONG_EVENT), store.getEvents(Arrays.asList(PERSON_C), window));
+    }
+  }
+
+  @Test
+  public void eventsAddedAfterOpeningAreQueried() throws IOException {
+    File log = folder.newFile();
+    try (FileEventStore store = FileEventStore.open(log.toPath())) {
+      store.add(EVENT_1);
+    }
+
+    try (FileEventStore store = FileEventStore.open(log.toPath())) {
+      store.add(EVENT_2);
+
+      Collection<Event> actual = store.getEvents(Arrays.asList(PERSON_A, PERSON_C),
+          TimeRange.WHOLE_DAY);
+
+      Assert.assertEquals(Arrays.asList(EVENT_1, EVENT_2), actual);
+    }
+  }
+
+  @Test
+  public void partlyWrittenRecordIsDropped() throws IOException {
+    File log = folder.newFile();
+    try (FileEventStore store = FileEventStore.open(log.toPath())) {
+      store.add(EVENT_1);
+      store.add(EVENT_2);
+    }
+    try (RandomAccessFile file = new RandomAccessFile(log, "rw")) {
+      file.setLength(file.length() - 1);
+    }
+
+    try (FileEventStore store = FileEventStore.open(log.toPath())) {
+      Assert.assertEquals(Arrays.asList(EVENT_1), store.getAllEvents());
+      store.add(EVENT_2);
+    }
+    try (FileEventStore store = FileEventStore.open(log.toPath())) {
+      Assert.assertEquals(2, store.size());
+    }
+  }
+}
@@ -415,4 +415,26 @@ public final class FindMeetingQueryTest {
 
     Assert.assertEquals(expected, actual);
   }
+
+  @Test
+  public void queryAllAnswersEachRequestInOrder() {
+    // Answer several requests with overlapping attendees at once. Each answer should be the same
+    // as querying for that request on its own.
+    Collection<Event> events = Arrays.asList(Events.events);
+
+    MeetingRequest first = new MeetingRequest(Arrays.asList("Amelia", "Ava"), DURATION_30_MINUTES);
+    MeetingRequest second = new MeetingRequest(Arrays.asList("Ava", "Logan"), DURATION_1_HOUR);
+    second.addOptionalAttendee("Emma");
+    MeetingRequest third = new MeetingRequest(NO_ATTENDEES, DURATION_2_HOUR);
+    third.addOptionalAttendee("Noah");
+    List<MeetingRequest> requests = Arrays.asList(first, second, third);
+
+    List<Collection<TimeRange>> actual = query.queryAll(events, requests);
+    List<Collection<TimeRange>> expected = new ArrayList<>();
+    for (MeetingRequest request : requests) {
+      expected.add(query.query(events, request));
+    }
+
+    Assert.assertEquals(expected, actual);
+  }
 }
@@ -0,0 +1,131 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class FreeBusyTest {
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+
+  private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
+  private static final int TIME_0830AM = TimeRange.getTimeInMinutes(8, 30);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_1000AM = TimeRange.getTimeInMinutes(10, 0);
+  private static final int TIME_1100AM = TimeRange.getTimeInMinutes(11, 0);
+
+  @Test
+  public void overlappingEventsAreCondensedIntoRuns() {
+    // Events  :       |--A--|
+    //                    |--A--|     |--A--|
+    // Runs    : |free |  busy  |free | busy|
+    List<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartEnd(TIME_0800AM, TIME_0900AM, false),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 2", TimeRange.fromStartEnd(TIME_0830AM, TIME_1000AM, false),
+            Arrays.asList(PERSON_A, PERSON_B)),
+        new Event("Event 3", TimeRange.fromStartEnd(TIME_1100AM, TIME_1100AM + 30, false),
+            Arrays.asList(PERSON_A)));
+
+    FreeBusy freeBusy = FreeBusy.of(events, Arrays.asList(PERSON_A), TimeRange.WHOLE_DAY);
+
+    Assert.assertArrayEquals(new int[] {TIME_0800AM, 120, 60, 30}, freeBusy.getRuns(PERSON_A));
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartEnd(TIME_0800AM, TIME_1000AM, false),
+        TimeRange.fromStartDuration(TIME_1100AM, 30)), freeBusy.getBusyRanges(PERSON_A));
+    Assert.assertArrayEquals(new int[0], freeBusy.getRuns(PERSON_B));
+  }
+
+  @Test
+  public void eventsAreClippedToTheWindow() {
+    // Window  :    |-----|
+    // Events  : |--A--|
+    TimeRange window = TimeRange.fromStartEnd(TIME_0830AM, TIME_1000AM, false);
+    List<Event> events = Arrays.asList(new Event("Event 1",
+        TimeRange.fromStartEnd(TIME_0800AM, TIME_0900AM, false), Arrays.asList(PERSON_A)));
+
+    FreeBusy freeBusy = FreeBusy.of(events, Arrays.asList(PERSON_A, PERSON_B), window);
+
+    Assert.assertArrayEquals(new int[] {0, 30}, freeBusy.getRuns(PERSON_A));
+    Assert.assertEquals(
+        Arrays.asList(PERSON_A, PERSON_B), new ArrayList<>(freeBusy.getAttendees()));
+  }
+
+  @Test
+  public void encodeRoundTrip() {
+    TimeRange window = TimeRange.fromStartDuration(-30, 2 * TimeRange.MINUTES_IN_DAY);
+    List<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartEnd(TIME_0800AM, TIME_0900AM, false),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 2", TimeRange.fromStartDuration(TIME_1000AM, 0),
+            Arrays.asList(PERSON_B)));
+    FreeBusy freeBusy = FreeBusy.of(events, Arrays.asList(PERSON_A, PERSON_B), window);
+
+    FreeBusy decoded = FreeBusy.decode(freeBusy.encode());
+
+    Assert.assertEquals(window, decoded.getWindow());
+    Assert.assertEquals(
+        Arrays.asList(PERSON_A, PERSON_B), new ArrayList<>(decoded.getAttendees()));
+    Assert.assertArrayEquals(freeBusy.getRuns(PERSON_A), decoded.getRuns(PERSON_A));
+    Assert.assertArrayEquals(freeBusy.getRuns(PERSON_B), decoded.getRuns(PERSON_B));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void decodeRejectsTruncatedBytes() {
+    FreeBusy freeBusy = FreeBusy.of(Collections.emptyList(), Arrays.asList(PERSON_A),
+        TimeRange.WHOLE_DAY);
+    byte[] bytes = freeBusy.encode();
+
+    FreeBusy.decode(Arrays.copyOf(bytes, bytes.length - 1));
+  }
+
+  @Test
+  public void encodingIsAnOrderOfMagnitudeSmallerThanTheEvents() throws IOException {
+    // A busy day of hour-long meetings between five people.
+    List<String> people = Arrays.asList("Person A", "Person B", "Person C", "Person D", "Person E");
+    Random random = new Random(20200701L);
+    List<Event> events = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      int start = random.nextInt(TimeRange.MINUTES_IN_DAY - 60);
+      List<String> attendees = new ArrayList<>(people);
+      Collections.shuffle(attendees, random);
+      events.add(new Event("Weekly sync " + i, TimeRange.fromStartDuration(start, 60),
+          attendees.subList(0, 2 + random.nextInt(3))));
+    }
+
+    StringWriter eventsJson = new StringWriter();
+    JsonWriter out = new JsonWriter(eventsJson);
+    out.beginArray();
+    for (Event event : events) {
+      CalendarJson.writeEvent(out, event);
+    }
+    out.endArray();
+    byte[] encoded = FreeBusy.of(events, people, TimeRange.WHOLE_DAY).encode();
+
+    Assert.assertTrue(encoded.length * 10 <= eventsJson.toString().length());
+  }
+}
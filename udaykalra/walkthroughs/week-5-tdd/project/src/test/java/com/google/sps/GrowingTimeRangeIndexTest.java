@@ -0,0 +1,101 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class GrowingTimeRangeIndexTest {
+  private static final String PERSON_A = "Person A";
+
+  private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
+  private static final int TIME_0830AM = TimeRange.getTimeInMinutes(8, 30);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_1000AM = TimeRange.getTimeInMinutes(10, 0);
+
+  private static final Event EVENT_1 = new Event("Event 1",
+      TimeRange.fromStartEnd(TIME_0830AM, TIME_1000AM, false), Arrays.asList(PERSON_A));
+  private static final Event EVENT_2 = new Event("Event 2",
+      TimeRange.fromStartEnd(TIME_0800AM, TIME_0900AM, false), Arrays.asList(PERSON_A));
+  private static final Event EVENT_3 = new Event("Event 3",
+      TimeRange.fromStartEnd(TIME_0830AM, TIME_0900AM, false), Arrays.asList(PERSON_A));
+
+  @Test
+  public void emptyIndex() {
+    GrowingTimeRangeIndex<Event> index = GrowingTimeRangeIndex.ofEvents(Collections.emptyList());
+
+    Assert.assertEquals(0, index.size());
+    Assert.assertEquals(Arrays.asList(), index.overlapping(TimeRange.WHOLE_DAY));
+  }
+
+  @Test
+  public void addedEventsInStartOrder() {
+    // Events : |--2--|
+    //             |---1---|
+    //             |3-|
+    //
+    // Events 1 and 3 start together, so they are in the order they were added.
+    GrowingTimeRangeIndex<Event> index = GrowingTimeRangeIndex.ofEvents(Collections.emptyList())
+        .with(EVENT_1).with(EVENT_2).with(EVENT_3);
+
+    Assert.assertEquals(3, index.size());
+    Assert.assertEquals(
+        Arrays.asList(EVENT_2, EVENT_1, EVENT_3), index.overlapping(TimeRange.WHOLE_DAY));
+    Assert.assertEquals(Arrays.asList(EVENT_1),
+        index.overlapping(TimeRange.fromStartEnd(TIME_0900AM, TIME_1000AM, false)));
+  }
+
+  @Test
+  public void withLeavesTheIndexAlone() {
+    GrowingTimeRangeIndex<Event> index = GrowingTimeRangeIndex.ofEvents(Arrays.asList(EVENT_1));
+
+    GrowingTimeRangeIndex<Event> extended = index.with(EVENT_2);
+
+    Assert.assertEquals(1, index.size());
+    Assert.assertEquals(Arrays.asList(EVENT_1), index.overlapping(TimeRange.WHOLE_DAY));
+    Assert.assertEquals(Arrays.asList(EVENT_2, EVENT_1), extended.overlapping(TimeRange.WHOLE_DAY));
+  }
+
+  @Test
+  public void matchesRebuiltIndexAsItGrows() {
+    Random random = new Random(14);
+    List<Event> events = new ArrayList<>();
+    GrowingTimeRangeIndex<Event> index = GrowingTimeRangeIndex.ofEvents(Collections.emptyList());
+    for (int i = 0; i < 300; i++) {
+      // Starts on the hour, so that many events start together.
+      TimeRange when = TimeRange.fromStartDuration(60 * random.nextInt(24), random.nextInt(120));
+      Event event = new Event("Event " + i, when, Arrays.asList(PERSON_A));
+      events.add(event);
+      index = index.with(event);
+
+      TimeRangeIndex<Event> rebuilt = TimeRangeIndex.ofEvents(events);
+      for (int j = 0; j < 5; j++) {
+        TimeRange query = TimeRange.fromStartDuration(
+            random.nextInt(TimeRange.END_OF_DAY), random.nextInt(180));
+
+        Assert.assertEquals(rebuilt.overlapping(query), index.overlapping(query));
+      }
+    }
+  }
+}
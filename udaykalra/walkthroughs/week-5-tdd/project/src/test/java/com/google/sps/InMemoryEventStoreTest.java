@@ -0,0 +1,70 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.Collection;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class InMemoryEventStoreTest {
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+  private static final String PERSON_C = "Person C";
+
+  private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_1000AM = TimeRange.getTimeInMinutes(10, 0);
+
+  private static final Event EVENT_1 = new Event("Event 1",
+      TimeRange.fromStartEnd(TIME_0800AM, TIME_0900AM, false), Arrays.asList(PERSON_A, PERSON_B));
+  private static final Event EVENT_2 = new Event("Event 2",
+      TimeRange.fromStartEnd(TIME_0900AM, TIME_1000AM, false), Arrays.asList(PERSON_C));
+
+  @Test
+  public void getEventsInWindow() {
+    InMemoryEventStore store = new InMemoryEventStore(Arrays.asList(EVENT_1, EVENT_2));
+
+    Collection<Event> actual =
+        store.getEvents(TimeRange.fromStartEnd(TIME_0900AM, TIME_1000AM, false));
+
+    Assert.assertEquals(Arrays.asList(EVENT_2), actual);
+  }
+
+  @Test
+  public void getEventsOfAttendeesReturnsEachEventOnce() {
+    InMemoryEventStore store = new InMemoryEventStore(Arrays.asList(EVENT_1, EVENT_2));
+
+    Collection<Event> actual =
+        store.getEvents(Arrays.asList(PERSON_A, PERSON_B), TimeRange.WHOLE_DAY);
+
+    Assert.assertEquals(Arrays.asList(EVENT_1), actual);
+    Assert.assertEquals(2, store.size());
+  }
+
+  @Test
+  public void versionChangesWhenEventsAreAdded() {
+    InMemoryEventStore store = new InMemoryEventStore(Arrays.asList(EVENT_1));
+    long version = store.getVersion();
+
+    store.add(EVENT_2);
+
+    Assert.assertNotEquals(version, store.getVersion());
+  }
+}
@@ -0,0 +1,191 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class ItinerarySolverTest {
+  private static final Collection<Event> NO_EVENTS = Collections.emptySet();
+
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+  private static final String PERSON_C = "Person C";
+
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_1000AM = TimeRange.getTimeInMinutes(10, 0);
+  private static final int TIME_1030AM = TimeRange.getTimeInMinutes(10, 30);
+  private static final int TIME_1100AM = TimeRange.getTimeInMinutes(11, 0);
+  private static final int TIME_1200PM = TimeRange.getTimeInMinutes(12, 0);
+
+  private static final int DURATION_30_MINUTES = 30;
+  private static final int DURATION_60_MINUTES = 60;
+
+  private static final long BUDGET_MILLIS = 10_000;
+
+  @Test
+  public void backToBackAroundBusyInterviewers() {
+    // Person A : |--A--|
+    // Person B :             |--B--|
+    // Loops    :       |-A-|-B-|          is blocked by B, which leaves
+    //                        |-A-|-B-|
+    //                              |-A-|-B-|
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartEnd(TIME_0900AM, TIME_1000AM, false),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 2", TimeRange.fromStartEnd(TIME_1030AM, TIME_1100AM, false),
+            Arrays.asList(PERSON_B)));
+    TimeRange window = TimeRange.fromStartEnd(TIME_0900AM, TIME_1200PM, false);
+    ItineraryRequest itinerary =
+        new ItineraryRequest(
+                new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES, window))
+            .then(new MeetingRequest(Arrays.asList(PERSON_B), DURATION_30_MINUTES, window), 0, 0);
+
+    List<List<TimeRange>> actual =
+        new ItinerarySolver(DURATION_30_MINUTES).solve(events, itinerary, 5, BUDGET_MILLIS);
+
+    Assert.assertEquals(Arrays.asList(
+        Arrays.asList(TimeRange.fromStartDuration(TIME_1030AM, DURATION_30_MINUTES),
+            TimeRange.fromStartDuration(TIME_1100AM, DURATION_30_MINUTES)),
+        Arrays.asList(TimeRange.fromStartDuration(TIME_1100AM, DURATION_30_MINUTES),
+            TimeRange.fromStartDuration(TIME_1100AM + DURATION_30_MINUTES, DURATION_30_MINUTES))),
+        actual);
+  }
+
+  @Test
+  public void gapsAndCountAreRespected() {
+    ItineraryRequest itinerary =
+        new ItineraryRequest(new MeetingRequest(Arrays.asList(PERSON_A), DURATION_60_MINUTES))
+            .then(new MeetingRequest(Arrays.asList(PERSON_B), DURATION_30_MINUTES), 15, 30);
+
+    List<List<TimeRange>> actual =
+        new ItinerarySolver(15).solve(NO_EVENTS, itinerary, 3, BUDGET_MILLIS);
+
+    Assert.assertEquals(Arrays.asList(
+        Arrays.asList(TimeRange.fromStartDuration(0, DURATION_60_MINUTES),
+            TimeRange.fromStartDuration(75, DURATION_30_MINUTES)),
+        Arrays.asList(TimeRange.fromStartDuration(0, DURATION_60_MINUTES),
+            TimeRange.fromStartDuration(90, DURATION_30_MINUTES)),
+        Arrays.asList(TimeRange.fromStartDuration(15, DURATION_60_MINUTES),
+            TimeRange.fromStartDuration(90, DURATION_30_MINUTES))),
+        actual);
+  }
+
+  @Test
+  public void noItineraryWhenTheLastMeetingCannotFit() {
+    // Person C is busy for everything but the first half hour of the day, which is before A's
+    // meeting could end.
+    Collection<Event> events = Arrays.asList(new Event("Event 1",
+        TimeRange.fromStartEnd(DURATION_30_MINUTES, TimeRange.END_OF_DAY, true),
+        Arrays.asList(PERSON_C)));
+    ItineraryRequest itinerary =
+        new ItineraryRequest(new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES))
+            .then(new MeetingRequest(Arrays.asList(PERSON_B), DURATION_30_MINUTES), 0, 60)
+            .then(new MeetingRequest(Arrays.asList(PERSON_C), DURATION_30_MINUTES), 0, 60);
+
+    List<List<TimeRange>> actual =
+        new ItinerarySolver(1).solve(events, itinerary, 5, BUDGET_MILLIS);
+
+    Assert.assertEquals(Arrays.asList(), actual);
+  }
+
+  @Test
+  public void findsEveryItineraryAtMinuteGranularity() {
+    // With a granularity of a minute the solver should find exactly the itineraries that trying
+    // every combination of start minutes does.
+    Random random = new Random(21);
+    TimeRange window = TimeRange.fromStartEnd(TIME_0900AM, TIME_1200PM, false);
+    List<String> people = Arrays.asList(PERSON_A, PERSON_B, PERSON_C);
+    for (int trial = 0; trial < 20; trial++) {
+      List<Event> events = new ArrayList<>();
+      for (int i = 0; i < 6; i++) {
+        int start = TIME_0900AM + random.nextInt(180);
+        events.add(new Event("Event " + i, TimeRange.fromStartDuration(start, random.nextInt(45)),
+            Arrays.asList(people.get(random.nextInt(people.size())))));
+      }
+      int[] durations = new int[people.size()];
+      int[] minGaps = new int[people.size()];
+      int[] maxGaps = new int[people.size()];
+      ItineraryRequest itinerary = null;
+      for (int i = 0; i < people.size(); i++) {
+        durations[i] = 10 + random.nextInt(30);
+        minGaps[i] = random.nextInt(5);
+        maxGaps[i] = minGaps[i] + random.nextInt(10);
+        MeetingRequest meeting =
+            new MeetingRequest(Arrays.asList(people.get(i)), durations[i], window);
+        itinerary = itinerary == null
+            ? new ItineraryRequest(meeting)
+            : itinerary.then(meeting, minGaps[i], maxGaps[i]);
+      }
+
+      List<List<TimeRange>> expected = new ArrayList<>();
+      bruteForce(events, people, window, durations, minGaps, maxGaps, new ArrayList<>(),
+          expected);
+      List<List<TimeRange>> actual =
+          new ItinerarySolver(1).solve(events, itinerary, Integer.MAX_VALUE, BUDGET_MILLIS);
+
+      Assert.assertEquals(expected, actual);
+    }
+  }
+
+  /** Tries every start minute of each meeting in turn, keeping the itineraries that work. */
+  private static void bruteForce(List<Event> events, List<String> people, TimeRange window,
+      int[] durations, int[] minGaps, int[] maxGaps, List<TimeRange> placed,
+      List<List<TimeRange>> itineraries) {
+    int i = placed.size();
+    if (i == people.size()) {
+      itineraries.add(new ArrayList<>(placed));
+      return;
+    }
+    int first = i == 0 ? window.start() : placed.get(i - 1).end() + minGaps[i];
+    int last = i == 0 ? window.end() : placed.get(i - 1).end() + maxGaps[i];
+    for (int start = first; start <= last; start++) {
+      TimeRange when = TimeRange.fromStartDuration(start, durations[i]);
+      if (window.contains(when) && isFree(events, people.get(i), when)) {
+        placed.add(when);
+        bruteForce(events, people, window, durations, minGaps, maxGaps, placed, itineraries);
+        placed.remove(i);
+      }
+    }
+  }
+
+  /**
+   * Returns whether {@code person} is free for {@code when}. A zero-duration event only gets in
+   * the way if it falls strictly inside the meeting, as it splits free time in the queries.
+   */
+  private static boolean isFree(List<Event> events, String person, TimeRange when) {
+    for (Event event : events) {
+      TimeRange busy = event.getWhen();
+      if (!event.getAttendees().contains(person)) {
+        continue;
+      }
+      if (busy.duration() > 0 ? busy.overlaps(when)
+          : busy.start() > when.start() && busy.start() < when.end()) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
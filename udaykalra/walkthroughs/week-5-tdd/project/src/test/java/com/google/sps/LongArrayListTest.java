@@ -0,0 +1,59 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class LongArrayListTest {
+  @Test
+  public void growsPastItsCapacity() {
+    LongArrayList list = new LongArrayList(1);
+    for (long value = 0; value < 100; value++) {
+      list.add(value);
+    }
+
+    Assert.assertEquals(100, list.size());
+    Assert.assertEquals(99, list.get(99));
+  }
+
+  @Test
+  public void sortAndTruncate() {
+    LongArrayList list = new LongArrayList();
+    list.add(3);
+    list.add(-1);
+    list.add(2);
+
+    list.sort();
+    list.truncate(2);
+
+    Assert.assertEquals(2, list.size());
+    Assert.assertEquals(-1, list.get(0));
+    Assert.assertEquals(2, list.get(1));
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void getPastTheEnd() {
+    LongArrayList list = new LongArrayList();
+    list.add(1);
+    list.clear();
+
+    list.get(0);
+  }
+}
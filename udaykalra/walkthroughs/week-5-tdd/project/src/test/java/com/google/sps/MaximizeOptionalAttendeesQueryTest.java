@@ -0,0 +1,153 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class MaximizeOptionalAttendeesQueryTest {
+  private static final Collection<Event> NO_EVENTS = Collections.emptySet();
+
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+  private static final String PERSON_C = "Person C";
+  private static final String PERSON_D = "Person D";
+
+  private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
+  private static final int TIME_0830AM = TimeRange.getTimeInMinutes(8, 30);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_0930AM = TimeRange.getTimeInMinutes(9, 30);
+  private static final int TIME_1000AM = TimeRange.getTimeInMinutes(10, 0);
+
+  private static final int DURATION_30_MINUTES = 30;
+
+  private MaximizeOptionalAttendeesQuery query;
+
+  @Before
+  public void setUp() {
+    query = new MaximizeOptionalAttendeesQuery();
+  }
+
+  @Test
+  public void noOptionalAttendees() {
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+
+    List<MeetingSlot> actual = query.query(NO_EVENTS, request);
+    List<MeetingSlot> expected = Arrays.asList(new MeetingSlot(TimeRange.WHOLE_DAY, 0));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void keepsOptionalAttendeesThatFit() {
+    // The all-or-nothing query would drop both optional attendees, since B and C are never free at
+    // the same time. The best we can do is one of them.
+    //
+    // Events  : |--A--|     |-----------A-----------|
+    // Optional:       |--B--|
+    //           |--------C--------|
+    // Day     : |-----------------------------------|
+    // Options :       |--1--|
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0800AM, false),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 2", TimeRange.fromStartEnd(TIME_0830AM, TimeRange.END_OF_DAY, true),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 3", TimeRange.fromStartDuration(TIME_0800AM, DURATION_30_MINUTES),
+            Arrays.asList(PERSON_B)),
+        new Event("Event 4", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0900AM, false),
+            Arrays.asList(PERSON_C)));
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+    request.addOptionalAttendee(PERSON_B);
+    request.addOptionalAttendee(PERSON_C);
+
+    List<MeetingSlot> actual = query.query(events, request);
+    List<MeetingSlot> expected = Arrays.asList(
+        new MeetingSlot(TimeRange.fromStartDuration(TIME_0800AM, DURATION_30_MINUTES), 0));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void countsOptionalAttendeesPerSlot() {
+    // Optional:       |--B--|
+    //                       |--C--|
+    //                 |-----D-----|
+    // Day     : |-----------------------------|
+    // Best    : |--3--|           |-----3-----|
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartDuration(TIME_0800AM, DURATION_30_MINUTES),
+            Arrays.asList(PERSON_B)),
+        new Event("Event 2", TimeRange.fromStartDuration(TIME_0830AM, DURATION_30_MINUTES),
+            Arrays.asList(PERSON_C)),
+        new Event("Event 3", TimeRange.fromStartEnd(TIME_0800AM, TIME_0900AM, false),
+            Arrays.asList(PERSON_D)));
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+    request.addOptionalAttendee(PERSON_B);
+    request.addOptionalAttendee(PERSON_C);
+    request.addOptionalAttendee(PERSON_D);
+
+    List<MeetingSlot> actual = query.query(events, request);
+    List<MeetingSlot> expected = Arrays.asList(
+        new MeetingSlot(TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0800AM, false), 3),
+        new MeetingSlot(TimeRange.fromStartEnd(TIME_0900AM, TimeRange.END_OF_DAY, true), 3));
+
+    Assert.assertEquals(expected, actual);
+
+    // Between the best slots, meetings lose B or C, and those overlapping both lose everyone.
+    List<MeetingSlot> all = MaximizeOptionalAttendeesQuery.allSlots(events, request);
+    Assert.assertEquals(
+        Arrays.asList(
+            new MeetingSlot(TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0800AM, false), 3),
+            new MeetingSlot(TimeRange.fromStartEnd(TIME_0800AM - 29, TIME_0830AM, false), 1),
+            new MeetingSlot(TimeRange.fromStartEnd(TIME_0800AM + 1, TIME_0900AM - 1, false), 0),
+            new MeetingSlot(TimeRange.fromStartEnd(TIME_0830AM, TIME_0930AM - 1, false), 1),
+            new MeetingSlot(TimeRange.fromStartEnd(TIME_0900AM, TimeRange.END_OF_DAY, true), 3)),
+        all);
+  }
+
+  @Test
+  public void requiredAttendeesAlwaysRespected() {
+    // Events  :       |--A--|
+    // Optional: |--B--|     |--B--|
+    // Day     : |-----------------------------|
+    // Best    :             |--------1--------|  (B is free, A is busy before)
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0930AM, false),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 2", TimeRange.fromStartDuration(TIME_0930AM, DURATION_30_MINUTES),
+            Arrays.asList(PERSON_B)));
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+    request.addOptionalAttendee(PERSON_B);
+
+    List<MeetingSlot> actual = query.query(events, request);
+    List<MeetingSlot> expected = Arrays.asList(
+        new MeetingSlot(TimeRange.fromStartEnd(TIME_1000AM, TimeRange.END_OF_DAY, true), 1));
+
+    Assert.assertEquals(expected, actual);
+  }
+}
@@ -0,0 +1,302 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Checks that every {@link MeetingQuery} implementation returns the same time ranges as
+ * {@link FindMeetingQuery} on randomly generated calendars. A disagreement is shrunk to a minimal
+ * calendar and request before it is reported.
+ *
+ * <p>The number of cases and the seed can be set with the {@code differential.cases} and
+ * {@code differential.seed} system properties, e.g.
+ * {@code mvn test -Dtest=MeetingQueryDifferentialTest -Ddifferential.cases=1000000}.
+ */
+@RunWith(JUnit4.class)
+public final class MeetingQueryDifferentialTest {
+  private static final int CASES = Integer.getInteger("differential.cases", 5000);
+  private static final long SEED = Long.getLong("differential.seed", 20200701L);
+
+  private static final String[] PEOPLE = {"Person A", "Person B", "Person C", "Person D"};
+
+  private static final FindMeetingQuery REFERENCE_QUERY = new FindMeetingQuery();
+  private static final MeetingQuery REFERENCE = REFERENCE_QUERY;
+
+  @Test
+  public void sweepLineAgreesWithFindMeetingQuery() {
+    assertAgreesWithReference(new SweepLineMeetingQuery());
+  }
+
+  @Test
+  public void minuteBitmapAgreesWithFindMeetingQuery() {
+    assertAgreesWithReference(new MinuteBitmapMeetingQuery());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void minuteBitmapRejectsOverlongWindow() {
+    TimeRange window = TimeRange.fromDays(0, MinuteBitmapMeetingQuery.MAX_WINDOW_DAYS + 1);
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PEOPLE[0]), 30, window);
+
+    new MinuteBitmapMeetingQuery().query(Collections.emptyList(), request);
+  }
+
+  @Test
+  public void condensedRangesAgreesWithFindMeetingQuery() {
+    assertAgreesWithReference(new CondensedRangesMeetingQuery());
+  }
+
+  @Test
+  public void packedRangesAgreesWithFindMeetingQuery() {
+    assertAgreesWithReference(new PackedRangesMeetingQuery());
+  }
+
+  @Test
+  public void parallelAgreesWithFindMeetingQuery() {
+    // A tiny threshold so that even the small generated calendars are split across tasks.
+    assertAgreesWithReference(new ParallelMeetingQuery(ForkJoinPool.commonPool(), 2));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void parallelRejectsOverlongWindow() {
+    TimeRange window = TimeRange.fromDays(0, MinuteBitmapMeetingQuery.MAX_WINDOW_DAYS + 1);
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PEOPLE[0]), 30, window);
+
+    new ParallelMeetingQuery(ForkJoinPool.commonPool(), 2).query(Collections.emptyList(), request);
+  }
+
+  @Test
+  public void compactEventStoreAgreesWithFindMeetingQuery() {
+    assertAgreesWithReference(
+        (events, request) -> REFERENCE_QUERY.query(new CompactEventStore(events), request));
+  }
+
+  @Test
+  public void compiledTimelinesAgreeWithFindMeetingQuery() {
+    assertAgreesWithReference(
+        (events, request) -> CompiledTimelines.of(events).query(request));
+  }
+
+  @Test
+  public void incrementallyCompiledTimelinesAgreeWithFindMeetingQuery() {
+    assertAgreesWithReference((events, request) -> {
+      CompiledTimelines timelines = CompiledTimelines.of(Collections.emptyList());
+      for (Event event : events) {
+        timelines.add(event);
+      }
+      return timelines.query(request);
+    });
+  }
+
+  private static void assertAgreesWithReference(MeetingQuery query) {
+    Random random = new Random(SEED);
+    for (int i = 0; i < CASES; i++) {
+      Case testCase = Case.random(random);
+      if (!testCase.agrees(query)) {
+        Case minimal = shrink(testCase, query);
+        Assert.fail(String.format("Case %d disagrees with %s after shrinking:%n%s%n"
+                + "expected: %s%nactual:   %s",
+            i, REFERENCE.getClass().getSimpleName(), minimal, minimal.run(REFERENCE),
+            minimal.run(query)));
+      }
+    }
+  }
+
+  /**
+   * Repeatedly replaces the case with a smaller one that still disagrees, until none of its
+   * smaller cases disagree.
+   */
+  private static Case shrink(Case testCase, MeetingQuery query) {
+    boolean shrunk = true;
+    while (shrunk) {
+      shrunk = false;
+      for (Case smaller : testCase.smaller()) {
+        if (!smaller.agrees(query)) {
+          testCase = smaller;
+          shrunk = true;
+          break;
+        }
+      }
+    }
+    return testCase;
+  }
+
+  /** A calendar and a request to run every implementation against. */
+  private static final class Case {
+    private final List<Event> events;
+    private final List<String> attendees;
+    private final List<String> optionalAttendees;
+    private final long duration;
+    private final TimeRange window;
+
+    private Case(List<Event> events, List<String> attendees, List<String> optionalAttendees,
+        long duration, TimeRange window) {
+      this.events = events;
+      this.attendees = attendees;
+      this.optionalAttendees = optionalAttendees;
+      this.duration = duration;
+      this.window = window;
+    }
+
+    static Case random(Random random) {
+      // Mostly single days, sometimes a window spanning two days and events outside of it.
+      int days = random.nextInt(8) == 0 ? 2 : 1;
+      TimeRange window = TimeRange.fromDays(random.nextInt(8) == 0 ? 1 : 0, days);
+
+      List<Event> events = new ArrayList<>();
+      int eventCount = random.nextInt(9);
+      for (int i = 0; i < eventCount; i++) {
+        TimeRange when = randomTimeRange(random, events, days + 1);
+        events.add(new Event("Event " + i, when, randomPeople(random, 1)));
+      }
+
+      List<String> attendees = randomPeople(random, 0);
+      List<String> optionalAttendees = new ArrayList<>(randomPeople(random, 0));
+      optionalAttendees.removeAll(attendees);
+
+      return new Case(events, attendees, optionalAttendees, randomDuration(random, days),
+          random.nextBoolean() && days == 1 && window.start() == 0 ? null : window);
+    }
+
+    /**
+     * Returns a time range for a new event, biased towards the edge cases: zero-duration events,
+     * events back to back with or nested in an earlier one, and events lasting a whole day.
+     */
+    private static TimeRange randomTimeRange(Random random, List<Event> events, int days) {
+      int span = days * TimeRange.MINUTES_IN_DAY;
+      TimeRange previous = events.isEmpty() ? null : events.get(random.nextInt(events.size()))
+          .getWhen();
+      switch (random.nextInt(6)) {
+        case 0:
+          return TimeRange.fromStartDuration(random.nextInt(span), 0);
+        case 1:
+          if (previous != null && previous.end() < span) {
+            return TimeRange.fromStartEnd(
+                previous.end(), previous.end() + random.nextInt(span - previous.end()), true);
+          }
+          break;
+        case 2:
+          if (previous != null) {
+            int start = previous.start() + random.nextInt(previous.duration() + 1);
+            return TimeRange.fromStartEnd(
+                start, start + random.nextInt(previous.end() - start + 1), false);
+          }
+          break;
+        case 3:
+          return TimeRange.fromDays(random.nextInt(days), 1);
+        default:
+          break;
+      }
+      int start = random.nextInt(span);
+      return TimeRange.fromStartDuration(start, random.nextInt(Math.min(240, span - start) + 1));
+    }
+
+    private static long randomDuration(Random random, int days) {
+      switch (random.nextInt(8)) {
+        case 0:
+          return 0;
+        case 1:
+          return 1;
+        case 2:
+          return days * TimeRange.MINUTES_IN_DAY + random.nextInt(3) - 1;
+        default:
+          return 1 + random.nextInt(180);
+      }
+    }
+
+    private static List<String> randomPeople(Random random, int minimum) {
+      List<String> people = new ArrayList<>();
+      for (String person : PEOPLE) {
+        if (random.nextInt(3) == 0) {
+          people.add(person);
+        }
+      }
+      if (people.size() < minimum) {
+        people.add(PEOPLE[random.nextInt(PEOPLE.length)]);
+      }
+      return people;
+    }
+
+    Collection<TimeRange> run(MeetingQuery query) {
+      MeetingRequest request = new MeetingRequest(attendees, duration, window);
+      for (String attendee : optionalAttendees) {
+        request.addOptionalAttendee(attendee);
+      }
+      return new ArrayList<>(query.query(events, request));
+    }
+
+    boolean agrees(MeetingQuery query) {
+      return run(REFERENCE).equals(run(query));
+    }
+
+    /** Returns the cases one step smaller than this one, most aggressive first. */
+    List<Case> smaller() {
+      List<Case> cases = new ArrayList<>();
+      for (int i = 0; i < events.size(); i++) {
+        List<Event> fewerEvents = new ArrayList<>(events);
+        fewerEvents.remove(i);
+        cases.add(new Case(fewerEvents, attendees, optionalAttendees, duration, window));
+      }
+      for (int i = 0; i < events.size(); i++) {
+        Event event = events.get(i);
+        for (String attendee : event.getAttendees()) {
+          if (event.getAttendees().size() > 1) {
+            List<String> fewer = new ArrayList<>(event.getAttendees());
+            fewer.remove(attendee);
+            List<Event> simpler = new ArrayList<>(events);
+            simpler.set(i, new Event(event.getTitle(), event.getWhen(), fewer));
+            cases.add(new Case(simpler, attendees, optionalAttendees, duration, window));
+          }
+        }
+      }
+      for (String attendee : attendees) {
+        List<String> fewer = new ArrayList<>(attendees);
+        fewer.remove(attendee);
+        cases.add(new Case(events, fewer, optionalAttendees, duration, window));
+      }
+      for (String attendee : optionalAttendees) {
+        List<String> fewer = new ArrayList<>(optionalAttendees);
+        fewer.remove(attendee);
+        cases.add(new Case(events, attendees, fewer, duration, window));
+      }
+      if (duration > 1) {
+        cases.add(new Case(events, attendees, optionalAttendees, duration / 2, window));
+        cases.add(new Case(events, attendees, optionalAttendees, duration - 1, window));
+      }
+      return cases;
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder builder = new StringBuilder();
+      for (Event event : events) {
+        builder.append(String.format("  event %s %s%n", event.getWhen(), event.getAttendees()));
+      }
+      builder.append(String.format("  request %s optional %s for %d minutes in %s",
+          attendees, optionalAttendees, duration, window == null ? "the whole day" : window));
+      return builder.toString();
+    }
+  }
+}
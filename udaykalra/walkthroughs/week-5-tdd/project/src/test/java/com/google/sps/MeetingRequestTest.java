@@ -44,4 +44,31 @@ public final class MeetingRequestTest {
     int expected = 0;
     Assert.assertEquals(expected, actual);
   }
-}
\ No newline at end of file
+
+  @Test
+  public void windowDefaultsToWholeDay() {
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_1_HOUR);
+
+    Assert.assertEquals(TimeRange.WHOLE_DAY, request.getWindow());
+  }
+
+  @Test
+  public void windowCanSpanSeveralDays() {
+    TimeRange window = TimeRange.fromDays(7, 7);
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_1_HOUR, window);
+
+    Assert.assertEquals(window, request.getWindow());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsNegativeWindow() {
+    new MeetingRequest(
+        Arrays.asList(PERSON_A), DURATION_1_HOUR, TimeRange.fromStartDuration(0, -100));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsWindowEndingPastLastMinute() {
+    new MeetingRequest(Arrays.asList(PERSON_A), DURATION_1_HOUR,
+        TimeRange.fromStartDuration(Integer.MAX_VALUE - 100, 1000));
+  }
+}
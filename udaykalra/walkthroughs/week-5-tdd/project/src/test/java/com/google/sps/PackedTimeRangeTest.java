@@ -0,0 +1,64 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class PackedTimeRangeTest {
+  private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
+  private static final int TIME_0830AM = TimeRange.getTimeInMinutes(8, 30);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+
+  @Test
+  public void packAndUnpack() {
+    // Negative starts survive packing too.
+    long packed = PackedTimeRange.pack(-60, 120);
+
+    Assert.assertEquals(-60, PackedTimeRange.start(packed));
+    Assert.assertEquals(120, PackedTimeRange.duration(packed));
+    Assert.assertEquals(60, PackedTimeRange.end(packed));
+    Assert.assertEquals(TimeRange.fromStartDuration(-60, 120), PackedTimeRange.toTimeRange(packed));
+  }
+
+  @Test
+  public void packedRangesSortByStartThenDuration() {
+    long earlyLong = PackedTimeRange.pack(TIME_0800AM, 60);
+    long earlyShort = PackedTimeRange.pack(TIME_0800AM, 0);
+    long late = PackedTimeRange.pack(TIME_0830AM, 30);
+    long beforeEpoch = PackedTimeRange.pack(-30, 30);
+
+    Assert.assertTrue(beforeEpoch < earlyShort);
+    Assert.assertTrue(earlyShort < earlyLong);
+    Assert.assertTrue(earlyLong < late);
+  }
+
+  @Test
+  public void overlapsLikeTimeRange() {
+    long first = PackedTimeRange.pack(TIME_0800AM, 30);
+    long adjacent = PackedTimeRange.pack(TIME_0830AM, 30);
+    long point = PackedTimeRange.pack(TIME_0800AM + 10, 0);
+    long later = PackedTimeRange.pack(TIME_0900AM, 30);
+
+    Assert.assertFalse(PackedTimeRange.overlaps(first, adjacent));
+    Assert.assertTrue(PackedTimeRange.overlaps(first, point));
+    Assert.assertTrue(PackedTimeRange.overlaps(point, first));
+    Assert.assertFalse(PackedTimeRange.overlaps(first, later));
+  }
+}
@@ -0,0 +1,179 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class QueryResultCacheTest {
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+  private static final String PERSON_C = "Person C";
+
+  private static final String ALGORITHM = "sweep-line";
+  private static final int DURATION_30_MINUTES = 30;
+  private static final long TIME_TO_LIVE_MILLIS = 1000;
+
+  private static final Collection<TimeRange> ANSWER = Arrays.asList(TimeRange.WHOLE_DAY);
+
+  private ManualClock clock;
+  private AtomicInteger computeCount;
+  private Supplier<Collection<TimeRange>> query;
+
+  @Before
+  public void setUp() {
+    clock = new ManualClock();
+    computeCount = new AtomicInteger();
+    query = () -> {
+      computeCount.incrementAndGet();
+      return ANSWER;
+    };
+  }
+
+  @Test
+  public void sameAttendeesInAnyOrderHit() {
+    QueryResultCache cache = new QueryResultCache(10, TIME_TO_LIVE_MILLIS, clock);
+    MeetingRequest first = request(Arrays.asList(PERSON_A, PERSON_B), PERSON_C);
+    MeetingRequest second = request(Arrays.asList(PERSON_B, PERSON_A), PERSON_C);
+
+    Assert.assertEquals(ANSWER, cache.get(first, ALGORITHM, 0, query));
+    Assert.assertEquals(ANSWER, cache.get(second, ALGORITHM, 0, query));
+
+    Assert.assertEquals(1, computeCount.get());
+    Assert.assertEquals(1, cache.getHitCount());
+    Assert.assertEquals(1, cache.getMissCount());
+    Assert.assertEquals(0.5, cache.getHitRatio(), 0);
+  }
+
+  @Test
+  public void differentOptionalAttendeesOrAlgorithmMiss() {
+    QueryResultCache cache = new QueryResultCache(10, TIME_TO_LIVE_MILLIS, clock);
+
+    cache.get(request(Arrays.asList(PERSON_A), PERSON_B), ALGORITHM, 0, query);
+    cache.get(request(Arrays.asList(PERSON_A), PERSON_C), ALGORITHM, 0, query);
+    cache.get(request(Arrays.asList(PERSON_A), PERSON_C), "minute-bitmap", 0, query);
+
+    Assert.assertEquals(3, computeCount.get());
+  }
+
+  @Test
+  public void newVersionDropsOlderAnswers() {
+    QueryResultCache cache = new QueryResultCache(10, TIME_TO_LIVE_MILLIS, clock);
+    MeetingRequest request = request(Arrays.asList(PERSON_A), PERSON_B);
+
+    cache.get(request, ALGORITHM, 0, query);
+    cache.get(request, ALGORITHM, 1, query);
+    // An answer over an older version is computed but not cached.
+    cache.get(request, ALGORITHM, 0, query);
+
+    Assert.assertEquals(3, computeCount.get());
+    Assert.assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void answersExpire() {
+    QueryResultCache cache = new QueryResultCache(10, TIME_TO_LIVE_MILLIS, clock);
+    MeetingRequest request = request(Arrays.asList(PERSON_A), PERSON_B);
+
+    cache.get(request, ALGORITHM, 0, query);
+    clock.advance(TIME_TO_LIVE_MILLIS - 1);
+    cache.get(request, ALGORITHM, 0, query);
+    clock.advance(1);
+    cache.get(request, ALGORITHM, 0, query);
+
+    Assert.assertEquals(2, computeCount.get());
+  }
+
+  @Test
+  public void leastRecentlyUsedIsEvicted() {
+    QueryResultCache cache = new QueryResultCache(2, TIME_TO_LIVE_MILLIS, clock);
+    MeetingRequest requestA = request(Arrays.asList(PERSON_A), PERSON_B);
+    MeetingRequest requestB = request(Arrays.asList(PERSON_B), PERSON_C);
+    MeetingRequest requestC = request(Arrays.asList(PERSON_C), PERSON_A);
+
+    cache.get(requestA, ALGORITHM, 0, query);
+    cache.get(requestB, ALGORITHM, 0, query);
+    // Using A makes B the least recently used, so C replaces it.
+    cache.get(requestA, ALGORITHM, 0, query);
+    cache.get(requestC, ALGORITHM, 0, query);
+    cache.get(requestA, ALGORITHM, 0, query);
+
+    Assert.assertEquals(3, computeCount.get());
+    Assert.assertEquals(1, cache.getEvictionCount());
+    Assert.assertEquals(2, cache.size());
+  }
+
+  @Test
+  public void estimatedBytesFollowEntries() {
+    QueryResultCache cache = new QueryResultCache(10, TIME_TO_LIVE_MILLIS, clock);
+
+    cache.get(request(Arrays.asList(PERSON_A), PERSON_B), ALGORITHM, 0, query);
+    long oneEntry = cache.getEstimatedBytes();
+    Assert.assertTrue(oneEntry > 0);
+
+    // A newer version drops the old entry before the new one is added.
+    cache.get(request(Arrays.asList(PERSON_A), PERSON_B), ALGORITHM, 1, query);
+    Assert.assertEquals(oneEntry, cache.getEstimatedBytes());
+    Assert.assertEquals(1, cache.size());
+  }
+
+  private static MeetingRequest request(Collection<String> attendees, String optionalAttendee) {
+    MeetingRequest request = new MeetingRequest(attendees, DURATION_30_MINUTES);
+    request.addOptionalAttendee(optionalAttendee);
+    return request;
+  }
+
+  /** A clock that only moves when told to. */
+  private static final class ManualClock extends Clock {
+    private long millis = 0;
+
+    void advance(long millis) {
+      this.millis += millis;
+    }
+
+    @Override
+    public long millis() {
+      return millis;
+    }
+
+    @Override
+    public Instant instant() {
+      return Instant.ofEpochMilli(millis);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
@@ -0,0 +1,123 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class RankedMeetingQueryTest {
+  private static final Collection<Event> NO_EVENTS = Collections.emptySet();
+
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_1000AM = TimeRange.getTimeInMinutes(10, 0);
+  private static final int TIME_1030AM = TimeRange.getTimeInMinutes(10, 30);
+  private static final int TIME_1100AM = TimeRange.getTimeInMinutes(11, 0);
+  private static final int TIME_0500PM = TimeRange.getTimeInMinutes(17, 0);
+
+  private static final int DURATION_30_MINUTES = 30;
+  private static final int DURATION_60_MINUTES = 60;
+
+  private static final TimeRange WORKING_HOURS =
+      TimeRange.fromStartEnd(TIME_0900AM, TIME_0500PM, false);
+
+  @Test
+  public void returnsAtMostKSlotsWithinPreferredHours() {
+    RankedMeetingQuery query = new RankedMeetingQuery(15, 3, WORKING_HOURS);
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_60_MINUTES);
+
+    List<RankedSlot> actual = query.query(NO_EVENTS, request);
+
+    Assert.assertEquals(3, actual.size());
+    // Every time in working hours scores the same, so the earliest ones win.
+    Assert.assertEquals(TimeRange.fromStartDuration(TIME_0900AM, DURATION_60_MINUTES),
+        actual.get(0).getWhen());
+    Assert.assertEquals(TimeRange.fromStartDuration(TIME_0900AM + 15, DURATION_60_MINUTES),
+        actual.get(1).getWhen());
+    Assert.assertEquals(TimeRange.fromStartDuration(TIME_0900AM + 30, DURATION_60_MINUTES),
+        actual.get(2).getWhen());
+  }
+
+  @Test
+  public void prefersTimesOptionalAttendeesCanMake() {
+    // Events  :          |--B--|
+    // Best    : |-1-|
+    RankedMeetingQuery query = new RankedMeetingQuery(30, 1, WORKING_HOURS);
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartEnd(TIME_0900AM, TIME_0500PM, false),
+            Arrays.asList(PERSON_B)));
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+    request.addOptionalAttendee(PERSON_B);
+
+    List<RankedSlot> actual = query.query(events, request);
+
+    // Outside working hours with B beats inside them without B.
+    Assert.assertEquals(1, actual.size());
+    Assert.assertEquals(1, actual.get(0).getOptionalAttendeeCount());
+    Assert.assertEquals(
+        TimeRange.fromStartDuration(TIME_0900AM - DURATION_30_MINUTES, DURATION_30_MINUTES),
+        actual.get(0).getWhen());
+  }
+
+  @Test
+  public void avoidsLeavingUnusableGaps() {
+    // Events  : |--A--|           |--A--|
+    // Day     : 9:00  10:00   11:00  5:00
+    // Options :       |-1-|   |-3-|
+    //
+    // A meeting at 10:15 would leave two gaps too short for another meeting.
+    RankedMeetingQuery query = new RankedMeetingQuery(15, 2, WORKING_HOURS);
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartEnd(TIME_0900AM, TIME_1000AM, false),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 2", TimeRange.fromStartEnd(TIME_1100AM, TIME_0500PM, false),
+            Arrays.asList(PERSON_A)));
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES,
+        TimeRange.fromStartEnd(TIME_0900AM, TIME_0500PM, false));
+
+    List<RankedSlot> actual = query.query(events, request);
+    List<RankedSlot> expected = Arrays.asList(
+        new RankedSlot(TimeRange.fromStartDuration(TIME_1000AM, DURATION_30_MINUTES), 0,
+            RankedMeetingQuery.COVERAGE_WEIGHT),
+        new RankedSlot(TimeRange.fromStartDuration(TIME_1030AM, DURATION_30_MINUTES), 0,
+            RankedMeetingQuery.COVERAGE_WEIGHT));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void noSlotsForTooLongOfARequest() {
+    RankedMeetingQuery query = new RankedMeetingQuery(15, 5, WORKING_HOURS);
+    MeetingRequest request =
+        new MeetingRequest(Arrays.asList(PERSON_A), TimeRange.WHOLE_DAY.duration() + 1);
+
+    Assert.assertEquals(Arrays.asList(), query.query(NO_EVENTS, request));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsTooLargeK() {
+    new RankedMeetingQuery(15, Integer.MAX_VALUE, WORKING_HOURS);
+  }
+}
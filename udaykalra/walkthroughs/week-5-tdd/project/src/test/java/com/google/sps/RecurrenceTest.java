@@ -0,0 +1,173 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class RecurrenceTest {
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+
+  // Day 0, 1 January 1970, was a Thursday.
+  private static final int THURSDAY = 0;
+  private static final int MONDAY = 4;
+
+  private static final int DURATION_30_MINUTES = 30;
+  private static final int DURATION_60_MINUTES = 60;
+
+  private static final TimeRange THURSDAY_0900AM =
+      TimeRange.fromStartDuration(TimeRange.getTimeInMinutes(THURSDAY, 9, 0), DURATION_60_MINUTES);
+
+  @Test
+  public void dailyEveryOtherDay() {
+    Recurrence recurrence = Recurrence.daily(THURSDAY_0900AM, 2);
+
+    Assert.assertEquals(
+        Arrays.asList(at(THURSDAY, 9, 0), at(THURSDAY + 2, 9, 0), at(THURSDAY + 4, 9, 0)),
+        occurrences(recurrence, TimeRange.fromDays(THURSDAY, 6)));
+  }
+
+  @Test
+  public void weeklyOnSomeDays() {
+    Recurrence recurrence = Recurrence.weekly(
+        THURSDAY_0900AM, 1, EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.THURSDAY));
+
+    Assert.assertEquals(
+        Arrays.asList(at(THURSDAY, 9, 0), at(MONDAY, 9, 0), at(THURSDAY + 7, 9, 0)),
+        occurrences(recurrence, TimeRange.fromDays(THURSDAY, 8)));
+  }
+
+  @Test
+  public void weeklyDefaultsToTheDayOfTheFirstOccurrence() {
+    Recurrence recurrence = Recurrence.weekly(THURSDAY_0900AM, 2, Collections.emptyList());
+
+    Assert.assertEquals(Arrays.asList(at(THURSDAY, 9, 0), at(THURSDAY + 14, 9, 0)),
+        occurrences(recurrence, TimeRange.fromDays(THURSDAY, 21)));
+  }
+
+  @Test
+  public void exceptionsAndEndAreSkipped() {
+    Recurrence recurrence = Recurrence.daily(THURSDAY_0900AM, 1)
+        .except(TimeRange.getTimeInMinutes(THURSDAY + 1, 9, 0))
+        .until(TimeRange.getTimeInMinutes(THURSDAY + 3, 9, 0));
+
+    Assert.assertEquals(Arrays.asList(at(THURSDAY, 9, 0), at(THURSDAY + 2, 9, 0)),
+        occurrences(recurrence, TimeRange.fromDays(THURSDAY, 7)));
+  }
+
+  @Test
+  public void windowStartingDuringAnOccurrence() {
+    // Occurrence : |--9:00-10:00--|
+    // Window     :        |-9:30-...
+    Recurrence recurrence = Recurrence.daily(THURSDAY_0900AM, 1);
+    TimeRange window = TimeRange.fromStartEnd(TimeRange.getTimeInMinutes(THURSDAY + 1, 9, 30),
+        TimeRange.getTimeInMinutes(THURSDAY + 2, 9, 0), false);
+
+    Assert.assertEquals(Arrays.asList(at(THURSDAY + 1, 9, 0)), occurrences(recurrence, window));
+  }
+
+  @Test
+  public void occurrencesFarFromTheFirstAreFoundDirectly() {
+    // Every other Monday at 9:00 for the foreseeable future, queried ten years in.
+    Recurrence recurrence = Recurrence.weekly(
+        TimeRange.fromStartDuration(TimeRange.getTimeInMinutes(MONDAY, 9, 0), DURATION_60_MINUTES),
+        2, Collections.emptyList());
+    int day = MONDAY + 2 * 7 * 260;
+
+    Assert.assertEquals(Arrays.asList(at(day, 9, 0), at(day + 14, 9, 0)),
+        occurrences(recurrence, TimeRange.fromDays(day - 1, 21)));
+  }
+
+  @Test
+  public void queryMatchesMaterializedOccurrences() {
+    // A year of recurring meetings should give the same answer as the events they stand for.
+    Random random = new Random(19);
+    TimeRange horizon = TimeRange.fromDays(0, 365);
+    for (int trial = 0; trial < 50; trial++) {
+      List<RecurringEvent> recurringEvents = new ArrayList<>();
+      List<Event> events = new ArrayList<>();
+      for (int i = 0; i < 6; i++) {
+        RecurringEvent recurringEvent = randomRecurringEvent(random, "Series " + i);
+        recurringEvents.add(recurringEvent);
+        Iterator<TimeRange> it = recurringEvent.getRecurrence().occurrences(horizon);
+        while (it.hasNext()) {
+          events.add(new Event("Series " + i, it.next(), recurringEvent.getAttendees()));
+        }
+      }
+
+      int firstDay = random.nextInt(358);
+      MeetingRequest request = new MeetingRequest(
+          Arrays.asList(PERSON_A), DURATION_30_MINUTES, TimeRange.fromDays(firstDay, 7));
+      request.addOptionalAttendee(PERSON_B);
+
+      Assert.assertEquals(new FindMeetingQuery().query(events, request),
+          new FindMeetingQuery().query(Collections.emptyList(), recurringEvents, request));
+    }
+  }
+
+  private static RecurringEvent randomRecurringEvent(Random random, String title) {
+    TimeRange first = TimeRange.fromStartDuration(
+        TimeRange.getTimeInMinutes(random.nextInt(60), random.nextInt(24), 15 * random.nextInt(4)),
+        15 * random.nextInt(12));
+    Recurrence recurrence;
+    if (random.nextBoolean()) {
+      recurrence = Recurrence.daily(first, 1 + random.nextInt(3));
+    } else {
+      List<DayOfWeek> days = new ArrayList<>();
+      for (DayOfWeek day : DayOfWeek.values()) {
+        if (random.nextInt(3) == 0) {
+          days.add(day);
+        }
+      }
+      recurrence = Recurrence.weekly(first, 1 + random.nextInt(3), days);
+    }
+    for (int i = 0; i < 5; i++) {
+      recurrence = recurrence.except(
+          first.start() + TimeRange.MINUTES_IN_DAY * random.nextInt(365));
+    }
+    if (random.nextBoolean()) {
+      recurrence = recurrence.until(first.start() + TimeRange.MINUTES_IN_DAY * random.nextInt(365));
+    }
+    Collection<String> attendees = random.nextBoolean()
+        ? Arrays.asList(PERSON_A)
+        : Arrays.asList(PERSON_B);
+    return new RecurringEvent(title, recurrence, attendees);
+  }
+
+  private static TimeRange at(int day, int hours, int minutes) {
+    return TimeRange.fromStartDuration(
+        TimeRange.getTimeInMinutes(day, hours, minutes), DURATION_60_MINUTES);
+  }
+
+  private static List<TimeRange> occurrences(Recurrence recurrence, TimeRange window) {
+    List<TimeRange> occurrences = new ArrayList<>();
+    recurrence.occurrences(window).forEachRemaining(occurrences::add);
+    return occurrences;
+  }
+}
@@ -0,0 +1,171 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class RoomMeetingQueryTest {
+  private static final Collection<Event> NO_EVENTS = Collections.emptySet();
+  private static final Collection<String> NO_EQUIPMENT = Collections.emptySet();
+
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+
+  private static final String PROJECTOR = "projector";
+
+  private static final Room SMALL_ROOM = new Room("Small Room", 1, NO_EQUIPMENT);
+  private static final Room ROOM_1 = new Room("Room 1", 4, NO_EQUIPMENT);
+  private static final Room ROOM_2 = new Room("Room 2", 8, Arrays.asList(PROJECTOR));
+
+  private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_1000AM = TimeRange.getTimeInMinutes(10, 0);
+  private static final int TIME_1100AM = TimeRange.getTimeInMinutes(11, 0);
+  private static final int TIME_1200PM = TimeRange.getTimeInMinutes(12, 0);
+
+  private static final int DURATION_30_MINUTES = 30;
+
+  @Test
+  public void preferredRoomWhenSeveralAreFree() {
+    RoomMeetingQuery query = new RoomMeetingQuery(Arrays.asList(ROOM_1, ROOM_2));
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+
+    List<RoomSlot> actual = query.query(NO_EVENTS, request, NO_EQUIPMENT);
+
+    Assert.assertEquals(Arrays.asList(new RoomSlot(TimeRange.WHOLE_DAY, ROOM_1)), actual);
+  }
+
+  @Test
+  public void attendeesAndRoomsAreIntersected() {
+    // Person A :       |--A--|
+    // Room 1   :                   |--R1--|
+    // Room 2   : |-------------R2---------|
+    // Slots    : |-1-|       |--1--|      |--------1--------|
+    //
+    // Both rooms are free after 11:00, so the preferred Room 1 is given.
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartEnd(TIME_0800AM, TIME_0900AM, false),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 2", TimeRange.fromStartEnd(TIME_1000AM, TIME_1100AM, false),
+            Arrays.asList(ROOM_1.getName())),
+        new Event("Event 3", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_1100AM, false),
+            Arrays.asList(ROOM_2.getName())));
+    RoomMeetingQuery query = new RoomMeetingQuery(Arrays.asList(ROOM_1, ROOM_2));
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+
+    List<RoomSlot> actual = query.query(events, request, NO_EQUIPMENT);
+
+    Assert.assertEquals(Arrays.asList(
+        new RoomSlot(TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0800AM, false), ROOM_1),
+        new RoomSlot(TimeRange.fromStartEnd(TIME_0900AM, TIME_1000AM, false), ROOM_1),
+        new RoomSlot(TimeRange.fromStartEnd(TIME_1100AM, TimeRange.END_OF_DAY, true), ROOM_1)),
+        actual);
+  }
+
+  @Test
+  public void preferredRoomNotHiddenByLongerSlotInBiggerRoom() {
+    // Room 1   : |---R1---|     |-------------R1-------------|
+    // Room 2   : |---R2---|                 |-------R2-------|
+    // Slots    :          |-1-|
+    //                     |-----2-----|
+    //
+    // Room 2 is free for longer, but Room 1 is preferred for the time they are both free.
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0900AM, false),
+            Arrays.asList(ROOM_1.getName(), ROOM_2.getName())),
+        new Event("Event 2", TimeRange.fromStartEnd(TIME_1000AM, TimeRange.END_OF_DAY, true),
+            Arrays.asList(ROOM_1.getName())),
+        new Event("Event 3", TimeRange.fromStartEnd(TIME_1200PM, TimeRange.END_OF_DAY, true),
+            Arrays.asList(ROOM_2.getName())));
+    RoomMeetingQuery query = new RoomMeetingQuery(Arrays.asList(ROOM_1, ROOM_2));
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+
+    List<RoomSlot> actual = query.query(events, request, NO_EQUIPMENT);
+
+    Assert.assertEquals(Arrays.asList(
+        new RoomSlot(TimeRange.fromStartEnd(TIME_0900AM, TIME_1000AM, false), ROOM_1),
+        new RoomSlot(TimeRange.fromStartEnd(TIME_0900AM, TIME_1200PM, false), ROOM_2)),
+        actual);
+  }
+
+  @Test
+  public void equipmentRulesOutRooms() {
+    RoomMeetingQuery query = new RoomMeetingQuery(Arrays.asList(ROOM_1, ROOM_2));
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+
+    List<RoomSlot> actual = query.query(NO_EVENTS, request, Arrays.asList(PROJECTOR));
+
+    Assert.assertEquals(Arrays.asList(new RoomSlot(TimeRange.WHOLE_DAY, ROOM_2)), actual);
+  }
+
+  @Test
+  public void noSuitableRoom() {
+    RoomMeetingQuery query = new RoomMeetingQuery(Arrays.asList(ROOM_1));
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+
+    List<RoomSlot> actual = query.query(NO_EVENTS, request, Arrays.asList(PROJECTOR));
+
+    Assert.assertEquals(Arrays.asList(), actual);
+  }
+
+  @Test
+  public void optionalAttendeeDroppedWhenNoRoomHoldsThem() {
+    RoomMeetingQuery query = new RoomMeetingQuery(Arrays.asList(SMALL_ROOM));
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+    request.addOptionalAttendee(PERSON_B);
+
+    List<RoomSlot> actual = query.query(NO_EVENTS, request, NO_EQUIPMENT);
+
+    Assert.assertEquals(Arrays.asList(new RoomSlot(TimeRange.WHOLE_DAY, SMALL_ROOM)), actual);
+  }
+
+  @Test
+  public void singleRoomMatchesBookingItAsAnAttendee() {
+    // With one room, the room behaves exactly like one more required attendee.
+    Random random = new Random(22);
+    List<String> people = Arrays.asList(PERSON_A, PERSON_B, ROOM_1.getName());
+    for (int trial = 0; trial < 200; trial++) {
+      List<Event> events = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        TimeRange when = TimeRange.fromStartDuration(
+            random.nextInt(TimeRange.MINUTES_IN_DAY), random.nextInt(120));
+        events.add(new Event("Event " + i, when,
+            Arrays.asList(people.get(random.nextInt(people.size())))));
+      }
+      int duration = 15 * (1 + random.nextInt(8));
+      MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A, PERSON_B), duration);
+      MeetingRequest withRoom = new MeetingRequest(people, duration);
+
+      List<TimeRange> actual = new ArrayList<>();
+      for (RoomSlot slot : new RoomMeetingQuery(Arrays.asList(ROOM_1))
+          .query(events, request, NO_EQUIPMENT)) {
+        actual.add(slot.getWhen());
+      }
+
+      Assert.assertEquals(new FindMeetingQuery().query(events, withRoom), actual);
+    }
+  }
+}
@@ -0,0 +1,178 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class SnapshotEventStoreTest {
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+  private static final String PERSON_C = "Person C";
+
+  private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_1000AM = TimeRange.getTimeInMinutes(10, 0);
+
+  private static final Event EVENT_1 = new Event("Event 1",
+      TimeRange.fromStartEnd(TIME_0800AM, TIME_0900AM, false), Arrays.asList(PERSON_A, PERSON_B));
+  private static final Event EVENT_2 = new Event("Event 2",
+      TimeRange.fromStartEnd(TIME_0900AM, TIME_1000AM, false), Arrays.asList(PERSON_C));
+
+  // The writers and readers of the stress test, and how many events each writer adds.
+  private static final int WRITERS = 2;
+  private static final int READERS = 4;
+  private static final int EVENTS_PER_WRITER = 2000;
+
+  @Test
+  public void getEventsInWindow() {
+    SnapshotEventStore store = new SnapshotEventStore(Arrays.asList(EVENT_1, EVENT_2));
+
+    Collection<Event> actual =
+        store.getEvents(TimeRange.fromStartEnd(TIME_0900AM, TIME_1000AM, false));
+
+    Assert.assertEquals(Arrays.asList(EVENT_2), actual);
+  }
+
+  @Test
+  public void getEventsOfAttendeesReturnsEachEventOnce() {
+    SnapshotEventStore store = new SnapshotEventStore(Arrays.asList(EVENT_1, EVENT_2));
+
+    Collection<Event> actual =
+        store.getEvents(Arrays.asList(PERSON_A, PERSON_B), TimeRange.WHOLE_DAY);
+
+    Assert.assertEquals(Arrays.asList(EVENT_1), actual);
+    Assert.assertEquals(2, store.size());
+  }
+
+  @Test
+  public void snapshotIsUnaffectedByLaterChanges() {
+    SnapshotEventStore store = new SnapshotEventStore(Arrays.asList(EVENT_1));
+    SnapshotEventStore.Snapshot snapshot = store.snapshot();
+
+    store.add(EVENT_2);
+    store.remove(EVENT_1);
+
+    Assert.assertEquals(Arrays.asList(EVENT_1), new ArrayList<>(snapshot.getAllEvents()));
+    Assert.assertEquals(Arrays.asList(EVENT_2), new ArrayList<>(store.getAllEvents()));
+    Assert.assertEquals(snapshot.getVersion() + 2, store.getVersion());
+  }
+
+  @Test
+  public void removeTakesOutOneEqualEvent() {
+    Event copy = new Event("Event 1", EVENT_1.getWhen(), EVENT_1.getAttendees());
+    SnapshotEventStore store = new SnapshotEventStore(Arrays.asList(EVENT_1, EVENT_1, EVENT_2));
+
+    Assert.assertTrue(store.remove(copy));
+
+    Assert.assertEquals(Arrays.asList(EVENT_1, EVENT_2), new ArrayList<>(store.getAllEvents()));
+    Assert.assertEquals(Arrays.asList(EVENT_1),
+        store.getEvents(Arrays.asList(PERSON_A), TimeRange.WHOLE_DAY));
+  }
+
+  @Test
+  public void removeOfMissingEventChangesNothing() {
+    SnapshotEventStore store = new SnapshotEventStore(Arrays.asList(EVENT_1));
+    long version = store.getVersion();
+
+    Assert.assertFalse(store.remove(EVENT_2));
+
+    Assert.assertEquals(version, store.getVersion());
+  }
+
+  @Test
+  public void readersSeeConsistentSnapshotsUnderConcurrentWrites() throws Exception {
+    // Each writer adds events for its own attendee, and removes every other one again, while the
+    // readers check that every snapshot they see agrees with itself and answers queries.
+    SnapshotEventStore store = new SnapshotEventStore();
+    ExecutorService executor = Executors.newFixedThreadPool(WRITERS + READERS);
+    CountDownLatch start = new CountDownLatch(1);
+    AtomicBoolean writing = new AtomicBoolean(true);
+
+    List<Future<?>> writers = new ArrayList<>();
+    for (int w = 0; w < WRITERS; w++) {
+      String attendee = "Writer " + w;
+      writers.add(executor.submit(() -> {
+        start.await();
+        for (int i = 0; i < EVENTS_PER_WRITER; i++) {
+          Event event = new Event(attendee + " event " + i,
+              TimeRange.fromStartDuration(i % TimeRange.MINUTES_IN_DAY, 1),
+              Collections.singleton(attendee));
+          store.add(event);
+          if (i % 2 == 1) {
+            Assert.assertTrue(store.remove(event));
+          }
+        }
+        return null;
+      }));
+    }
+
+    List<Future<Long>> readers = new ArrayList<>();
+    for (int r = 0; r < READERS; r++) {
+      readers.add(executor.submit(() -> {
+        start.await();
+        long reads = 0;
+        long lastVersion = -1;
+        do {
+          SnapshotEventStore.Snapshot snapshot = store.snapshot();
+          Assert.assertTrue(snapshot.getVersion() >= lastVersion);
+          lastVersion = snapshot.getVersion();
+
+          int byAttendee = 0;
+          for (int w = 0; w < WRITERS; w++) {
+            byAttendee += snapshot.getEvents(
+                Collections.singleton("Writer " + w), TimeRange.WHOLE_DAY).size();
+          }
+          Assert.assertEquals(snapshot.size(), byAttendee);
+          Assert.assertEquals(snapshot.size(), snapshot.getEvents(TimeRange.WHOLE_DAY).size());
+
+          MeetingRequest request = new MeetingRequest(Arrays.asList("Writer 0", "Writer 1"), 1);
+          new FindMeetingQuery().query(
+              snapshot.getEvents(request.getAttendees(), request.getWindow()), request);
+          reads++;
+        } while (writing.get());
+        return reads;
+      }));
+    }
+
+    start.countDown();
+    for (Future<?> writer : writers) {
+      writer.get(1, TimeUnit.MINUTES);
+    }
+    writing.set(false);
+    for (Future<Long> reader : readers) {
+      Assert.assertTrue(reader.get(1, TimeUnit.MINUTES) > 0);
+    }
+    executor.shutdown();
+
+    Assert.assertEquals(WRITERS * EVENTS_PER_WRITER / 2, store.size());
+    Assert.assertEquals(WRITERS * EVENTS_PER_WRITER * 3 / 2, store.getVersion());
+  }
+}
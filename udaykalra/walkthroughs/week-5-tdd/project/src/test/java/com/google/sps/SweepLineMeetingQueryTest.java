@@ -0,0 +1,249 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class SweepLineMeetingQueryTest {
+  private static final Collection<Event> NO_EVENTS = Collections.emptySet();
+  private static final Collection<String> NO_ATTENDEES = Collections.emptySet();
+
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+  private static final String PERSON_C = "Person C";
+
+  private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
+  private static final int TIME_0830AM = TimeRange.getTimeInMinutes(8, 30);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_0930AM = TimeRange.getTimeInMinutes(9, 30);
+  private static final int TIME_1000AM = TimeRange.getTimeInMinutes(10, 0);
+
+  private static final int DURATION_30_MINUTES = 30;
+  private static final int DURATION_60_MINUTES = 60;
+  private static final int DURATION_90_MINUTES = 90;
+
+  private SweepLineMeetingQuery query;
+
+  @Before
+  public void setUp() {
+    query = new SweepLineMeetingQuery();
+  }
+
+  @Test
+  public void optionsForNoAttendees() {
+    MeetingRequest request = new MeetingRequest(NO_ATTENDEES, DURATION_60_MINUTES);
+
+    Collection<TimeRange> actual = query.query(NO_EVENTS, request);
+    Collection<TimeRange> expected = Arrays.asList(TimeRange.WHOLE_DAY);
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void noOptionsForTooLongOfARequest() {
+    int duration = TimeRange.WHOLE_DAY.duration() + 1;
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), duration);
+
+    Collection<TimeRange> actual = query.query(NO_EVENTS, request);
+
+    Assert.assertEquals(Arrays.asList(), actual);
+  }
+
+  @Test
+  public void overlappingAndNestedEvents() {
+    // Events  :       |--A--|
+    //                     |--B--|
+    //                       |C|
+    // Day     : |-----------------------------|
+    // Options : |--1--|         |-----2-------|
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartDuration(TIME_0830AM, DURATION_60_MINUTES),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 2", TimeRange.fromStartDuration(TIME_0900AM, DURATION_60_MINUTES),
+            Arrays.asList(PERSON_B)),
+        new Event("Event 3", TimeRange.fromStartDuration(TIME_0900AM, DURATION_30_MINUTES),
+            Arrays.asList(PERSON_C)));
+
+    MeetingRequest request =
+        new MeetingRequest(Arrays.asList(PERSON_A, PERSON_B, PERSON_C), DURATION_30_MINUTES);
+
+    Collection<TimeRange> actual = query.query(events, request);
+    Collection<TimeRange> expected =
+        Arrays.asList(TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0830AM, false),
+            TimeRange.fromStartEnd(TIME_1000AM, TimeRange.END_OF_DAY, true));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void backToBackEventsLeaveNoGap() {
+    // Events  :       |--A--||--A--|
+    // Day     : |-----------------------------|
+    // Options : |--1--|             |----2----|
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartDuration(TIME_0800AM, DURATION_30_MINUTES),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 2", TimeRange.fromStartDuration(TIME_0830AM, DURATION_30_MINUTES),
+            Arrays.asList(PERSON_A)));
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), 0);
+
+    Collection<TimeRange> actual = query.query(events, request);
+    Collection<TimeRange> expected =
+        Arrays.asList(TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0800AM, false),
+            TimeRange.fromStartEnd(TIME_0900AM, TimeRange.END_OF_DAY, true));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void optionalAttendeeIncludedWhenPossible() {
+    // Events  :       |--A--|     |--B--|
+    // Optional:             |--C--|
+    // Day     : |-----------------------------|
+    // Options : |--1--|                 |--2--|
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartDuration(TIME_0800AM, DURATION_30_MINUTES),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 2", TimeRange.fromStartDuration(TIME_0900AM, DURATION_30_MINUTES),
+            Arrays.asList(PERSON_B)),
+        new Event("Event 3", TimeRange.fromStartDuration(TIME_0830AM, DURATION_30_MINUTES),
+            Arrays.asList(PERSON_C)));
+
+    MeetingRequest request =
+        new MeetingRequest(Arrays.asList(PERSON_A, PERSON_B), DURATION_30_MINUTES);
+    request.addOptionalAttendee(PERSON_C);
+
+    Collection<TimeRange> actual = query.query(events, request);
+    Collection<TimeRange> expected =
+        Arrays.asList(TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0800AM, false),
+            TimeRange.fromStartEnd(TIME_0930AM, TimeRange.END_OF_DAY, true));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void optionalAttendeeIgnoredWhenBusyAllDay() {
+    // Events  : |--A--|     |----A----|
+    // Optional: |-----------C---------|
+    // Day     : |---------------------|
+    // Options :       |-----|
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0830AM, false),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 2", TimeRange.fromStartEnd(TIME_0900AM, TimeRange.END_OF_DAY, true),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 3", TimeRange.WHOLE_DAY, Arrays.asList(PERSON_C)));
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+    request.addOptionalAttendee(PERSON_C);
+
+    Collection<TimeRange> actual = query.query(events, request);
+    Collection<TimeRange> expected =
+        Arrays.asList(TimeRange.fromStartDuration(TIME_0830AM, DURATION_30_MINUTES));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void onlyBusyOptionalAttendees() {
+    // With no required attendees, busy optional attendees leave no options.
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0900AM, false),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 2", TimeRange.fromStartEnd(TIME_0900AM, TimeRange.END_OF_DAY, true),
+            Arrays.asList(PERSON_B)));
+
+    MeetingRequest request = new MeetingRequest(NO_ATTENDEES, DURATION_90_MINUTES);
+    request.addOptionalAttendee(PERSON_A);
+    request.addOptionalAttendee(PERSON_B);
+
+    Collection<TimeRange> actual = query.query(events, request);
+
+    Assert.assertEquals(Arrays.asList(), actual);
+  }
+
+  @Test
+  public void searchesWholeWindowAcrossDays() {
+    // Search days 1 through 3. A is busy during the working day on days 1 and 3 and all of day 2,
+    // so the free time runs across midnight at either end of day 2. Events outside the window are
+    // ignored.
+    //
+    // Events  :  |-A-|   |------A------|   |-A-|
+    // Window  : |---day 1---|---day 2---|---day 3---|
+    // Options : |1|  |-----2---|     |---3---|  |4|
+    int day1Start = TimeRange.getTimeInMinutes(1, 9, 0);
+    int day1End = TimeRange.getTimeInMinutes(1, 17, 0);
+    int day2Start = TimeRange.getTimeInMinutes(2, 6, 0);
+    int day2End = TimeRange.getTimeInMinutes(2, 20, 0);
+    int day3Start = TimeRange.getTimeInMinutes(3, 9, 0);
+    int day3End = TimeRange.getTimeInMinutes(3, 17, 0);
+    TimeRange window = TimeRange.fromDays(1, 3);
+
+    Collection<Event> events = Arrays.asList(
+        new Event("Before", TimeRange.fromStartDuration(TIME_0900AM, DURATION_60_MINUTES),
+            Arrays.asList(PERSON_A)),
+        new Event("Day 1", TimeRange.fromStartEnd(day1Start, day1End, false),
+            Arrays.asList(PERSON_A)),
+        new Event("Day 2", TimeRange.fromStartEnd(day2Start, day2End, false),
+            Arrays.asList(PERSON_A)),
+        new Event("Day 3", TimeRange.fromStartEnd(day3Start, day3End, false),
+            Arrays.asList(PERSON_A)),
+        new Event("After", TimeRange.fromDays(4, 1), Arrays.asList(PERSON_A)));
+
+    MeetingRequest request =
+        new MeetingRequest(Arrays.asList(PERSON_A), DURATION_60_MINUTES, window);
+
+    Collection<TimeRange> actual = query.query(events, request);
+    Collection<TimeRange> expected =
+        Arrays.asList(TimeRange.fromStartEnd(window.start(), day1Start, false),
+            TimeRange.fromStartEnd(day1End, day2Start, false),
+            TimeRange.fromStartEnd(day2End, day3Start, false),
+            TimeRange.fromStartEnd(day3End, window.end(), false));
+
+    Assert.assertEquals(expected, actual);
+    Assert.assertEquals(expected, new FindMeetingQuery().query(events, request));
+  }
+
+  @Test
+  public void eventOutlastingWindowLeavesNoTrailingOption() {
+    // Window  : |-----------|
+    // Events  :      |--A------|   |--A--|
+    // Options : |-1-|
+    TimeRange window = TimeRange.fromStartEnd(TIME_0800AM, TIME_1000AM, false);
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartDuration(TIME_0830AM, DURATION_90_MINUTES),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 2", TimeRange.fromDays(1, 1), Arrays.asList(PERSON_A)));
+
+    MeetingRequest request =
+        new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES, window);
+
+    Collection<TimeRange> actual = query.query(events, request);
+    Collection<TimeRange> expected =
+        Arrays.asList(TimeRange.fromStartEnd(TIME_0800AM, TIME_0830AM, false));
+
+    Assert.assertEquals(expected, actual);
+  }
+}
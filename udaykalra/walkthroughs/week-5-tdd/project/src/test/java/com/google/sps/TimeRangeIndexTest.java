@@ -0,0 +1,101 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class TimeRangeIndexTest {
+  private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
+  private static final int TIME_0830AM = TimeRange.getTimeInMinutes(8, 30);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_1000AM = TimeRange.getTimeInMinutes(10, 0);
+
+  private static final TimeRange RANGE_A = TimeRange.fromStartEnd(TIME_0800AM, TIME_0900AM, false);
+  private static final TimeRange RANGE_B = TimeRange.fromStartEnd(TIME_0830AM, TIME_1000AM, false);
+  private static final TimeRange RANGE_C = TimeRange.fromStartDuration(TIME_0900AM, 0);
+
+  @Test
+  public void emptyIndex() {
+    TimeRangeIndex<TimeRange> index =
+        new TimeRangeIndex<>(Collections.<TimeRange>emptyList(), range -> range);
+
+    Assert.assertEquals(Arrays.asList(), index.overlapping(TimeRange.WHOLE_DAY));
+  }
+
+  @Test
+  public void overlappingReturnsMatchesInStartOrder() {
+    // Ranges : |--A--|
+    //             |---B---|
+    //                |C
+    // Query  :         |--|
+    TimeRangeIndex<TimeRange> index =
+        new TimeRangeIndex<>(Arrays.asList(RANGE_C, RANGE_B, RANGE_A), range -> range);
+
+    Assert.assertEquals(Arrays.asList(RANGE_B, RANGE_C),
+        index.overlapping(TimeRange.fromStartEnd(TIME_0900AM, TIME_1000AM, false)));
+    Assert.assertEquals(Arrays.asList(RANGE_A, RANGE_B),
+        index.overlapping(TimeRange.fromStartEnd(TIME_0800AM, TIME_0900AM, false)));
+  }
+
+  @Test
+  public void containingIsAStabbingQuery() {
+    TimeRangeIndex<TimeRange> index =
+        new TimeRangeIndex<>(Arrays.asList(RANGE_A, RANGE_B, RANGE_C), range -> range);
+
+    Assert.assertEquals(Arrays.asList(RANGE_A, RANGE_B), index.containing(TIME_0830AM));
+    // Ranges never contain their end, and zero-duration ranges contain nothing.
+    Assert.assertEquals(Arrays.asList(RANGE_B), index.containing(TIME_0900AM));
+  }
+
+  @Test
+  public void matchesLinearScan() {
+    Random random = new Random(14);
+    List<TimeRange> ranges = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      int start = random.nextInt(TimeRange.END_OF_DAY);
+      ranges.add(
+          TimeRange.fromStartDuration(start, random.nextInt(8) == 0 ? 0 : random.nextInt(90)));
+    }
+    TimeRangeIndex<TimeRange> index = new TimeRangeIndex<>(ranges, range -> range);
+
+    for (int i = 0; i < 1000; i++) {
+      int start = random.nextInt(TimeRange.END_OF_DAY);
+      TimeRange query =
+          TimeRange.fromStartDuration(start, random.nextInt(4) == 0 ? 0 : random.nextInt(120));
+
+      List<TimeRange> expected = new ArrayList<>();
+      for (TimeRange range : ranges) {
+        if (range.overlaps(query)) {
+          expected.add(range);
+        }
+      }
+      List<TimeRange> actual = index.overlapping(query);
+      Collections.sort(expected, TimeRange.ORDER_BY_START.thenComparing(TimeRange.ORDER_BY_END));
+      Collections.sort(actual, TimeRange.ORDER_BY_START.thenComparing(TimeRange.ORDER_BY_END));
+
+      Assert.assertEquals(expected, actual);
+    }
+  }
+}
@@ -184,4 +184,22 @@ public final class TimeRangeTest {
     Assert.assertTrue(emptyMiddle.overlaps(range));
     Assert.assertTrue(emptyEnd.overlaps(range));
   }
+
+  @Test
+  public void timeInMinutesSinceEpoch() {
+    Assert.assertEquals(TimeRange.getTimeInMinutes(8, 30), TimeRange.getTimeInMinutes(0, 8, 30));
+    Assert.assertEquals(
+        2 * TimeRange.MINUTES_IN_DAY + 510, TimeRange.getTimeInMinutes(2, 8, 30));
+
+    Assert.assertEquals(0, TimeRange.getDay(TimeRange.END_OF_DAY));
+    Assert.assertEquals(2, TimeRange.getDay(TimeRange.getTimeInMinutes(2, 8, 30)));
+  }
+
+  @Test
+  public void fromDays() {
+    Assert.assertEquals(TimeRange.WHOLE_DAY, TimeRange.fromDays(0, 1));
+    Assert.assertEquals(
+        TimeRange.fromStartDuration(TimeRange.MINUTES_IN_DAY, 7 * TimeRange.MINUTES_IN_DAY),
+        TimeRange.fromDays(1, 7));
+  }
 }
@@ -0,0 +1,181 @@
+// Copyright 2020 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class WorkingHoursTest {
+  private static final Collection<Event> NO_EVENTS = Collections.emptySet();
+
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+
+  private static final ZoneId UTC = ZoneId.of("UTC");
+  private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+  private static final ZoneId TOKYO = ZoneId.of("Asia/Tokyo");
+
+  private static final LocalTime NINE_AM = LocalTime.of(9, 0);
+  private static final LocalTime FIVE_PM = LocalTime.of(17, 0);
+
+  // Day 0, 1 January 1970, was a Thursday.
+  private static final int THURSDAY = 0;
+  private static final int SATURDAY = 2;
+
+  private static final int DURATION_30_MINUTES = 30;
+
+  @Test
+  public void maskCoversWorkingHoursOfTheDay() {
+    WorkingHours hours = new WorkingHours(UTC, NINE_AM, FIVE_PM, WorkingHours.WEEKDAYS);
+    TimeRange window = TimeRange.fromDays(THURSDAY, 1);
+
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartEnd(
+        TimeRange.getTimeInMinutes(THURSDAY, 9, 0), TimeRange.getTimeInMinutes(THURSDAY, 17, 0),
+        false)), availableRanges(hours, window));
+  }
+
+  @Test
+  public void maskFollowsTheTimeZone() {
+    // 9:00 to 17:00 in Tokyo (UTC+9) is 0:00 to 8:00 UTC.
+    WorkingHours hours = new WorkingHours(TOKYO, NINE_AM, FIVE_PM, WorkingHours.WEEKDAYS);
+    TimeRange window = TimeRange.fromDays(THURSDAY, 1);
+
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartEnd(
+        TimeRange.getTimeInMinutes(THURSDAY, 0, 0), TimeRange.getTimeInMinutes(THURSDAY, 8, 0),
+        false)), availableRanges(hours, window));
+  }
+
+  @Test
+  public void maskIncludesDaysStartingBeforeTheWindow() {
+    // 9:00 to 17:00 in New York (UTC-5) is 14:00 to 22:00 UTC, so a window starting at 20:00 UTC
+    // starts during that day's working hours.
+    WorkingHours hours = new WorkingHours(NEW_YORK, NINE_AM, FIVE_PM, WorkingHours.WEEKDAYS);
+    TimeRange window = TimeRange.fromStartDuration(
+        TimeRange.getTimeInMinutes(THURSDAY, 20, 0), TimeRange.MINUTES_IN_DAY);
+
+    Assert.assertEquals(Arrays.asList(
+        TimeRange.fromStartEnd(TimeRange.getTimeInMinutes(THURSDAY, 20, 0),
+            TimeRange.getTimeInMinutes(THURSDAY, 22, 0), false),
+        TimeRange.fromStartEnd(TimeRange.getTimeInMinutes(THURSDAY + 1, 14, 0),
+            TimeRange.getTimeInMinutes(THURSDAY + 1, 20, 0), false)),
+        availableRanges(hours, window));
+  }
+
+  @Test
+  public void maskSkipsDaysOff() {
+    WorkingHours hours = new WorkingHours(UTC, NINE_AM, FIVE_PM, WorkingHours.WEEKDAYS);
+
+    Assert.assertEquals(Arrays.asList(), availableRanges(hours, TimeRange.fromDays(SATURDAY, 2)));
+  }
+
+  @Test
+  public void queryOnlySchedulesWithinEveryonesWorkingHours() {
+    // Person A : 9:00 - 17:00 UTC
+    // Person B : 9:00 - 17:00 New York, 14:00 - 22:00 UTC
+    // Options  :            |-----| 14:00 - 17:00 UTC
+    Map<String, WorkingHours> workingHours = new HashMap<>();
+    workingHours.put(PERSON_A, new WorkingHours(UTC, NINE_AM, FIVE_PM, WorkingHours.WEEKDAYS));
+    workingHours.put(PERSON_B,
+        new WorkingHours(NEW_YORK, NINE_AM, FIVE_PM, WorkingHours.WEEKDAYS));
+    MeetingQuery query = new MinuteBitmapMeetingQuery(workingHours);
+    MeetingRequest request = new MeetingRequest(
+        Arrays.asList(PERSON_A, PERSON_B), DURATION_30_MINUTES, TimeRange.fromDays(THURSDAY, 1));
+
+    Collection<TimeRange> actual = query.query(NO_EVENTS, request);
+
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartEnd(
+        TimeRange.getTimeInMinutes(THURSDAY, 14, 0), TimeRange.getTimeInMinutes(THURSDAY, 17, 0),
+        false)), actual);
+  }
+
+  @Test
+  public void queryIgnoresOptionalAttendeeOutsideWorkingHours() {
+    // Person B's working hours in Tokyo don't overlap Person A's at all, so Person B is dropped.
+    Map<String, WorkingHours> workingHours = new HashMap<>();
+    workingHours.put(PERSON_A, new WorkingHours(UTC, NINE_AM, FIVE_PM, WorkingHours.WEEKDAYS));
+    workingHours.put(PERSON_B, new WorkingHours(TOKYO, NINE_AM, FIVE_PM, WorkingHours.WEEKDAYS));
+    MeetingQuery query = new MinuteBitmapMeetingQuery(workingHours);
+    MeetingRequest request = new MeetingRequest(
+        Arrays.asList(PERSON_A), DURATION_30_MINUTES, TimeRange.fromDays(THURSDAY, 1));
+    request.addOptionalAttendee(PERSON_B);
+
+    Collection<TimeRange> actual = query.query(NO_EVENTS, request);
+
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartEnd(
+        TimeRange.getTimeInMinutes(THURSDAY, 9, 0), TimeRange.getTimeInMinutes(THURSDAY, 17, 0),
+        false)), actual);
+  }
+
+  @Test
+  public void maskMatchesBusyEventsOutsideWorkingHours() {
+    // Working hours should behave exactly like events filling the time outside them.
+    WorkingHours hours = new WorkingHours(NEW_YORK, NINE_AM, FIVE_PM,
+        Arrays.asList(DayOfWeek.MONDAY, DayOfWeek.THURSDAY));
+    TimeRange window = TimeRange.fromDays(THURSDAY, 14);
+    List<Event> events = new ArrayList<>();
+    events.add(new Event("Event 1",
+        TimeRange.fromStartDuration(window.start() + 600, 45), Arrays.asList(PERSON_A)));
+    int freeStart = window.start();
+    for (TimeRange available : availableRanges(hours, window)) {
+      events.add(new Event("Off", TimeRange.fromStartEnd(freeStart, available.start(), false),
+          Arrays.asList(PERSON_A)));
+      freeStart = available.end();
+    }
+    events.add(new Event("Off", TimeRange.fromStartEnd(freeStart, window.end(), false),
+        Arrays.asList(PERSON_A)));
+    MeetingRequest request =
+        new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES, window);
+
+    Collection<TimeRange> expected = new FindMeetingQuery().query(events, request);
+    Collection<TimeRange> actual =
+        new MinuteBitmapMeetingQuery(Collections.singletonMap(PERSON_A, hours))
+            .query(events.subList(0, 1), request);
+
+    Assert.assertEquals(4, expected.size());
+    Assert.assertEquals(expected, actual);
+  }
+
+  /** Returns the runs of set bits in the mask of {@code window}, as time ranges. */
+  private static List<TimeRange> availableRanges(WorkingHours hours, TimeRange window) {
+    long[] mask = hours.availabilityMask(window);
+    List<TimeRange> ranges = new ArrayList<>();
+    int start = -1;
+    for (int minute = 0; minute <= window.duration(); minute++) {
+      boolean available =
+          minute < window.duration() && (mask[minute / Long.SIZE] & (1L << minute)) != 0;
+      if (available && start < 0) {
+        start = minute;
+      } else if (!available && start >= 0) {
+        ranges.add(TimeRange.fromStartEnd(window.start() + start, window.start() + minute, false));
+        start = -1;
+      }
+    }
+    return ranges;
+  }
+}